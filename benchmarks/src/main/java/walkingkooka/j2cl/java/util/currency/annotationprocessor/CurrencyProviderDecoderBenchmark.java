@@ -0,0 +1,114 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.j2cl.java.io.string.StringDataInputDataOutput;
+import walkingkooka.j2cl.locale.WalkingkookaLanguageTag;
+import walkingkooka.text.Indentation;
+import walkingkooka.text.LineEnding;
+import walkingkooka.text.printer.Printers;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link CurrencyProviderDecoder#decode(java.io.DataInput)} of the {@code DATA} generated for all locales,
+ * in the unversioned format and with most features. The gc profiler reports the bytes allocated by each decode.
+ * <pre>
+ * java -jar target/benchmarks.jar CurrencyProviderDecoderBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CurrencyProviderDecoderBenchmark {
+
+    /**
+     * The locale filter of the generated {@code DATA}.
+     */
+    @Param({
+            "*"
+    })
+    public String profile;
+
+    /**
+     * A csv of {@link CurrencyProviderFeature features}, an empty string is the unversioned format.
+     */
+    @Param({
+            "",
+            "STRING_TABLE,GROUPED_LOCALES",
+            "STRING_TABLE,GROUPED_LOCALES,LANGUAGE_SYMBOLS,OFFSET_TABLE,LOOKUP_COLUMNS,LOCALE_HASH"
+    })
+    public String features;
+
+    private String data;
+
+    @Setup
+    public void setup() throws IOException {
+        final StringBuilder data = new StringBuilder();
+
+        CurrencyProviderTool.generate(
+                WalkingkookaLanguageTag.all(this.profile),
+                Sets.empty(),
+                CurrencyProviderToolOptions.DEFAULT
+                        .setFeatures(CurrencyProviderFeature.parse(this.features)),
+                StringDataInputDataOutput.output(data::append),
+                Printers.sink(LineEnding.NONE)
+                        .indenting(Indentation.SPACES2)
+        );
+
+        this.data = data.toString();
+    }
+
+    @Benchmark
+    public Map<String, CurrencyDecodedRecord> decode() throws IOException {
+        return CurrencyProviderDecoder.decode(StringDataInputDataOutput.input(this.data));
+    }
+
+    /**
+     * Runs all feature sets with the gc profiler, which reports the allocation rate and bytes per decode.
+     */
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(
+                new OptionsBuilder()
+                        .include(CurrencyProviderDecoderBenchmark.class.getSimpleName())
+                        .addProfiler(GCProfiler.class)
+                        .build()
+        ).run();
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.j2cl.java.io.string.StringDataInputDataOutput;
+import walkingkooka.j2cl.locale.WalkingkookaLanguageTag;
+import walkingkooka.text.Indentation;
+import walkingkooka.text.LineEnding;
+import walkingkooka.text.printer.IndentingPrinter;
+import walkingkooka.text.printer.Printers;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link CurrencyProviderTool#generate(Set, Set, java.io.DataOutput, IndentingPrinter)} for a few
+ * representative locale and currency filter profiles, with and without comments.
+ * <pre>
+ * java -jar target/benchmarks.jar CurrencyProviderToolBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CurrencyProviderToolBenchmark {
+
+    /**
+     * The locale filter optionally followed by a {@link #SEPARATOR} and currency code filter.
+     */
+    @Param({
+            "*",
+            "EN*",
+            "DE*",
+            "en-AU",
+            "*|*"
+    })
+    public String profile;
+
+    /**
+     * When true comments are printed to a {@link StringBuilder} otherwise they are discarded.
+     */
+    @Param({
+            "true",
+            "false"
+    })
+    public boolean comments;
+
+    private final static String SEPARATOR = "|";
+
+    private Set<String> languageTags;
+
+    private Set<String> currencyCodes;
+
+    @Setup
+    public void setup() {
+        final int separator = this.profile.indexOf(SEPARATOR);
+        final String localeFilter = -1 == separator ?
+                this.profile :
+                this.profile.substring(0, separator);
+
+        this.languageTags = WalkingkookaLanguageTag.all(localeFilter);
+        this.currencyCodes = -1 == separator ?
+                Sets.empty() :
+                CurrencyProviderAnnotationProcessor.currencyCodes(this.profile.substring(separator + 1));
+    }
+
+    @Benchmark
+    public CharSequence generate() throws IOException {
+        final StringBuilder data = new StringBuilder();
+        final StringBuilder comments = new StringBuilder();
+
+        CurrencyProviderTool.generate(
+                this.languageTags,
+                this.currencyCodes,
+                StringDataInputDataOutput.output(data::append),
+                this.comments(comments)
+        );
+
+        return data.append(comments);
+    }
+
+    private IndentingPrinter comments(final StringBuilder comments) {
+        return this.comments ?
+                CurrencyProviderAnnotationProcessor.comments(Printers.stringBuilder(comments, LineEnding.NL)) :
+                Printers.sink(LineEnding.NONE)
+                        .indenting(Indentation.SPACES2);
+    }
+
+    /**
+     * Runs all profiles with the gc profiler, which reports the allocation rate.
+     */
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(
+                new OptionsBuilder()
+                        .include(CurrencyProviderToolBenchmark.class.getSimpleName())
+                        .addProfiler(GCProfiler.class)
+                        .build()
+        ).run();
+    }
+}
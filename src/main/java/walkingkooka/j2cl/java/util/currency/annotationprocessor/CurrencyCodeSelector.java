@@ -0,0 +1,135 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.text.CharSequences;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * A parsed csv list of currency code selectors, evaluated left to right with the last matching selector winning.
+ * <ul>
+ * <li>{@code AUD} includes the currency code AUD</li>
+ * <li>{@code A*} includes all currency codes starting with A</li>
+ * <li>{@code -AUD} excludes the currency code AUD</li>
+ * <li>{@code -*} excludes all currency codes</li>
+ * </ul>
+ * Currencies used by at least one selected locale are included unless excluded, all other currencies are excluded
+ * unless included. For example {@code -*,AUD,NZD} keeps only AUD and NZD even if other currencies have locales.
+ */
+final class CurrencyCodeSelector {
+
+    private final static char EXCLUDE = '-';
+
+    private final static char WILDCARD = '*';
+
+    private final static String SEPARATOR = ",";
+
+    static CurrencyCodeSelector parse(final String selectors) {
+        Objects.requireNonNull(selectors, "selectors");
+
+        final List<String> prefixes = Lists.array();
+        final List<Boolean> includes = Lists.array();
+
+        for (final String token : selectors.split(SEPARATOR)) {
+            String selector = token.trim();
+            if (selector.isEmpty()) {
+                continue;
+            }
+
+            final boolean include = EXCLUDE != selector.charAt(0);
+            if (false == include) {
+                selector = selector.substring(1).trim();
+            }
+
+            final int wildcard = selector.indexOf(WILDCARD);
+            if (-1 != wildcard && selector.length() - 1 != wildcard) {
+                throw new IllegalArgumentException("Invalid currency code selector " + CharSequences.quoteAndEscape(token) + " wildcard must be last");
+            }
+            if (selector.isEmpty()) {
+                throw new IllegalArgumentException("Invalid currency code selector " + CharSequences.quoteAndEscape(token));
+            }
+
+            prefixes.add(
+                    -1 == wildcard ?
+                            selector.toUpperCase(Locale.ENGLISH) :
+                            selector.substring(0, wildcard).toUpperCase(Locale.ENGLISH) + WILDCARD
+            );
+            includes.add(include);
+        }
+
+        return new CurrencyCodeSelector(
+                selectors,
+                prefixes.toArray(new String[0]),
+                includes.toArray(new Boolean[0])
+        );
+    }
+
+    private CurrencyCodeSelector(final String text,
+                                 final String[] selectors,
+                                 final Boolean[] includes) {
+        super();
+        this.text = text;
+        this.selectors = selectors;
+        this.includes = includes;
+    }
+
+    /**
+     * Tests if the given currency code is selected. {@code withLocales} should be true if the currency is used by at
+     * least one selected locale, and is returned when no selector matches.
+     */
+    boolean test(final String currencyCode,
+                 final boolean withLocales) {
+        boolean selected = withLocales;
+
+        final String[] selectors = this.selectors;
+        final int count = selectors.length;
+        for (int i = 0; i < count; i++) {
+            if (matches(selectors[i], currencyCode)) {
+                selected = this.includes[i];
+            }
+        }
+
+        return selected;
+    }
+
+    private static boolean matches(final String selector,
+                                   final String currencyCode) {
+        final int last = selector.length() - 1;
+        return WILDCARD == selector.charAt(last) ?
+                currencyCode.regionMatches(true, 0, selector, 0, last) :
+                currencyCode.equalsIgnoreCase(selector);
+    }
+
+    /**
+     * The original text that was parsed.
+     */
+    private final String text;
+
+    private final String[] selectors;
+
+    private final Boolean[] includes;
+
+    @Override
+    public String toString() {
+        return this.text;
+    }
+}
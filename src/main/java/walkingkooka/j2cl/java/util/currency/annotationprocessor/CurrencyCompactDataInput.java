@@ -0,0 +1,143 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import walkingkooka.text.CharSequences;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * A {@link DataInput} that forwards all reads, except ints which are read from the digits written by
+ * {@link CurrencyCompactDataOutput}.
+ */
+final class CurrencyCompactDataInput implements DataInput {
+
+    static CurrencyCompactDataInput with(final DataInput input) {
+        return new CurrencyCompactDataInput(Objects.requireNonNull(input, "input"));
+    }
+
+    private CurrencyCompactDataInput(final DataInput input) {
+        super();
+        this.input = input;
+    }
+
+    @Override
+    public void readFully(final byte[] b) throws IOException {
+        this.input.readFully(b);
+    }
+
+    @Override
+    public void readFully(final byte[] b,
+                          final int off,
+                          final int len) throws IOException {
+        this.input.readFully(b, off, len);
+    }
+
+    @Override
+    public int skipBytes(final int n) throws IOException {
+        return this.input.skipBytes(n);
+    }
+
+    @Override
+    public boolean readBoolean() throws IOException {
+        return this.input.readBoolean();
+    }
+
+    @Override
+    public byte readByte() throws IOException {
+        return this.input.readByte();
+    }
+
+    @Override
+    public int readUnsignedByte() throws IOException {
+        return this.input.readUnsignedByte();
+    }
+
+    @Override
+    public short readShort() throws IOException {
+        return this.input.readShort();
+    }
+
+    @Override
+    public int readUnsignedShort() throws IOException {
+        return this.input.readUnsignedShort();
+    }
+
+    @Override
+    public char readChar() throws IOException {
+        return this.input.readChar();
+    }
+
+    @Override
+    public int readInt() throws IOException {
+        final String digits = this.input.readUTF();
+        final int length = digits.length();
+        if (0 == length || length > CurrencyCompactDataOutput.MAX_DIGITS) {
+            throw new IOException("Invalid compact int " + CharSequences.quoteAndEscape(digits));
+        }
+
+        long zigzag = 0;
+        for (int i = length - 1; i >= 0; i--) {
+            final int digit = CurrencyCompactDataOutput.DIGITS.indexOf(digits.charAt(i));
+            if (-1 == digit) {
+                throw new IOException("Invalid compact int " + CharSequences.quoteAndEscape(digits));
+            }
+            zigzag = zigzag * CurrencyCompactDataOutput.RADIX + digit;
+        }
+        if (zigzag > 0xFFFFFFFFL) {
+            throw new IOException("Invalid compact int " + CharSequences.quoteAndEscape(digits));
+        }
+
+        final int value = (int) zigzag;
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    @Override
+    public long readLong() throws IOException {
+        return this.input.readLong();
+    }
+
+    @Override
+    public float readFloat() throws IOException {
+        return this.input.readFloat();
+    }
+
+    @Override
+    public double readDouble() throws IOException {
+        return this.input.readDouble();
+    }
+
+    @Override
+    public String readLine() throws IOException {
+        return this.input.readLine();
+    }
+
+    @Override
+    public String readUTF() throws IOException {
+        return this.input.readUTF();
+    }
+
+    private final DataInput input;
+
+    @Override
+    public String toString() {
+        return this.input.toString();
+    }
+}
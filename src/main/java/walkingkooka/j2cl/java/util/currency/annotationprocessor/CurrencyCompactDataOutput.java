@@ -0,0 +1,143 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * A {@link DataOutput} that forwards all writes, except ints which are zigzag encoded so small negative values stay
+ * small, and written with {@link DataOutput#writeUTF(String)} as base {@link #RADIX} digits, lowest first. Every digit
+ * is a printable ASCII char from {@link #DIGITS}, which skips the quote, comma and backslash, so no digit is escaped
+ * in the text form of DATA or its java literal. Ints from -45 to 45 are a single digit, any numeric code is two, and
+ * no int is ever longer than its decimal text.
+ */
+final class CurrencyCompactDataOutput implements DataOutput {
+
+    /**
+     * Every printable ASCII char except the quote, comma and backslash, the position of each char is its digit value.
+     */
+    final static String DIGITS = "!#$%&'()*+-./0123456789:;<=>?@ABCDEFGHIJKLMNOPQRSTUVWXYZ[]^_`abcdefghijklmnopqrstuvwxyz{|}~";
+
+    /**
+     * The number of {@link #DIGITS}.
+     */
+    final static int RADIX = DIGITS.length();
+
+    /**
+     * The most digits of any int, {@link #RADIX} to the power of this is larger than every unsigned int.
+     */
+    final static int MAX_DIGITS = 5;
+
+    static CurrencyCompactDataOutput with(final DataOutput output) {
+        return new CurrencyCompactDataOutput(Objects.requireNonNull(output, "output"));
+    }
+
+    private CurrencyCompactDataOutput(final DataOutput output) {
+        super();
+        this.output = output;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        this.output.write(b);
+    }
+
+    @Override
+    public void write(final byte[] b) throws IOException {
+        this.output.write(b);
+    }
+
+    @Override
+    public void write(final byte[] b,
+                      final int off,
+                      final int len) throws IOException {
+        this.output.write(b, off, len);
+    }
+
+    @Override
+    public void writeBoolean(final boolean v) throws IOException {
+        this.output.writeBoolean(v);
+    }
+
+    @Override
+    public void writeByte(final int v) throws IOException {
+        this.output.writeByte(v);
+    }
+
+    @Override
+    public void writeShort(final int v) throws IOException {
+        this.output.writeShort(v);
+    }
+
+    @Override
+    public void writeChar(final int v) throws IOException {
+        this.output.writeChar(v);
+    }
+
+    @Override
+    public void writeInt(final int v) throws IOException {
+        long zigzag = Integer.toUnsignedLong((v << 1) ^ (v >> 31));
+
+        final StringBuilder digits = new StringBuilder(MAX_DIGITS);
+        do {
+            digits.append(DIGITS.charAt((int) (zigzag % RADIX)));
+            zigzag = zigzag / RADIX;
+        } while (0 != zigzag);
+
+        this.output.writeUTF(digits.toString());
+    }
+
+    @Override
+    public void writeLong(final long v) throws IOException {
+        this.output.writeLong(v);
+    }
+
+    @Override
+    public void writeFloat(final float v) throws IOException {
+        this.output.writeFloat(v);
+    }
+
+    @Override
+    public void writeDouble(final double v) throws IOException {
+        this.output.writeDouble(v);
+    }
+
+    @Override
+    public void writeBytes(final String s) throws IOException {
+        this.output.writeBytes(s);
+    }
+
+    @Override
+    public void writeChars(final String s) throws IOException {
+        this.output.writeChars(s);
+    }
+
+    @Override
+    public void writeUTF(final String s) throws IOException {
+        this.output.writeUTF(s);
+    }
+
+    private final DataOutput output;
+
+    @Override
+    public String toString() {
+        return this.output.toString();
+    }
+}
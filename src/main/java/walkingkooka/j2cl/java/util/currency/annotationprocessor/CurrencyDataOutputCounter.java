@@ -0,0 +1,157 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import walkingkooka.j2cl.java.io.string.StringDataInputDataOutput;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * A {@link DataOutput} that forwards all writes and counts the bytes each adds to the escaped DATA literal of the
+ * generated source. Every value is also written to a {@link StringDataInputDataOutput} whose text is only measured
+ * with {@link CurrencyProviderDataLiteralWriter#escapedLength(CharSequence)}, so the count follows the text form of
+ * DATA, including ints written as digits by {@link CurrencyCompactDataOutput}.
+ */
+final class CurrencyDataOutputCounter implements DataOutput {
+
+    static CurrencyDataOutputCounter with(final DataOutput output) throws IOException {
+        return new CurrencyDataOutputCounter(Objects.requireNonNull(output, "output"));
+    }
+
+    private CurrencyDataOutputCounter(final DataOutput output) throws IOException {
+        super();
+        this.output = output;
+        this.text = StringDataInputDataOutput.output(this::count);
+
+        // a value is written and not counted, so every counted value includes the separator before it
+        this.text.writeInt(0);
+        this.bytes = 0;
+    }
+
+    private void count(final String text) {
+        this.bytes += CurrencyProviderDataLiteralWriter.escapedLength(text);
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        this.output.write(b);
+        this.text.write(b);
+    }
+
+    @Override
+    public void write(final byte[] b) throws IOException {
+        this.write(b, 0, b.length);
+    }
+
+    @Override
+    public void write(final byte[] b,
+                      final int off,
+                      final int len) throws IOException {
+        this.output.write(b, off, len);
+        this.text.write(b, off, len);
+    }
+
+    @Override
+    public void writeBoolean(final boolean v) throws IOException {
+        this.output.writeBoolean(v);
+        this.text.writeBoolean(v);
+    }
+
+    @Override
+    public void writeByte(final int v) throws IOException {
+        this.output.writeByte(v);
+        this.text.writeByte(v);
+    }
+
+    @Override
+    public void writeShort(final int v) throws IOException {
+        this.output.writeShort(v);
+        this.text.writeShort(v);
+    }
+
+    @Override
+    public void writeChar(final int v) throws IOException {
+        this.output.writeChar(v);
+        this.text.writeChar(v);
+    }
+
+    @Override
+    public void writeInt(final int v) throws IOException {
+        this.output.writeInt(v);
+        this.text.writeInt(v);
+    }
+
+    @Override
+    public void writeLong(final long v) throws IOException {
+        this.output.writeLong(v);
+        this.text.writeLong(v);
+    }
+
+    @Override
+    public void writeFloat(final float v) throws IOException {
+        this.output.writeFloat(v);
+        this.text.writeFloat(v);
+    }
+
+    @Override
+    public void writeDouble(final double v) throws IOException {
+        this.output.writeDouble(v);
+        this.text.writeDouble(v);
+    }
+
+    @Override
+    public void writeBytes(final String s) throws IOException {
+        this.output.writeBytes(s);
+        this.text.writeBytes(s);
+    }
+
+    @Override
+    public void writeChars(final String s) throws IOException {
+        this.output.writeChars(s);
+        this.text.writeChars(s);
+    }
+
+    @Override
+    public void writeUTF(final String s) throws IOException {
+        this.output.writeUTF(s);
+        this.text.writeUTF(s);
+    }
+
+    /**
+     * The number of bytes of the escaped literal written so far.
+     */
+    long bytes() {
+        return this.bytes;
+    }
+
+    private long bytes;
+
+    private final DataOutput output;
+
+    /**
+     * The text form of every value, which is measured and then discarded.
+     */
+    private final DataOutput text;
+
+    @Override
+    public String toString() {
+        return this.bytes + " bytes";
+    }
+}
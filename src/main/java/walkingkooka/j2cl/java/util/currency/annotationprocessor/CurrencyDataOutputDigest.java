@@ -0,0 +1,191 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Objects;
+
+/**
+ * A {@link DataOutput} that forwards all writes and updates a SHA-256 digest with the binary encoding of each value,
+ * giving a hash of DATA that is independent of its text form. The data of any shards may also be added, so the hash
+ * covers every generated class.
+ */
+final class CurrencyDataOutputDigest implements DataOutput {
+
+    static CurrencyDataOutputDigest with(final DataOutput output) {
+        return new CurrencyDataOutputDigest(Objects.requireNonNull(output, "output"));
+    }
+
+    private CurrencyDataOutputDigest(final DataOutput output) {
+        super();
+        this.output = output;
+
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException cause) {
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        this.output.write(b);
+        this.digest.update((byte) b);
+    }
+
+    @Override
+    public void write(final byte[] b) throws IOException {
+        this.write(b, 0, b.length);
+    }
+
+    @Override
+    public void write(final byte[] b,
+                      final int off,
+                      final int len) throws IOException {
+        this.output.write(b, off, len);
+        this.digest.update(b, off, len);
+    }
+
+    @Override
+    public void writeBoolean(final boolean v) throws IOException {
+        this.output.writeBoolean(v);
+        this.digest.update((byte) (v ? 1 : 0));
+    }
+
+    @Override
+    public void writeByte(final int v) throws IOException {
+        this.output.writeByte(v);
+        this.digest.update((byte) v);
+    }
+
+    @Override
+    public void writeShort(final int v) throws IOException {
+        this.output.writeShort(v);
+        this.update(v, 2);
+    }
+
+    @Override
+    public void writeChar(final int v) throws IOException {
+        this.output.writeChar(v);
+        this.update(v, 2);
+    }
+
+    @Override
+    public void writeInt(final int v) throws IOException {
+        this.output.writeInt(v);
+        this.update(v, 4);
+    }
+
+    @Override
+    public void writeLong(final long v) throws IOException {
+        this.output.writeLong(v);
+        this.update(v, 8);
+    }
+
+    @Override
+    public void writeFloat(final float v) throws IOException {
+        this.output.writeFloat(v);
+        this.update(Float.floatToIntBits(v), 4);
+    }
+
+    @Override
+    public void writeDouble(final double v) throws IOException {
+        this.output.writeDouble(v);
+        this.update(Double.doubleToLongBits(v), 8);
+    }
+
+    @Override
+    public void writeBytes(final String s) throws IOException {
+        this.output.writeBytes(s);
+
+        final int length = s.length();
+        for (int i = 0; i < length; i++) {
+            this.digest.update((byte) s.charAt(i));
+        }
+    }
+
+    @Override
+    public void writeChars(final String s) throws IOException {
+        this.output.writeChars(s);
+
+        final int length = s.length();
+        for (int i = 0; i < length; i++) {
+            this.update(s.charAt(i), 2);
+        }
+    }
+
+    /**
+     * Strings are digested as their UTF-8 byte count followed by the bytes, which unlike
+     * {@link java.io.DataOutputStream#writeUTF(String)} has no length limit.
+     */
+    @Override
+    public void writeUTF(final String s) throws IOException {
+        this.output.writeUTF(s);
+        this.update(s);
+    }
+
+    /**
+     * Adds the currency code and data of a shard to the digest.
+     */
+    void shard(final String currencyCode,
+               final String data) {
+        this.update(currencyCode);
+        this.update(data);
+    }
+
+    private void update(final String s) {
+        final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        this.update(bytes.length, 4);
+        this.digest.update(bytes);
+    }
+
+    /**
+     * Updates the digest with the given number of low bytes of the value, most significant first.
+     */
+    private void update(final long v,
+                        final int bytes) {
+        for (int i = bytes - 1; i >= 0; i--) {
+            this.digest.update((byte) (v >>> (i * 8)));
+        }
+    }
+
+    /**
+     * Completes the digest returning it as lower case hex, after which the digest starts again.
+     */
+    String hash() {
+        final StringBuilder hex = new StringBuilder();
+        for (final byte b : this.digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xf, 16));
+            hex.append(Character.forDigit(b & 0xf, 16));
+        }
+        return hex.toString();
+    }
+
+    private final DataOutput output;
+
+    private final MessageDigest digest;
+
+    @Override
+    public String toString() {
+        return this.output.toString();
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * A {@link DataOutput} that forwards every write to another {@link DataOutput} and also records it, so the same
+ * writes can later be replayed without repeating the work that produced them.
+ */
+final class CurrencyDataOutputRecorder implements DataOutput {
+
+    private final static int BOOLEAN = 1;
+    private final static int BYTE = 2;
+    private final static int SHORT = 3;
+    private final static int CHAR = 4;
+    private final static int INT = 5;
+    private final static int LONG = 6;
+    private final static int FLOAT = 7;
+    private final static int DOUBLE = 8;
+    private final static int BYTES = 9;
+    private final static int CHARS = 10;
+    private final static int UTF = 11;
+    private final static int WRITE = 12;
+
+    static CurrencyDataOutputRecorder with(final DataOutput output) {
+        return new CurrencyDataOutputRecorder(Objects.requireNonNull(output, "output"));
+    }
+
+    /**
+     * Replays previously {@link #recording() recorded} writes to the given {@link DataOutput}.
+     */
+    static void replay(final byte[] recording,
+                       final DataOutput output) throws IOException {
+        final DataInputStream input = new DataInputStream(new ByteArrayInputStream(recording));
+
+        for (; ; ) {
+            final int op = input.read();
+            switch (op) {
+                case -1:
+                    return;
+                case BOOLEAN:
+                    output.writeBoolean(input.readBoolean());
+                    break;
+                case BYTE:
+                    output.writeByte(input.readByte());
+                    break;
+                case SHORT:
+                    output.writeShort(input.readShort());
+                    break;
+                case CHAR:
+                    output.writeChar(input.readChar());
+                    break;
+                case INT:
+                    output.writeInt(input.readInt());
+                    break;
+                case LONG:
+                    output.writeLong(input.readLong());
+                    break;
+                case FLOAT:
+                    output.writeFloat(input.readFloat());
+                    break;
+                case DOUBLE:
+                    output.writeDouble(input.readDouble());
+                    break;
+                case BYTES:
+                    output.writeBytes(input.readUTF());
+                    break;
+                case CHARS:
+                    output.writeChars(input.readUTF());
+                    break;
+                case UTF:
+                    output.writeUTF(input.readUTF());
+                    break;
+                case WRITE:
+                    final byte[] bytes = new byte[input.readInt()];
+                    input.readFully(bytes);
+                    output.write(bytes);
+                    break;
+                default:
+                    throw new IOException("Unknown recorded op " + op);
+            }
+        }
+    }
+
+    private CurrencyDataOutputRecorder(final DataOutput output) {
+        super();
+        this.output = output;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        this.output.write(b);
+        this.recording.writeByte(WRITE);
+        this.recording.writeInt(1);
+        this.recording.writeByte(b);
+    }
+
+    @Override
+    public void write(final byte[] b) throws IOException {
+        this.write(b, 0, b.length);
+    }
+
+    @Override
+    public void write(final byte[] b,
+                      final int off,
+                      final int len) throws IOException {
+        this.output.write(b, off, len);
+        this.recording.writeByte(WRITE);
+        this.recording.writeInt(len);
+        this.recording.write(b, off, len);
+    }
+
+    @Override
+    public void writeBoolean(final boolean v) throws IOException {
+        this.output.writeBoolean(v);
+        this.recording.writeByte(BOOLEAN);
+        this.recording.writeBoolean(v);
+    }
+
+    @Override
+    public void writeByte(final int v) throws IOException {
+        this.output.writeByte(v);
+        this.recording.writeByte(BYTE);
+        this.recording.writeByte(v);
+    }
+
+    @Override
+    public void writeShort(final int v) throws IOException {
+        this.output.writeShort(v);
+        this.recording.writeByte(SHORT);
+        this.recording.writeShort(v);
+    }
+
+    @Override
+    public void writeChar(final int v) throws IOException {
+        this.output.writeChar(v);
+        this.recording.writeByte(CHAR);
+        this.recording.writeChar(v);
+    }
+
+    @Override
+    public void writeInt(final int v) throws IOException {
+        this.output.writeInt(v);
+        this.recording.writeByte(INT);
+        this.recording.writeInt(v);
+    }
+
+    @Override
+    public void writeLong(final long v) throws IOException {
+        this.output.writeLong(v);
+        this.recording.writeByte(LONG);
+        this.recording.writeLong(v);
+    }
+
+    @Override
+    public void writeFloat(final float v) throws IOException {
+        this.output.writeFloat(v);
+        this.recording.writeByte(FLOAT);
+        this.recording.writeFloat(v);
+    }
+
+    @Override
+    public void writeDouble(final double v) throws IOException {
+        this.output.writeDouble(v);
+        this.recording.writeByte(DOUBLE);
+        this.recording.writeDouble(v);
+    }
+
+    @Override
+    public void writeBytes(final String s) throws IOException {
+        this.output.writeBytes(s);
+        this.recording.writeByte(BYTES);
+        this.recording.writeUTF(s);
+    }
+
+    @Override
+    public void writeChars(final String s) throws IOException {
+        this.output.writeChars(s);
+        this.recording.writeByte(CHARS);
+        this.recording.writeUTF(s);
+    }
+
+    @Override
+    public void writeUTF(final String s) throws IOException {
+        this.output.writeUTF(s);
+        this.recording.writeByte(UTF);
+        this.recording.writeUTF(s);
+    }
+
+    private final DataOutput output;
+
+    /**
+     * Returns all writes recorded so far.
+     */
+    byte[] recording() {
+        return this.bytes.toByteArray();
+    }
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+    private final DataOutputStream recording = new DataOutputStream(this.bytes);
+
+    @Override
+    public String toString() {
+        return this.output.toString();
+    }
+}
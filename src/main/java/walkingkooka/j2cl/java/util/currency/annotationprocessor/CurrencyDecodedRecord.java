@@ -0,0 +1,142 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * A single currency decoded from {@code DATA} by {@link CurrencyProviderDecoder}, holding its attributes, locales and
+ * symbols whatever the {@link CurrencyProviderFeature features} used to write it.
+ */
+final class CurrencyDecodedRecord {
+
+    static CurrencyDecodedRecord with(final String currencyCode,
+                                      final int defaultFractionDigits,
+                                      final int numericCode,
+                                      final String defaultSymbol,
+                                      final Set<Locale> locales,
+                                      final Map<String, String> languageToSymbol,
+                                      final Map<String, Set<Locale>> symbolToLocales) {
+        return new CurrencyDecodedRecord(currencyCode,
+                defaultFractionDigits,
+                numericCode,
+                defaultSymbol,
+                locales,
+                languageToSymbol,
+                symbolToLocales);
+    }
+
+    private CurrencyDecodedRecord(final String currencyCode,
+                                  final int defaultFractionDigits,
+                                  final int numericCode,
+                                  final String defaultSymbol,
+                                  final Set<Locale> locales,
+                                  final Map<String, String> languageToSymbol,
+                                  final Map<String, Set<Locale>> symbolToLocales) {
+        super();
+        this.currencyCode = currencyCode;
+        this.defaultFractionDigits = defaultFractionDigits;
+        this.numericCode = numericCode;
+        this.defaultSymbol = defaultSymbol;
+        this.locales = locales;
+        this.languageToSymbol = languageToSymbol;
+        this.symbolToLocales = symbolToLocales;
+    }
+
+    String currencyCode() {
+        return this.currencyCode;
+    }
+
+    private final String currencyCode;
+
+    int defaultFractionDigits() {
+        return this.defaultFractionDigits;
+    }
+
+    private final int defaultFractionDigits;
+
+    int numericCode() {
+        return this.numericCode;
+    }
+
+    private final int numericCode;
+
+    String defaultSymbol() {
+        return this.defaultSymbol;
+    }
+
+    private final String defaultSymbol;
+
+    /**
+     * The sorted {@link Locale locales} that use this currency.
+     */
+    Set<Locale> locales() {
+        return this.locales;
+    }
+
+    private final Set<Locale> locales;
+
+    /**
+     * The symbol of each language that differs from the default symbol, always empty unless
+     * {@link CurrencyProviderFeature#LANGUAGE_SYMBOLS} was selected.
+     */
+    Map<String, String> languageToSymbol() {
+        return this.languageToSymbol;
+    }
+
+    private final Map<String, String> languageToSymbol;
+
+    /**
+     * Each symbol and the {@link Locale locales} whose symbol differs from their language symbol or the default symbol.
+     */
+    Map<String, Set<Locale>> symbolToLocales() {
+        return this.symbolToLocales;
+    }
+
+    private final Map<String, Set<Locale>> symbolToLocales;
+
+    /**
+     * Resolves the symbol of a selected {@link Locale} by locale, then language and then the default symbol.
+     */
+    String symbol(final Locale locale) {
+        for (final Entry<String, Set<Locale>> symbolAndLocales : this.symbolToLocales.entrySet()) {
+            if (symbolAndLocales.getValue().contains(locale)) {
+                return symbolAndLocales.getKey();
+            }
+        }
+
+        return this.languageToSymbol.getOrDefault(
+                CurrencyLocaleGroups.language(locale),
+                this.defaultSymbol
+        );
+    }
+
+    @Override
+    public String toString() {
+        return this.currencyCode + " " +
+                this.defaultFractionDigits + " " +
+                this.numericCode + " " +
+                this.defaultSymbol + " " +
+                this.locales + " " +
+                this.languageToSymbol + " " +
+                this.symbolToLocales;
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import walkingkooka.collect.map.Maps;
+import walkingkooka.collect.set.SortedSets;
+import walkingkooka.j2cl.locale.annotationprocessor.LocaleAwareAnnotationProcessorTool;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * The symbols of a currency resolved through locale, then language and then the global default symbol. Each language
+ * has the symbol used by most of its selected locales, only languages whose symbol differs from the global default are
+ * kept, and only locales whose symbol differs from their language symbol are kept as overrides.
+ */
+final class CurrencyLanguageSymbols {
+
+    /**
+     * Creates the language symbols and overrides for the default symbol and other symbols of a currency, where every
+     * selected {@link Locale} absent from the other symbols uses the default symbol.
+     */
+    static CurrencyLanguageSymbols with(final String defaultSymbol,
+                                        final Map<String, Set<Locale>> symbolToLocales,
+                                        final Set<Locale> selected) {
+        final Map<Locale, String> localeToSymbol = Maps.hash();
+        for (final Entry<String, Set<Locale>> symbolAndLocales : symbolToLocales.entrySet()) {
+            for (final Locale locale : symbolAndLocales.getValue()) {
+                localeToSymbol.put(locale, symbolAndLocales.getKey());
+            }
+        }
+
+        final Map<String, Map<String, Integer>> languageToSymbolCounts = Maps.sorted();
+        for (final Locale locale : selected) {
+            final String language = CurrencyLocaleGroups.language(locale);
+
+            Map<String, Integer> symbolCounts = languageToSymbolCounts.get(language);
+            if (null == symbolCounts) {
+                symbolCounts = Maps.sorted();
+                languageToSymbolCounts.put(language, symbolCounts);
+            }
+            symbolCounts.merge(localeToSymbol.getOrDefault(locale, defaultSymbol), 1, Integer::sum);
+        }
+
+        final Map<String, String> languageToSymbol = Maps.sorted();
+        for (final Entry<String, Map<String, Integer>> languageAndSymbolCounts : languageToSymbolCounts.entrySet()) {
+            final String symbol = mostCommon(languageAndSymbolCounts.getValue(), defaultSymbol);
+            if (false == defaultSymbol.equals(symbol)) {
+                languageToSymbol.put(languageAndSymbolCounts.getKey(), symbol);
+            }
+        }
+
+        final Map<String, Set<Locale>> overrides = Maps.sorted();
+        for (final Locale locale : selected) {
+            final String symbol = localeToSymbol.getOrDefault(locale, defaultSymbol);
+            if (false == symbol.equals(languageToSymbol.getOrDefault(CurrencyLocaleGroups.language(locale), defaultSymbol))) {
+                Set<Locale> locales = overrides.get(symbol);
+                if (null == locales) {
+                    locales = SortedSets.tree(LocaleAwareAnnotationProcessorTool.LOCALE_COMPARATOR);
+                    overrides.put(symbol, locales);
+                }
+                locales.add(locale);
+            }
+        }
+        overrides.replaceAll((s, l) -> Collections.unmodifiableSet(l));
+
+        return new CurrencyLanguageSymbols(
+                Collections.unmodifiableMap(languageToSymbol),
+                Collections.unmodifiableMap(overrides)
+        );
+    }
+
+    /**
+     * Returns the symbol with the highest count, ties prefer the default symbol and then the smallest symbol.
+     */
+    private static String mostCommon(final Map<String, Integer> symbolCounts,
+                                     final String defaultSymbol) {
+        String mostCommon = null;
+        int mostCount = 0;
+
+        for (final Entry<String, Integer> symbolAndCount : symbolCounts.entrySet()) {
+            final String symbol = symbolAndCount.getKey();
+            final int count = symbolAndCount.getValue();
+
+            if (count > mostCount || (count == mostCount && symbol.equals(defaultSymbol))) {
+                mostCommon = symbol;
+                mostCount = count;
+            }
+        }
+
+        return mostCommon;
+    }
+
+    private CurrencyLanguageSymbols(final Map<String, String> languageToSymbol,
+                                    final Map<String, Set<Locale>> overrides) {
+        super();
+        this.languageToSymbol = languageToSymbol;
+        this.overrides = overrides;
+    }
+
+    /**
+     * Each language whose symbol differs from the global default symbol, sorted by language.
+     */
+    Map<String, String> languageToSymbol() {
+        return this.languageToSymbol;
+    }
+
+    private final Map<String, String> languageToSymbol;
+
+    /**
+     * Each symbol and the {@link Locale locales} whose symbol differs from their language symbol.
+     */
+    Map<String, Set<Locale>> overrides() {
+        return this.overrides;
+    }
+
+    private final Map<String, Set<Locale>> overrides;
+
+    @Override
+    public String toString() {
+        return this.languageToSymbol + " " + this.overrides;
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import java.util.List;
+
+/**
+ * The language tags of a single language within a list of locales, written as the language followed by the suffixes
+ * of each tag. When {@link #except()} is true the suffixes are those of the selected locales of the language that are
+ * absent from the list.
+ */
+final class CurrencyLocaleGroup {
+
+    static CurrencyLocaleGroup with(final String language,
+                                    final boolean except,
+                                    final List<String> suffixes) {
+        return new CurrencyLocaleGroup(language, except, suffixes);
+    }
+
+    private CurrencyLocaleGroup(final String language,
+                                final boolean except,
+                                final List<String> suffixes) {
+        super();
+        this.language = language;
+        this.except = except;
+        this.suffixes = suffixes;
+    }
+
+    String language() {
+        return this.language;
+    }
+
+    private final String language;
+
+    boolean except() {
+        return this.except;
+    }
+
+    private final boolean except;
+
+    /**
+     * The sorted suffixes, the suffix of a tag that is only a language is an empty string.
+     */
+    List<String> suffixes() {
+        return this.suffixes;
+    }
+
+    private final List<String> suffixes;
+
+    @Override
+    public String toString() {
+        return this.language + (this.except ? " except " : " ") + this.suffixes;
+    }
+}
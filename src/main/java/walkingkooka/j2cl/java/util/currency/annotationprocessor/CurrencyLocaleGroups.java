@@ -0,0 +1,177 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.collect.set.SortedSets;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.SortedSet;
+
+/**
+ * Groups lists of {@link Locale locales} by language, so the language is written once followed by the suffix of each
+ * language tag. A list that contains most of the selected locales of a language is written as the selected locales
+ * except those absent from the list.
+ */
+final class CurrencyLocaleGroups {
+
+    private final static char SEPARATOR = '-';
+
+    /**
+     * Creates a new {@link CurrencyLocaleGroups} for the given selected {@link Locale locales}.
+     */
+    static CurrencyLocaleGroups with(final Set<Locale> selected) {
+        final Map<String, SortedSet<String>> languageToSuffixes = languageToSuffixes(selected);
+        languageToSuffixes.replaceAll((l, s) -> Collections.unmodifiableSortedSet(s));
+
+        return new CurrencyLocaleGroups(Collections.unmodifiableMap(languageToSuffixes));
+    }
+
+    private static Map<String, SortedSet<String>> languageToSuffixes(final Collection<Locale> locales) {
+        final Map<String, SortedSet<String>> languageToSuffixes = Maps.sorted();
+
+        for (final Locale locale : locales) {
+            final String languageTag = locale.toLanguageTag();
+            final int separator = languageTag.indexOf(SEPARATOR);
+
+            final String language;
+            final String suffix;
+            if (-1 == separator) {
+                language = languageTag;
+                suffix = "";
+            } else {
+                language = languageTag.substring(0, separator);
+                suffix = languageTag.substring(separator + 1);
+            }
+
+            SortedSet<String> suffixes = languageToSuffixes.get(language);
+            if (null == suffixes) {
+                suffixes = SortedSets.tree();
+                languageToSuffixes.put(language, suffixes);
+            }
+            suffixes.add(suffix);
+        }
+
+        return languageToSuffixes;
+    }
+
+    /**
+     * Returns the language of the {@link Locale}, which is the language tag up to the first separator.
+     */
+    static String language(final Locale locale) {
+        final String languageTag = locale.toLanguageTag();
+        final int separator = languageTag.indexOf(SEPARATOR);
+        return -1 == separator ?
+                languageTag :
+                languageTag.substring(0, separator);
+    }
+
+    /**
+     * Returns the language tag for a language and suffix.
+     */
+    static String languageTag(final String language,
+                              final String suffix) {
+        return suffix.isEmpty() ?
+                language :
+                language + SEPARATOR + suffix;
+    }
+
+    private CurrencyLocaleGroups(final Map<String, SortedSet<String>> selected) {
+        super();
+        this.selected = selected;
+    }
+
+    /**
+     * All the selected {@link Locale locales} grouped by language, each group lists its suffixes and is never an
+     * except group.
+     */
+    List<CurrencyLocaleGroup> selected() {
+        final List<CurrencyLocaleGroup> groups = Lists.array();
+
+        for (final Entry<String, SortedSet<String>> languageAndSuffixes : this.selected.entrySet()) {
+            groups.add(
+                    CurrencyLocaleGroup.with(
+                            languageAndSuffixes.getKey(),
+                            false,
+                            list(languageAndSuffixes.getValue())
+                    )
+            );
+        }
+
+        return groups;
+    }
+
+    private final Map<String, SortedSet<String>> selected;
+
+    /**
+     * Groups the given {@link Locale locales} by language, selecting the except form when it has fewer suffixes.
+     */
+    List<CurrencyLocaleGroup> group(final Set<Locale> locales) {
+        final List<CurrencyLocaleGroup> groups = Lists.array();
+
+        for (final Entry<String, SortedSet<String>> languageAndSuffixes : languageToSuffixes(locales).entrySet()) {
+            final String language = languageAndSuffixes.getKey();
+            final SortedSet<String> suffixes = languageAndSuffixes.getValue();
+
+            final SortedSet<String> except = this.except(language, suffixes);
+            groups.add(
+                    null != except && except.size() < suffixes.size() ?
+                            CurrencyLocaleGroup.with(language, true, list(except)) :
+                            CurrencyLocaleGroup.with(language, false, list(suffixes))
+            );
+        }
+
+        return groups;
+    }
+
+    /**
+     * Returns the selected suffixes of the language missing from the given suffixes, or null if any of the given
+     * suffixes was not selected.
+     */
+    private SortedSet<String> except(final String language,
+                                     final SortedSet<String> suffixes) {
+        SortedSet<String> except = null;
+
+        final SortedSet<String> selected = this.selected.get(language);
+        if (null != selected && selected.containsAll(suffixes)) {
+            except = SortedSets.tree();
+            except.addAll(selected);
+            except.removeAll(suffixes);
+        }
+
+        return except;
+    }
+
+    private static List<String> list(final Collection<String> suffixes) {
+        final List<String> list = Lists.array();
+        list.addAll(suffixes);
+        return Collections.unmodifiableList(list);
+    }
+
+    @Override
+    public String toString() {
+        return this.selected.toString();
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.text.CharSequences;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * A minimal perfect hash of language tags to the index of their currency record, built with hash and displace. Each
+ * tag is placed in a bucket by {@link #hash(int, String)} with a seed of zero, each bucket has a displacement which
+ * is the seed that gives its tags unused slots, and every slot holds the index of a currency record. A tag that was
+ * not hashed returns an arbitrary slot, so a decoder should confirm the tag is one of the locales of the record.
+ */
+final class CurrencyLocaleHash {
+
+    /**
+     * The average number of tags in each bucket.
+     */
+    private final static int BUCKET_SIZE = 4;
+
+    /**
+     * The largest displacement tried for a single bucket before giving up.
+     */
+    private final static int MAX_DISPLACEMENT = 1 << 20;
+
+    /**
+     * Builds a minimal perfect hash for the given language tags and their currency record indices.
+     */
+    static CurrencyLocaleHash with(final Map<String, Integer> languageTagToIndex) {
+        final int count = languageTagToIndex.size();
+        final int bucketCount = 0 == count ?
+                0 :
+                (count + BUCKET_SIZE - 1) / BUCKET_SIZE;
+
+        final List<List<String>> buckets = Lists.array();
+        for (int i = 0; i < bucketCount; i++) {
+            buckets.add(Lists.array());
+        }
+        for (final String languageTag : languageTagToIndex.keySet()) {
+            buckets.get(hash(0, languageTag) % bucketCount)
+                    .add(languageTag);
+        }
+
+        // place the largest buckets first while most slots are free
+        final List<Integer> bucketOrder = Lists.array();
+        for (int i = 0; i < bucketCount; i++) {
+            bucketOrder.add(i);
+        }
+        bucketOrder.sort(Comparator.comparingInt((Integer b) -> buckets.get(b).size())
+                .reversed()
+                .thenComparing(Comparator.naturalOrder()));
+
+        final int[] displacements = new int[bucketCount];
+        final int[] slots = new int[count];
+        Arrays.fill(slots, -1);
+
+        for (final Integer bucket : bucketOrder) {
+            final List<String> languageTags = buckets.get(bucket);
+            if (languageTags.isEmpty()) {
+                continue;
+            }
+
+            final int displacement = displacement(languageTags, slots);
+            displacements[bucket] = displacement;
+
+            for (final String languageTag : languageTags) {
+                slots[hash(displacement, languageTag) % count] = languageTagToIndex.get(languageTag);
+            }
+        }
+
+        final CurrencyLocaleHash hash = new CurrencyLocaleHash(displacements, slots);
+        hash.verify(languageTagToIndex);
+        return hash;
+    }
+
+    /**
+     * Finds the first displacement that places every language tag of a bucket in a different free slot.
+     */
+    private static int displacement(final List<String> languageTags,
+                                    final int[] slots) {
+        final int count = slots.length;
+        final int[] candidates = new int[languageTags.size()];
+
+        for (int displacement = 1; displacement <= MAX_DISPLACEMENT; displacement++) {
+            boolean free = true;
+
+            for (int i = 0; free && i < candidates.length; i++) {
+                final int slot = hash(displacement, languageTags.get(i)) % count;
+                free = -1 == slots[slot];
+
+                for (int j = 0; free && j < i; j++) {
+                    free = candidates[j] != slot;
+                }
+                candidates[i] = slot;
+            }
+
+            if (free) {
+                return displacement;
+            }
+        }
+
+        throw new IllegalStateException("Unable to find displacement for " + languageTags);
+    }
+
+    /**
+     * A 32 bit FNV-1a hash of the chars of the language tag, starting with the offset basis xor the seed, which is
+     * never negative.
+     */
+    static int hash(final int seed,
+                    final String languageTag) {
+        int hash = 0x811c9dc5 ^ seed;
+
+        final int length = languageTag.length();
+        for (int i = 0; i < length; i++) {
+            hash ^= languageTag.charAt(i);
+            hash *= 0x01000193;
+        }
+
+        return hash & 0x7fffffff;
+    }
+
+    /**
+     * Reads a hash written by {@link #write(DataOutput)}.
+     */
+    static CurrencyLocaleHash read(final DataInput data) throws IOException {
+        final int[] slots = new int[data.readInt()];
+        final int[] displacements = new int[data.readInt()];
+
+        for (int i = 0; i < displacements.length; i++) {
+            displacements[i] = data.readInt();
+        }
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = data.readInt();
+        }
+
+        return new CurrencyLocaleHash(displacements, slots);
+    }
+
+    private CurrencyLocaleHash(final int[] displacements,
+                               final int[] slots) {
+        super();
+        this.displacements = displacements;
+        this.slots = slots;
+    }
+
+    /**
+     * Fails if any language tag does not hash to a slot holding its index, or two language tags share a slot.
+     */
+    void verify(final Map<String, Integer> languageTagToIndex) {
+        final String[] slotToLanguageTag = new String[this.slots.length];
+
+        for (final Entry<String, Integer> languageTagAndIndex : languageTagToIndex.entrySet()) {
+            final String languageTag = languageTagAndIndex.getKey();
+            final int slot = this.slot(languageTag);
+
+            final String collision = slotToLanguageTag[slot];
+            if (null != collision) {
+                throw new IllegalStateException("Hash collision between " + CharSequences.quoteAndEscape(collision) + " and " + CharSequences.quoteAndEscape(languageTag));
+            }
+            slotToLanguageTag[slot] = languageTag;
+
+            if (this.slots[slot] != languageTagAndIndex.getValue()) {
+                throw new IllegalStateException("Hash of " + CharSequences.quoteAndEscape(languageTag) + " returned " + this.slots[slot] + " expected " + languageTagAndIndex.getValue());
+            }
+        }
+    }
+
+    private int slot(final String languageTag) {
+        final int[] displacements = this.displacements;
+        return hash(displacements[hash(0, languageTag) % displacements.length], languageTag) % this.slots.length;
+    }
+
+    /**
+     * Returns the index of the currency record for the language tag, or an arbitrary index for a language tag that was
+     * not hashed, or -1 when the hash is empty.
+     */
+    int index(final String languageTag) {
+        return 0 == this.slots.length ?
+                -1 :
+                this.slots[this.slot(languageTag)];
+    }
+
+    /**
+     * Writes the slot count, the bucket count, each displacement and then the record index of each slot.
+     */
+    void write(final DataOutput data) throws IOException {
+        final int[] slots = this.slots;
+        final int[] displacements = this.displacements;
+
+        data.writeInt(slots.length);
+        data.writeInt(displacements.length);
+
+        for (final int displacement : displacements) {
+            data.writeInt(displacement);
+        }
+        for (final int slot : slots) {
+            data.writeInt(slot);
+        }
+    }
+
+    private final int[] displacements;
+
+    private final int[] slots;
+
+    @Override
+    public String toString() {
+        return Arrays.toString(this.displacements) + " " + Arrays.toString(this.slots);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import walkingkooka.collect.map.Maps;
+import walkingkooka.collect.set.SortedSets;
+import walkingkooka.j2cl.locale.annotationprocessor.LocaleAwareAnnotationProcessorTool;
+
+import java.util.Collections;
+import java.util.Currency;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable index of each {@link Currency} to its sorted {@link Locale locales}, built with a single pass over the
+ * given {@link Locale locales}. {@link Locale Locales} without a {@link Currency} are also recorded.
+ */
+final class CurrencyLocaleIndex {
+
+    static CurrencyLocaleIndex with(final Set<Locale> locales) {
+        return with(locales, CurrencyProviderJreSource.INSTANCE.resolve());
+    }
+
+    /**
+     * Creates an index using the {@link CurrencyProviderSource} to find the {@link Currency} of each {@link Locale}.
+     */
+    static CurrencyLocaleIndex with(final Set<Locale> locales,
+                                    final CurrencyProviderSource source) {
+        final Map<Currency, Set<Locale>> currencyToLocales = Maps.sorted(CurrencyProviderTool::compareCurrencyCodes);
+        final Set<Locale> withoutCurrency = SortedSets.tree(LocaleAwareAnnotationProcessorTool.LOCALE_COMPARATOR);
+
+        for (final Locale locale : locales) {
+            final Currency currency = source.currency(locale);
+            if (null == currency) {
+                withoutCurrency.add(locale);
+            } else {
+                Set<Locale> localesForCurrency = currencyToLocales.get(currency);
+                if (null == localesForCurrency) {
+                    localesForCurrency = SortedSets.tree(LocaleAwareAnnotationProcessorTool.LOCALE_COMPARATOR);
+                    currencyToLocales.put(currency, localesForCurrency);
+                }
+                localesForCurrency.add(locale);
+            }
+        }
+
+        currencyToLocales.replaceAll((c, l) -> Collections.unmodifiableSet(l));
+
+        return new CurrencyLocaleIndex(
+                Collections.unmodifiableMap(currencyToLocales),
+                Collections.unmodifiableSet(withoutCurrency)
+        );
+    }
+
+    private CurrencyLocaleIndex(final Map<Currency, Set<Locale>> currencyToLocales,
+                                final Set<Locale> withoutCurrency) {
+        super();
+        this.currencyToLocales = currencyToLocales;
+        this.withoutCurrency = withoutCurrency;
+    }
+
+    /**
+     * Returns true if at least one {@link Locale} has the given {@link Currency}.
+     */
+    boolean contains(final Currency currency) {
+        return this.currencyToLocales.containsKey(currency);
+    }
+
+    /**
+     * All {@link Currency currencies} sorted by currency code, with their sorted {@link Locale locales}.
+     */
+    Map<Currency, Set<Locale>> currencyToLocales() {
+        return this.currencyToLocales;
+    }
+
+    private final Map<Currency, Set<Locale>> currencyToLocales;
+
+    /**
+     * All {@link Locale locales} without a {@link Currency}, sorted.
+     */
+    Set<Locale> withoutCurrency() {
+        return this.withoutCurrency;
+    }
+
+    private final Set<Locale> withoutCurrency;
+
+    @Override
+    public String toString() {
+        return this.currencyToLocales.toString();
+    }
+}
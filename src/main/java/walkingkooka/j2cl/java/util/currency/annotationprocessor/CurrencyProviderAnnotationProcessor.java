@@ -17,26 +17,49 @@
 
 package walkingkooka.j2cl.java.util.currency.annotationprocessor;
 
+import walkingkooka.collect.list.Lists;
 import walkingkooka.collect.set.Sets;
 import walkingkooka.collect.set.SortedSets;
-import walkingkooka.j2cl.locale.WalkingkookaLanguageTag;
+import walkingkooka.j2cl.java.io.string.StringDataInputDataOutput;
 import walkingkooka.j2cl.locale.annotationprocessor.LocaleAwareAnnotationProcessor;
 import walkingkooka.j2cl.locale.annotationprocessor.LocaleAwareAnnotationProcessorTool;
+import walkingkooka.text.CharSequences;
+import walkingkooka.text.Indentation;
+import walkingkooka.text.LineEnding;
 import walkingkooka.text.printer.IndentingPrinter;
+import walkingkooka.text.printer.Printer;
+import walkingkooka.text.printer.Printers;
 
+import javax.tools.Diagnostic.Kind;
+import javax.tools.StandardLocation;
 import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.util.Currency;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.Set;
 import java.util.function.Function;
-import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 public final class CurrencyProviderAnnotationProcessor extends LocaleAwareAnnotationProcessor {
 
     @Override
     protected Set<String> additionalArguments() {
-        return Sets.of(CURRENCY_CODES_ANNOTATION_PROCESSOR_OPTION);
+        return Sets.of(CURRENCY_CODES_ANNOTATION_PROCESSOR_OPTION,
+                FEATURES_ANNOTATION_PROCESSOR_OPTION,
+                CACHE_ANNOTATION_PROCESSOR_OPTION,
+                PARALLELISM_ANNOTATION_PROCESSOR_OPTION,
+                COMMENTS_ANNOTATION_PROCESSOR_OPTION,
+                METRICS_ANNOTATION_PROCESSOR_OPTION,
+                BUDGET_ANNOTATION_PROCESSOR_OPTION,
+                BUDGET_CURRENCY_ANNOTATION_PROCESSOR_OPTION,
+                BUDGET_ACTION_ANNOTATION_PROCESSOR_OPTION,
+                SNAPSHOT_ANNOTATION_PROCESSOR_OPTION,
+                ORDER_ANNOTATION_PROCESSOR_OPTION);
     }
 
     @Override
@@ -50,34 +73,503 @@ public final class CurrencyProviderAnnotationProcessor extends LocaleAwareAnnota
      */
     private final static String CURRENCY_CODES_ANNOTATION_PROCESSOR_OPTION = "walkingkooka.j2cl.java.util.Currency";
 
+    /**
+     * The currency code selectors used when the {@link #CURRENCY_CODES_ANNOTATION_PROCESSOR_OPTION} is absent.
+     */
+    private final static String DEFAULT_CURRENCY_CODES = "XXX";
+
+    /**
+     * The annotation processor option that has the csv list of {@link CurrencyProviderFeature features}, when absent
+     * the unversioned format is generated.
+     */
+    private final static String FEATURES_ANNOTATION_PROCESSOR_OPTION = "walkingkooka.j2cl.java.util.Currency.features";
+
+    /**
+     * The annotation processor option that has the directory of the {@link CurrencyProviderCache}, when absent
+     * nothing is cached.
+     */
+    private final static String CACHE_ANNOTATION_PROCESSOR_OPTION = "walkingkooka.j2cl.java.util.Currency.cache";
+
+    /**
+     * The annotation processor option that has the number of threads that compute currency records, when absent
+     * records are computed by the compiler thread.
+     */
+    private final static String PARALLELISM_ANNOTATION_PROCESSOR_OPTION = "walkingkooka.j2cl.java.util.Currency.parallelism";
+
+    /**
+     * The annotation processor option that has the {@link CurrencyProviderCommentLevel}, when absent every record is
+     * printed in full.
+     */
+    private final static String COMMENTS_ANNOTATION_PROCESSOR_OPTION = "walkingkooka.j2cl.java.util.Currency.comments";
+
+    /**
+     * The annotation processor option that has the csv list of {@link CurrencyProviderMetricsReport reports} of the
+     * phase times and sizes, when absent nothing is measured.
+     */
+    private final static String METRICS_ANNOTATION_PROCESSOR_OPTION = "walkingkooka.j2cl.java.util.Currency.metrics";
+
+    /**
+     * The annotation processor option that has the maximum bytes of DATA.
+     */
+    private final static String BUDGET_ANNOTATION_PROCESSOR_OPTION = "walkingkooka.j2cl.java.util.Currency.budget";
+
+    /**
+     * The annotation processor option that has the maximum bytes of any single currency.
+     */
+    private final static String BUDGET_CURRENCY_ANNOTATION_PROCESSOR_OPTION = "walkingkooka.j2cl.java.util.Currency.budget.currency";
+
+    /**
+     * The annotation processor option that selects whether an exceeded budget is a warning, the default, or fails
+     * the build.
+     */
+    private final static String BUDGET_ACTION_ANNOTATION_PROCESSOR_OPTION = "walkingkooka.j2cl.java.util.Currency.budget.action";
+
+    /**
+     * The annotation processor option that has the path of a {@link CurrencyProviderSnapshot}, when absent the
+     * currencies and symbols of the JRE are used.
+     */
+    private final static String SNAPSHOT_ANNOTATION_PROCESSOR_OPTION = "walkingkooka.j2cl.java.util.Currency.snapshot";
+
+    /**
+     * The annotation processor option that has the {@link CurrencyProviderRecordOrder}, when absent records are sorted
+     * by currency code.
+     */
+    private final static String ORDER_ANNOTATION_PROCESSOR_OPTION = "walkingkooka.j2cl.java.util.Currency.order";
+
+    private final static String BUDGET_ACTION_WARN = "WARN";
+
+    private final static String BUDGET_ACTION_FAIL = "FAIL";
+
     @Override
     protected String generate(final String filter,
                               final Set<String> languageTags,
                               final Function<String, String> arguments,
                               final DataOutput data,
                               final IndentingPrinter comments) throws Exception {
-        final String currencyFilter = "XXX";
-        final Set<String> currencyCodes = currencyCodes(currencyFilter);
+        final String currencyFilter = currencyFilter(arguments);
+        final CurrencyCodeSelector selector = CurrencyCodeSelector.parse(currencyFilter);
+        final Set<CurrencyProviderMetricsReport> reports = metricsReports(arguments);
+        final CurrencyProviderBudget budget = CurrencyProviderBudget.with(
+                bytes(arguments, BUDGET_ANNOTATION_PROCESSOR_OPTION),
+                bytes(arguments, BUDGET_CURRENCY_ANNOTATION_PROCESSOR_OPTION)
+        );
+        final Kind budgetKind = budgetKind(arguments);
+
+        final Optional<CurrencyProviderMetrics> metrics = reports.isEmpty() && budget.isEmpty() ?
+                Optional.empty() :
+                Optional.of(CurrencyProviderMetrics.empty());
 
-        CurrencyProviderTool.generate(languageTags,
-                currencyCodes,
+        final CurrencyProviderToolOptions options = CurrencyProviderToolOptions.DEFAULT
+                .setSource(source(arguments))
+                .setCurrenciesWithLocales((c) -> selector.test(c.getCurrencyCode(), true))
+                .setFeatures(features(arguments))
+                .setParallelism(parallelism(arguments))
+                .setCommentLevel(commentLevel(arguments))
+                .setRecordOrder(recordOrder(arguments))
+                .setMetrics(metrics);
+
+        // DATA is streamed as chunked literals into its own class, the DATA of the base class is left empty
+        final String template = this.template(DATA_TEMPLATE);
+        final int dataIndex = dataIndex(template, DATA_TEMPLATE);
+
+        final CurrencyDataOutputDigest digest;
+        final String summary;
+
+        try (final Writer writer = this.processingEnv.getFiler()
+                .createSourceFile(GENERATED_PACKAGE + ".CurrencyProviderData")
+                .openWriter()) {
+            writer.write(template, 0, dataIndex);
+
+            try (final CurrencyProviderDataLiteralWriter literal = CurrencyProviderDataLiteralWriter.with(writer, CurrencyProviderDataLiteralWriter.DEFAULT_CHUNK_BYTES)) {
+                // DATA and any shards are digested as they are written, giving the same hash when replayed from the cache
+                digest = CurrencyDataOutputDigest.with(StringDataInputDataOutput.output(literal::append));
+                final CurrencyShardSink shards = (c, s) -> {
+                    digest.shard(c, s);
+                    this.writeShard(c, s);
+                };
+
+                // shards are written as separate source files and are never cached
+                final String cacheDirectory = arguments.apply(CACHE_ANNOTATION_PROCESSOR_OPTION);
+                summary = null == cacheDirectory || cacheDirectory.isEmpty() || options.has(CurrencyProviderFeature.SHARDS) ?
+                        this.generate0(filter,
+                                languageTags,
+                                currencyFilter,
+                                selector,
+                                options,
+                                digest,
+                                shards,
+                                comments) :
+                        this.generateCached(CurrencyProviderCache.with(Paths.get(cacheDirectory)),
+                                filter,
+                                languageTags,
+                                currencyFilter,
+                                selector,
+                                options,
+                                digest,
+                                shards,
+                                comments);
+            }
+
+            writer.write(template.substring(dataIndex + DATA_PLACEHOLDER.length()));
+            writer.flush();
+        }
+
+        this.writeDataHash(digest.hash());
+
+        if (metrics.isPresent()) {
+            this.reportMetrics(metrics.get(), reports);
+
+            final Optional<String> exceeded = budget.check(metrics.get());
+            if (exceeded.isPresent()) {
+                this.processingEnv.getMessager()
+                        .printMessage(budgetKind, "CurrencyProvider " + exceeded.get());
+            }
+        }
+
+        return summary;
+    }
+
+    /**
+     * Replays the cached output if one exists, otherwise generates and saves a new entry. java.util.Currency is
+     * never touched when the entry exists, the selected currency codes are only computed when generating. Every entry
+     * holds the sizes of its DATA, which are added to any metrics when replayed so a budget is still checked.
+     */
+    String generateCached(final CurrencyProviderCache cache,
+                          final String filter,
+                          final Set<String> languageTags,
+                          final String currencyFilter,
+                          final CurrencyCodeSelector selector,
+                          final CurrencyProviderToolOptions options,
+                          final DataOutput data,
+                          final CurrencyShardSink shards,
+                          final IndentingPrinter comments) throws Exception {
+        final Set<String> sortedLanguageTags = SortedSets.tree();
+        sortedLanguageTags.addAll(languageTags);
+
+        final String key = CurrencyProviderCache.key(
+                Lists.of(
+                        filter,
+                        String.join(",", sortedLanguageTags),
+                        currencyFilter,
+                        options.features().toString(),
+                        options.commentLevel().toString(),
+                        options.recordOrder().toString(),
+                        options.source().toString()
+                )
+        );
+
+        final Optional<CurrencyProviderCacheEntry> cached = cache.load(key);
+        if (cached.isPresent()) {
+            final CurrencyProviderCacheEntry entry = cached.get();
+            options.metrics()
+                    .ifPresent(entry::replayMetrics);
+            return entry.replay(data, comments) + ", cached";
+        }
+
+        // sizes are always measured, so a later replay may check a budget
+        final CurrencyProviderMetrics metrics = options.metrics()
+                .orElseGet(CurrencyProviderMetrics::empty);
+
+        final StringBuilder text = new StringBuilder();
+        final CurrencyDataOutputRecorder recorder = CurrencyDataOutputRecorder.with(data);
+        final String summary;
+
+        try (final Printer printer = Printers.stringBuilder(text, LineEnding.NL)) {
+            summary = this.generate0(filter,
+                    languageTags,
+                    currencyFilter,
+                    selector,
+                    options.setMetrics(Optional.of(metrics)),
+                    recorder,
+                    shards,
+                    printer.indenting(Indentation.SPACES2));
+            printer.flush();
+        }
+
+        final CurrencyProviderCacheEntry entry = CurrencyProviderCacheEntry.with(summary,
+                text.toString(),
+                recorder.recording(),
+                metrics);
+        entry.replayComments(comments);
+
+        try {
+            cache.save(key, entry);
+        } catch (final IOException cause) {
+            this.processingEnv.getMessager()
+                    .printMessage(Kind.WARNING, "Unable to save to currency provider cache " + cache + ", " + cause.getMessage());
+        }
+
+        return summary;
+    }
+
+    private String generate0(final String filter,
+                             final Set<String> languageTags,
+                             final String currencyFilter,
+                             final CurrencyCodeSelector selector,
+                             final CurrencyProviderToolOptions options,
+                             final DataOutput data,
+                             final CurrencyShardSink shards,
+                             final IndentingPrinter comments) throws IOException {
+        // locales missing from a snapshot are skipped, so the summary counts only the generated locales
+        final Set<String> sourceLanguageTags = CurrencyProviderTool.languageTags(languageTags, options.source());
+        final CurrencySelection selection = CurrencyProviderTool.generate(sourceLanguageTags,
+                currencyCodes(selector, options.source()),
+                options,
                 data,
-                comments); // https://github.com/mP1/j2cl-java-util-currency-annotation-processor/issues/13
-        return LocaleAwareAnnotationProcessorTool.extractSummary(languageTags.size(),
+                shards,
+                comments);
+        return LocaleAwareAnnotationProcessorTool.extractSummary(sourceLanguageTags.size(),
                 "Locale",
                 filter) + ", " +
-                LocaleAwareAnnotationProcessorTool.extractSummary(currencyCodes.size(),
+                LocaleAwareAnnotationProcessorTool.extractSummary(selection.currenciesKept(),
                         "Currency",
-                        currencyFilter);
+                        currencyFilter) + ", " +
+                selection;
+    }
+
+    /**
+     * The name of the JSON metrics report written beside the generated classes.
+     */
+    private final static String METRICS_JSON = "CurrencyProvider-metrics.json";
+
+    /**
+     * Prints and writes the requested reports, nothing is reported when the output was replayed from the cache.
+     */
+    private void reportMetrics(final CurrencyProviderMetrics metrics,
+                               final Set<CurrencyProviderMetricsReport> reports) throws IOException {
+        if (false == metrics.isEmpty()) {
+            if (reports.contains(CurrencyProviderMetricsReport.NOTE)) {
+                this.processingEnv.getMessager()
+                        .printMessage(Kind.NOTE, "CurrencyProvider " + metrics);
+            }
+
+            if (reports.contains(CurrencyProviderMetricsReport.JSON)) {
+                try (final Writer writer = this.processingEnv.getFiler()
+                        .createResource(StandardLocation.CLASS_OUTPUT, GENERATED_PACKAGE, METRICS_JSON)
+                        .openWriter()) {
+                    writer.write(metrics.toJson());
+                    writer.flush();
+                }
+            }
+        }
+    }
+
+    /**
+     * The package of the generated CurrencyProvider and its shards.
+     */
+    private final static String GENERATED_PACKAGE = "walkingkooka.j2cl.java.util.currency.generated";
+
+    /**
+     * The template of each shard, with the currency code and the data replaced.
+     */
+    private final static String SHARD_TEMPLATE = "CurrencyProviderShard.java.txt";
+
+    /**
+     * The template of the class holding the DATA referenced by the CurrencyProvider.
+     */
+    private final static String DATA_TEMPLATE = "CurrencyProviderData.java.txt";
+
+    /**
+     * Writes a class holding the DATA of a single currency shard, named CurrencyProvider followed by the currency code.
+     * The DATA is escaped and written into the source as one or more chunks, never as a single literal.
+     */
+    private void writeShard(final String currencyCode,
+                            final String data) throws IOException {
+        final String template = this.template(SHARD_TEMPLATE)
+                .replace("$CURRENCY_CODE", currencyCode);
+        final int dataIndex = dataIndex(template, SHARD_TEMPLATE);
+
+        try (final Writer writer = this.processingEnv.getFiler()
+                .createSourceFile(GENERATED_PACKAGE + ".CurrencyProvider" + currencyCode)
+                .openWriter()) {
+            writer.write(template, 0, dataIndex);
+
+            try (final CurrencyProviderDataLiteralWriter literal = CurrencyProviderDataLiteralWriter.with(writer, CurrencyProviderDataLiteralWriter.DEFAULT_CHUNK_BYTES)) {
+                literal.append(data);
+            }
+
+            writer.write(template.substring(dataIndex + DATA_PLACEHOLDER.length()));
+            writer.flush();
+        }
+    }
+
+    private final static String DATA_PLACEHOLDER = "$DATA";
+
+    /**
+     * Returns the index of the {@link #DATA_PLACEHOLDER} within the template, failing if it is absent.
+     */
+    private static int dataIndex(final String template,
+                                 final String name) throws IOException {
+        final int dataIndex = template.indexOf(DATA_PLACEHOLDER);
+        if (-1 == dataIndex) {
+            throw new IOException("Template " + CharSequences.quoteAndEscape(name) + " missing " + DATA_PLACEHOLDER);
+        }
+        return dataIndex;
+    }
+
+    /**
+     * The template of the class holding the hash of DATA and any shards, which is referenced by the CurrencyProvider.
+     */
+    private final static String DATA_HASH_TEMPLATE = "CurrencyProviderDataHash.java.txt";
+
+    /**
+     * Writes the class holding the DATA_HASH constant. The CurrencyProvider template is filled by
+     * {@link LocaleAwareAnnotationProcessor}, which knows nothing of the hash, so its DATA_HASH is a compile time
+     * constant copied from this class, and both hold the same literal.
+     */
+    private void writeDataHash(final String hash) throws IOException {
+        try (final Writer writer = this.processingEnv.getFiler()
+                .createSourceFile(GENERATED_PACKAGE + ".CurrencyProviderDataHash")
+                .openWriter()) {
+            writer.write(this.template(DATA_HASH_TEMPLATE)
+                    .replace("$DATA_HASH", hash));
+            writer.flush();
+        }
+    }
+
+    /**
+     * Loads a template resource beside this class.
+     */
+    private String template(final String name) throws IOException {
+        try (final InputStream input = this.getClass().getResourceAsStream(name)) {
+            if (null == input) {
+                throw new IOException("Unable to find template " + CharSequences.quoteAndEscape(name));
+            }
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Reads the currency code selectors from the {@link #CURRENCY_CODES_ANNOTATION_PROCESSOR_OPTION}, returning
+     * {@link #DEFAULT_CURRENCY_CODES} if it is absent.
+     */
+    private static String currencyFilter(final Function<String, String> arguments) {
+        final String currencyFilter = arguments.apply(CURRENCY_CODES_ANNOTATION_PROCESSOR_OPTION);
+        return null == currencyFilter ?
+                DEFAULT_CURRENCY_CODES :
+                currencyFilter;
+    }
+
+    /**
+     * Loads the {@link CurrencyProviderSnapshot} from the {@link #SNAPSHOT_ANNOTATION_PROCESSOR_OPTION} if present,
+     * otherwise returns the JRE.
+     */
+    private static CurrencyProviderSource source(final Function<String, String> arguments) throws IOException {
+        final String snapshot = arguments.apply(SNAPSHOT_ANNOTATION_PROCESSOR_OPTION);
+        return null == snapshot || snapshot.isEmpty() ?
+                CurrencyProviderJreSource.INSTANCE :
+                CurrencyProviderSnapshot.load(Paths.get(snapshot));
+    }
+
+    /**
+     * Reads the {@link CurrencyProviderFeature features} from the {@link #FEATURES_ANNOTATION_PROCESSOR_OPTION}.
+     */
+    private static Set<CurrencyProviderFeature> features(final Function<String, String> arguments) {
+        final String features = arguments.apply(FEATURES_ANNOTATION_PROCESSOR_OPTION);
+        return CurrencyProviderFeature.parse(null == features ? "" : features);
+    }
+
+    /**
+     * Reads the parallelism from the {@link #PARALLELISM_ANNOTATION_PROCESSOR_OPTION}, defaulting to 1 when absent.
+     */
+    private static int parallelism(final Function<String, String> arguments) {
+        final String parallelism = arguments.apply(PARALLELISM_ANNOTATION_PROCESSOR_OPTION);
+
+        final int value;
+        if (null == parallelism || parallelism.isEmpty()) {
+            value = 1;
+        } else {
+            try {
+                value = Integer.parseInt(parallelism.trim());
+            } catch (final NumberFormatException invalid) {
+                throw new IllegalArgumentException("Invalid " + PARALLELISM_ANNOTATION_PROCESSOR_OPTION + " " + CharSequences.quoteAndEscape(parallelism));
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Reads the {@link CurrencyProviderCommentLevel} from the {@link #COMMENTS_ANNOTATION_PROCESSOR_OPTION}, defaulting to
+     * {@link CurrencyProviderCommentLevel#FULL} when absent.
+     */
+    private static CurrencyProviderCommentLevel commentLevel(final Function<String, String> arguments) {
+        final String commentLevel = arguments.apply(COMMENTS_ANNOTATION_PROCESSOR_OPTION);
+        return null == commentLevel || commentLevel.isEmpty() ?
+                CurrencyProviderCommentLevel.FULL :
+                CurrencyProviderCommentLevel.parse(commentLevel);
+    }
+
+    /**
+     * Reads the {@link CurrencyProviderRecordOrder} from the {@link #ORDER_ANNOTATION_PROCESSOR_OPTION}.
+     */
+    private static CurrencyProviderRecordOrder recordOrder(final Function<String, String> arguments) {
+        final String order = arguments.apply(ORDER_ANNOTATION_PROCESSOR_OPTION);
+        return null == order || order.isEmpty() ?
+                CurrencyProviderRecordOrder.CURRENCY_CODE :
+                CurrencyProviderRecordOrder.parse(order);
+    }
+
+    /**
+     * Reads the {@link CurrencyProviderMetricsReport reports} from the {@link #METRICS_ANNOTATION_PROCESSOR_OPTION}.
+     */
+    private static Set<CurrencyProviderMetricsReport> metricsReports(final Function<String, String> arguments) {
+        final String reports = arguments.apply(METRICS_ANNOTATION_PROCESSOR_OPTION);
+        return CurrencyProviderMetricsReport.parse(null == reports ? "" : reports);
+    }
+
+    /**
+     * Reads an optional number of bytes from the given option.
+     */
+    private static OptionalLong bytes(final Function<String, String> arguments,
+                                      final String option) {
+        final String bytes = arguments.apply(option);
+
+        final OptionalLong value;
+        if (null == bytes || bytes.isEmpty()) {
+            value = OptionalLong.empty();
+        } else {
+            try {
+                value = OptionalLong.of(Long.parseLong(bytes.trim()));
+            } catch (final NumberFormatException invalid) {
+                throw new IllegalArgumentException("Invalid " + option + " " + CharSequences.quoteAndEscape(bytes));
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Reads the {@link #BUDGET_ACTION_ANNOTATION_PROCESSOR_OPTION} returning the {@link Kind} of message printed when a
+     * budget is exceeded.
+     */
+    private static Kind budgetKind(final Function<String, String> arguments) {
+        final String action = arguments.apply(BUDGET_ACTION_ANNOTATION_PROCESSOR_OPTION);
+
+        final Kind kind;
+        if (null == action || action.isEmpty() || BUDGET_ACTION_WARN.equalsIgnoreCase(action.trim())) {
+            kind = Kind.WARNING;
+        } else {
+            if (BUDGET_ACTION_FAIL.equalsIgnoreCase(action.trim())) {
+                kind = Kind.ERROR;
+            } else {
+                throw new IllegalArgumentException("Invalid " + BUDGET_ACTION_ANNOTATION_PROCESSOR_OPTION + " " + CharSequences.quoteAndEscape(action) + " expected " + BUDGET_ACTION_WARN + " or " + BUDGET_ACTION_FAIL);
+            }
+        }
+        return kind;
     }
 
     static Set<String> currencyCodes(final String filter) {
-        final Predicate<String> predicate = WalkingkookaLanguageTag.filter(filter);
+        return currencyCodes(CurrencyCodeSelector.parse(filter), CurrencyProviderJreSource.INSTANCE);
+    }
 
-        return Currency.getAvailableCurrencies()
+    /**
+     * Returns all currency codes included by the {@link CurrencyCodeSelector} even if they have no locales.
+     */
+    private static Set<String> currencyCodes(final CurrencyCodeSelector selector,
+                                             final CurrencyProviderSource source) {
+        return source.currencies()
                 .stream()
                 .map(Currency::getCurrencyCode)
-                .filter(predicate)
+                .filter(c -> selector.test(c, false))
                 .collect(Collectors.toCollection(SortedSets::tree));
     }
 }
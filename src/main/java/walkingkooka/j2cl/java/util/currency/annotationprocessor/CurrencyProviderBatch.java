@@ -0,0 +1,189 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.collect.set.SortedSets;
+import walkingkooka.j2cl.java.io.string.StringDataInputDataOutput;
+import walkingkooka.j2cl.locale.WalkingkookaLanguageTag;
+import walkingkooka.j2cl.locale.annotationprocessor.LocaleAwareAnnotationProcessor;
+import walkingkooka.text.CharSequences;
+import walkingkooka.text.LineEnding;
+import walkingkooka.text.printer.Printer;
+import walkingkooka.text.printer.Printers;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Generates several {@link CurrencyProviderBatchProfile profiles} in a single run, each written to its own file as
+ * the comments followed by the quoted DATA. The locales, available currencies and every symbol of the
+ * {@link CurrencyProviderSource} are loaded once and shared by all profiles. Profiles are read from properties, where each profile has a
+ * <pre>name.locales</pre> and <pre>name.output</pre> and optional <pre>name.currencies</pre> and
+ * <pre>name.features</pre>.
+ * <pre>
+ * EU.locales=DE*,FR*
+ * EU.currencies=EUR
+ * EU.output=target/eu.txt
+ * </pre>
+ */
+final class CurrencyProviderBatch {
+
+    private final static String LOCALES = ".locales";
+
+    private final static String CURRENCIES = ".currencies";
+
+    private final static String FEATURES = ".features";
+
+    private final static String OUTPUT = ".output";
+
+    private final static String DEFAULT_CURRENCIES = "XXX";
+
+    /**
+     * Reads the profiles from a properties file.
+     */
+    static CurrencyProviderBatch load(final Path file) throws IOException {
+        final Properties properties = new Properties();
+        try (final Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        return with(properties);
+    }
+
+    /**
+     * Creates a batch with a profile for each <pre>name.locales</pre> property, sorted by name.
+     */
+    static CurrencyProviderBatch with(final Properties properties) {
+        final Set<String> names = SortedSets.tree();
+        for (final String key : properties.stringPropertyNames()) {
+            if (key.endsWith(LOCALES)) {
+                names.add(key.substring(0, key.length() - LOCALES.length()));
+            }
+        }
+
+        final List<CurrencyProviderBatchProfile> profiles = Lists.array();
+        for (final String name : names) {
+            final String output = properties.getProperty(name + OUTPUT);
+            if (null == output) {
+                throw new IllegalArgumentException("Profile " + CharSequences.quoteAndEscape(name) + " missing " + CharSequences.quoteAndEscape(name + OUTPUT));
+            }
+
+            final Set<CurrencyProviderFeature> features = CurrencyProviderFeature.parse(properties.getProperty(name + FEATURES, ""));
+            if (features.contains(CurrencyProviderFeature.SHARDS)) {
+                throw new IllegalArgumentException("Profile " + CharSequences.quoteAndEscape(name) + " feature " + CurrencyProviderFeature.SHARDS + " is not supported");
+            }
+
+            profiles.add(
+                    CurrencyProviderBatchProfile.with(name,
+                            properties.getProperty(name + LOCALES),
+                            properties.getProperty(name + CURRENCIES, DEFAULT_CURRENCIES),
+                            features,
+                            Paths.get(output))
+            );
+        }
+
+        return new CurrencyProviderBatch(Collections.unmodifiableList(profiles));
+    }
+
+    private CurrencyProviderBatch(final List<CurrencyProviderBatchProfile> profiles) {
+        super();
+        this.profiles = profiles;
+    }
+
+    /**
+     * Generates every profile using the given {@link CurrencyProviderToolOptions}, replacing the currency filter and
+     * features with those of each profile, and a line for each profile is given to the log.
+     */
+    void run(final CurrencyProviderToolOptions options,
+             final Consumer<String> log) throws IOException {
+        final CurrencySymbolTable symbols = CurrencySymbolTable.with(options.source());
+        final Set<String> available = options.source()
+                .currencies()
+                .stream()
+                .map(Currency::getCurrencyCode)
+                .collect(Collectors.toCollection(SortedSets::tree));
+
+        for (final CurrencyProviderBatchProfile profile : this.profiles) {
+            final long start = System.nanoTime();
+            final CurrencyCodeSelector selector = CurrencyCodeSelector.parse(profile.currencyFilter());
+
+            final StringBuilder data = new StringBuilder();
+            final StringBuilder text = new StringBuilder();
+            final CurrencySelection selection;
+
+            try (final Printer printer = Printers.stringBuilder(text, LineEnding.NL)) {
+                selection = CurrencyProviderTool.generate0(
+                        WalkingkookaLanguageTag.all(profile.localeFilter())
+                                .stream()
+                                .map(Locale::forLanguageTag)
+                                .collect(Collectors.toCollection(Sets::ordered)),
+                        available.stream()
+                                .filter(c -> selector.test(c, false))
+                                .collect(Collectors.toCollection(SortedSets::tree)),
+                        options.setCurrenciesWithLocales((c) -> selector.test(c.getCurrencyCode(), true))
+                                .setFeatures(profile.features()),
+                        symbols,
+                        StringDataInputDataOutput.output(data::append),
+                        CurrencyProviderBatch::shardsUnsupported,
+                        LocaleAwareAnnotationProcessor.comments(printer)
+                );
+                printer.print(CharSequences.quoteAndEscape(data));
+                printer.flush();
+            }
+
+            final Path output = profile.output();
+            final Path parent = output.toAbsolutePath()
+                    .getParent();
+            if (null != parent) {
+                Files.createDirectories(parent);
+            }
+            Files.write(output, text.toString().getBytes(StandardCharsets.UTF_8));
+
+            log.accept(profile.name() + " " + output + " " + selection + " " + (System.nanoTime() - start) / 1000000 + "ms");
+        }
+    }
+
+    private static void shardsUnsupported(final String currencyCode,
+                                          final String data) {
+        throw new IllegalArgumentException("Feature " + CurrencyProviderFeature.SHARDS + " is not supported");
+    }
+
+    List<CurrencyProviderBatchProfile> profiles() {
+        return this.profiles;
+    }
+
+    private final List<CurrencyProviderBatchProfile> profiles;
+
+    @Override
+    public String toString() {
+        return this.profiles.toString();
+    }
+}
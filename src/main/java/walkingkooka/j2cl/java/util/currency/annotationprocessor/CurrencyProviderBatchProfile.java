@@ -0,0 +1,94 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import java.nio.file.Path;
+import java.util.Set;
+
+/**
+ * A named profile of a {@link CurrencyProviderBatch}, with the locale filter, currency code selectors and features
+ * of a single generate, and the file the DATA and comments are written to.
+ */
+final class CurrencyProviderBatchProfile {
+
+    static CurrencyProviderBatchProfile with(final String name,
+                                             final String localeFilter,
+                                             final String currencyFilter,
+                                             final Set<CurrencyProviderFeature> features,
+                                             final Path output) {
+        return new CurrencyProviderBatchProfile(name,
+                localeFilter,
+                currencyFilter,
+                features,
+                output);
+    }
+
+    private CurrencyProviderBatchProfile(final String name,
+                                         final String localeFilter,
+                                         final String currencyFilter,
+                                         final Set<CurrencyProviderFeature> features,
+                                         final Path output) {
+        super();
+        this.name = name;
+        this.localeFilter = localeFilter;
+        this.currencyFilter = currencyFilter;
+        this.features = features;
+        this.output = output;
+    }
+
+    String name() {
+        return this.name;
+    }
+
+    private final String name;
+
+    /**
+     * The locale filter, such as <pre>EN*</pre>.
+     */
+    String localeFilter() {
+        return this.localeFilter;
+    }
+
+    private final String localeFilter;
+
+    /**
+     * The csv of {@link CurrencyCodeSelector currency code selectors}.
+     */
+    String currencyFilter() {
+        return this.currencyFilter;
+    }
+
+    private final String currencyFilter;
+
+    Set<CurrencyProviderFeature> features() {
+        return this.features;
+    }
+
+    private final Set<CurrencyProviderFeature> features;
+
+    Path output() {
+        return this.output;
+    }
+
+    private final Path output;
+
+    @Override
+    public String toString() {
+        return this.name + " locales=" + this.localeFilter + " currencies=" + this.currencyFilter + " features=" + this.features + " output=" + this.output;
+    }
+}
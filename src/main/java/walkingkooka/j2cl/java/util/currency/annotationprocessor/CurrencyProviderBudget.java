@@ -0,0 +1,109 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import walkingkooka.collect.list.Lists;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.stream.Collectors;
+
+/**
+ * A maximum size for all of DATA and optionally each currency, checked against the {@link CurrencyProviderMetrics}
+ * of a generate.
+ */
+final class CurrencyProviderBudget {
+
+    /**
+     * The number of currencies listed when a budget is exceeded.
+     */
+    private final static int LARGEST = 10;
+
+    static CurrencyProviderBudget with(final OptionalLong total,
+                                       final OptionalLong currency) {
+        check(total, "total");
+        check(currency, "currency");
+
+        return new CurrencyProviderBudget(total, currency);
+    }
+
+    private static void check(final OptionalLong bytes,
+                              final String label) {
+        if (bytes.isPresent() && bytes.getAsLong() < 0) {
+            throw new IllegalArgumentException("Invalid " + label + " budget " + bytes.getAsLong() + " < 0");
+        }
+    }
+
+    private CurrencyProviderBudget(final OptionalLong total,
+                                   final OptionalLong currency) {
+        super();
+        this.total = total;
+        this.currency = currency;
+    }
+
+    /**
+     * True if neither limit is present.
+     */
+    boolean isEmpty() {
+        return false == this.total.isPresent() && false == this.currency.isPresent();
+    }
+
+    /**
+     * Returns a message listing each exceeded limit followed by the largest currencies, or nothing if within budget.
+     */
+    Optional<String> check(final CurrencyProviderMetrics metrics) {
+        final List<String> exceeded = Lists.array();
+
+        final long totalBytes = metrics.totalBytes();
+        if (this.total.isPresent() && totalBytes > this.total.getAsLong()) {
+            exceeded.add("DATA " + totalBytes + " bytes exceeds budget " + this.total.getAsLong() + " bytes");
+        }
+
+        if (this.currency.isPresent()) {
+            final long currencyBudget = this.currency.getAsLong();
+            for (final CurrencyProviderMetricsCurrency currency : metrics.largest()) {
+                if (currency.total() <= currencyBudget) {
+                    break;
+                }
+                exceeded.add(currency.currencyCode() + " " + currency.total() + " bytes exceeds currency budget " + currencyBudget + " bytes");
+            }
+        }
+
+        return exceeded.isEmpty() ?
+                Optional.empty() :
+                Optional.of(
+                        String.join(", ", exceeded) +
+                                ", largest " +
+                                metrics.largest()
+                                        .stream()
+                                        .limit(LARGEST)
+                                        .map(c -> c.currencyCode() + " " + c.total() + " bytes " + c.localeCount() + " locales " + c.symbolCount() + " symbols")
+                                        .collect(Collectors.joining(", "))
+                );
+    }
+
+    private final OptionalLong total;
+
+    private final OptionalLong currency;
+
+    @Override
+    public String toString() {
+        return "total=" + this.total + " currency=" + this.currency;
+    }
+}
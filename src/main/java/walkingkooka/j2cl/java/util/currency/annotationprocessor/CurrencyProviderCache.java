@@ -0,0 +1,242 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A directory of previously generated outputs, each in a file named by a hash of everything that affects the output:
+ * the JRE version and locale providers, the processor build, the language tags, the currency filter and the format.
+ */
+final class CurrencyProviderCache {
+
+    /**
+     * Increment when the entry file format changes.
+     */
+    private final static int VERSION = 2;
+
+    private final static String SUFFIX = ".currency-provider";
+
+    static CurrencyProviderCache with(final Path directory) {
+        return new CurrencyProviderCache(Objects.requireNonNull(directory, "directory"));
+    }
+
+    /**
+     * Computes the key for the given parts, which should include everything that can change the output. The JRE
+     * version, locale providers and processor build are always added.
+     */
+    static String key(final List<String> parts) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException cause) {
+            throw new IllegalStateException(cause);
+        }
+
+        update(digest, String.valueOf(VERSION));
+        update(digest, System.getProperty("java.vendor"));
+        update(digest, System.getProperty("java.runtime.version"));
+        update(digest, System.getProperty("java.locale.providers"));
+        update(digest, processorFingerprint());
+
+        for (final String part : parts) {
+            update(digest, part);
+        }
+
+        final StringBuilder hex = new StringBuilder();
+        for (final byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xf, 16));
+            hex.append(Character.forDigit(b & 0xf, 16));
+        }
+        return hex.toString();
+    }
+
+    private static void update(final MessageDigest digest,
+                               final String part) {
+        digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    /**
+     * The location, size and last modified of the jar or directory holding this class, so entries written by a
+     * different build of the processor are not reused.
+     */
+    private static String processorFingerprint() {
+        String fingerprint = "";
+
+        final CodeSource source = CurrencyProviderCache.class.getProtectionDomain().getCodeSource();
+        if (null != source) {
+            final URL location = source.getLocation();
+            if (null != location) {
+                fingerprint = location.toString();
+
+                if ("file".equals(location.getProtocol())) {
+                    final File file = new File(location.getPath());
+                    fingerprint = fingerprint + " " + file.length() + " " + file.lastModified();
+                }
+            }
+        }
+
+        return fingerprint;
+    }
+
+    private CurrencyProviderCache(final Path directory) {
+        super();
+        this.directory = directory;
+    }
+
+    /**
+     * Loads the entry with the given key if one exists. Unreadable entries are treated as absent.
+     */
+    Optional<CurrencyProviderCacheEntry> load(final String key) {
+        CurrencyProviderCacheEntry entry = null;
+
+        final Path file = this.file(key);
+        if (Files.isRegularFile(file)) {
+            try (final DataInputStream input = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(file)))) {
+                if (VERSION == input.readInt()) {
+                    entry = CurrencyProviderCacheEntry.with(
+                            readString(input),
+                            readString(input),
+                            readBytes(input),
+                            readMetrics(input)
+                    );
+                }
+            } catch (final IOException ignore) {
+                // corrupt entries are regenerated and replaced
+            }
+        }
+
+        return Optional.ofNullable(entry);
+    }
+
+    /**
+     * Saves the entry, replacing any existing entry with the same key.
+     */
+    void save(final String key,
+              final CurrencyProviderCacheEntry entry) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeInt(VERSION);
+            writeString(entry.summary(), output);
+            writeString(entry.comments(), output);
+            writeBytes(entry.data(), output);
+            writeMetrics(entry.metrics(), output);
+        }
+
+        Files.createDirectories(this.directory);
+
+        // write to a temporary file and move, so a concurrent build never reads half an entry.
+        final Path temp = Files.createTempFile(this.directory, key, ".tmp");
+        try {
+            Files.write(temp, bytes.toByteArray());
+            try {
+                Files.move(temp, this.file(key), StandardCopyOption.ATOMIC_MOVE);
+            } catch (final AtomicMoveNotSupportedException notSupported) {
+                Files.move(temp, this.file(key), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Path file(final String key) {
+        return this.directory.resolve(key + SUFFIX);
+    }
+
+    private final Path directory;
+
+    private static String readString(final DataInputStream input) throws IOException {
+        return new String(readBytes(input), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readBytes(final DataInputStream input) throws IOException {
+        final byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return bytes;
+    }
+
+    /**
+     * Reads the header and currency sizes written by {@link #writeMetrics(CurrencyProviderMetrics, DataOutputStream)}.
+     */
+    private static CurrencyProviderMetrics readMetrics(final DataInputStream input) throws IOException {
+        final CurrencyProviderMetrics metrics = CurrencyProviderMetrics.empty();
+        metrics.header(input.readLong());
+
+        final int count = input.readInt();
+        for (int i = 0; i < count; i++) {
+            metrics.currency(input.readUTF(),
+                    input.readInt(),
+                    input.readInt(),
+                    input.readLong(),
+                    input.readLong(),
+                    input.readLong());
+        }
+
+        return metrics;
+    }
+
+    private static void writeMetrics(final CurrencyProviderMetrics metrics,
+                                     final DataOutputStream output) throws IOException {
+        output.writeLong(metrics.headerBytes());
+
+        final List<CurrencyProviderMetricsCurrency> currencies = metrics.currencies();
+        output.writeInt(currencies.size());
+        for (final CurrencyProviderMetricsCurrency currency : currencies) {
+            output.writeUTF(currency.currencyCode());
+            output.writeInt(currency.localeCount());
+            output.writeInt(currency.symbolCount());
+            output.writeLong(currency.attributes());
+            output.writeLong(currency.locales());
+            output.writeLong(currency.symbols());
+        }
+    }
+
+    private static void writeString(final String string,
+                                    final DataOutputStream output) throws IOException {
+        writeBytes(string.getBytes(StandardCharsets.UTF_8), output);
+    }
+
+    private static void writeBytes(final byte[] bytes,
+                                   final DataOutputStream output) throws IOException {
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    @Override
+    public String toString() {
+        return this.directory.toString();
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import walkingkooka.text.printer.IndentingPrinter;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A single {@link CurrencyProviderCache} entry holding the summary, the comments without any comment prefix, the
+ * recorded DATA writes and the sizes of the {@link CurrencyProviderMetrics} of that DATA.
+ */
+final class CurrencyProviderCacheEntry {
+
+    static CurrencyProviderCacheEntry with(final String summary,
+                                           final String comments,
+                                           final byte[] data,
+                                           final CurrencyProviderMetrics metrics) {
+        return new CurrencyProviderCacheEntry(summary, comments, data, metrics);
+    }
+
+    private CurrencyProviderCacheEntry(final String summary,
+                                       final String comments,
+                                       final byte[] data,
+                                       final CurrencyProviderMetrics metrics) {
+        super();
+        this.summary = summary;
+        this.comments = comments;
+        this.data = data;
+        this.metrics = metrics;
+    }
+
+    String summary() {
+        return this.summary;
+    }
+
+    private final String summary;
+
+    /**
+     * The comment text, with lines separated by new lines.
+     */
+    String comments() {
+        return this.comments;
+    }
+
+    private final String comments;
+
+    /**
+     * The {@link CurrencyDataOutputRecorder#recording()} of the DATA.
+     */
+    byte[] data() {
+        return this.data;
+    }
+
+    private final byte[] data;
+
+    /**
+     * The header and currency sizes of the DATA, phases are never cached.
+     */
+    CurrencyProviderMetrics metrics() {
+        return this.metrics;
+    }
+
+    private final CurrencyProviderMetrics metrics;
+
+    /**
+     * Writes the recorded DATA and comments, returning the summary.
+     */
+    String replay(final DataOutput data,
+                  final IndentingPrinter comments) throws IOException {
+        CurrencyDataOutputRecorder.replay(this.data, data);
+        this.replayComments(comments);
+
+        return this.summary;
+    }
+
+    /**
+     * Adds the cached header and currency sizes to the given {@link CurrencyProviderMetrics}, so a budget may be checked
+     * without generating.
+     */
+    void replayMetrics(final CurrencyProviderMetrics metrics) {
+        final CurrencyProviderMetrics cached = this.metrics;
+        metrics.header(cached.headerBytes());
+
+        for (final CurrencyProviderMetricsCurrency currency : cached.currencies()) {
+            metrics.currency(currency.currencyCode(),
+                    currency.localeCount(),
+                    currency.symbolCount(),
+                    currency.attributes(),
+                    currency.locales(),
+                    currency.symbols());
+        }
+    }
+
+    /**
+     * Prints each line of the comments.
+     */
+    void replayComments(final IndentingPrinter comments) {
+        final String text = this.comments;
+        int start = 0;
+        for (; ; ) {
+            final int end = text.indexOf('\n', start);
+            if (-1 == end) {
+                break;
+            }
+            comments.lineStart();
+            comments.print(text.substring(start, end));
+            comments.print(comments.lineEnding());
+            start = end + 1;
+        }
+        if (start < text.length()) {
+            comments.lineStart();
+            comments.print(text.substring(start));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return this.summary;
+    }
+}
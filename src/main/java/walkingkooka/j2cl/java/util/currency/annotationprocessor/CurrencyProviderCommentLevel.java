@@ -0,0 +1,80 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import walkingkooka.text.CharSequences;
+import walkingkooka.text.printer.IndentingPrinter;
+
+import java.util.EnumSet;
+import java.util.Locale;
+
+/**
+ * Controls how much of each {@link CurrencyRecord} is printed to the comments above DATA.
+ */
+enum CurrencyProviderCommentLevel {
+
+    /**
+     * Every attribute, locale and symbol of each currency.
+     */
+    FULL,
+
+    /**
+     * A single line for each currency.
+     */
+    SUMMARY,
+
+    /**
+     * Nothing is printed.
+     */
+    NONE;
+
+    /**
+     * Prints the one line summary of the record when this is {@link #SUMMARY}.
+     */
+    void summary(final CurrencyRecord record,
+                 final IndentingPrinter comments) {
+        if (SUMMARY == this) {
+            comments.lineStart();
+            comments.print("currencyCode=" + record.currencyCode() +
+                    " defaultFractionDigits=" + record.defaultFractionDigits() +
+                    " numericCode=" + record.numericCode() +
+                    " defaultSymbol=" + record.defaultSymbol() +
+                    " locales=" + record.locales().size() +
+                    " symbols=" + record.symbolToLocales().size());
+            comments.print(comments.lineEnding());
+        }
+    }
+
+    /**
+     * True when the details are printed, used to skip building comments that would be ignored.
+     */
+    boolean hasDetails() {
+        return FULL == this;
+    }
+
+    /**
+     * Parses the name of a level ignoring case.
+     */
+    static CurrencyProviderCommentLevel parse(final String level) {
+        try {
+            return valueOf(level.trim().toUpperCase(Locale.ENGLISH));
+        } catch (final IllegalArgumentException unknown) {
+            throw new IllegalArgumentException("Unknown comment level " + CharSequences.quoteAndEscape(level) + " expected one of " + EnumSet.allOf(CurrencyProviderCommentLevel.class));
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.j2cl.java.io.string.StringDataInputDataOutput;
+import walkingkooka.text.Indentation;
+import walkingkooka.text.LineEnding;
+import walkingkooka.text.printer.Printers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The raw, gzip and deflate sizes in bytes of DATA written in a {@link CurrencyProviderRecordOrder}, measured with the
+ * JDK compressors at their default level, as bundles are served compressed.
+ */
+final class CurrencyProviderCompression {
+
+    /**
+     * Generates DATA once for each {@link CurrencyProviderRecordOrder} and measures its sizes. Comments and metrics are
+     * ignored.
+     */
+    static List<CurrencyProviderCompression> measure(final Set<String> languageTags,
+                                                     final Set<String> currencyCodes,
+                                                     final CurrencyProviderToolOptions options) throws IOException {
+        final List<CurrencyProviderCompression> sizes = Lists.array();
+
+        for (final CurrencyProviderRecordOrder order : CurrencyProviderRecordOrder.values()) {
+            final StringBuilder data = new StringBuilder();
+            CurrencyProviderTool.generate(languageTags,
+                    currencyCodes,
+                    options.setRecordOrder(order)
+                            .setCommentLevel(CurrencyProviderCommentLevel.NONE)
+                            .setMetrics(Optional.empty()),
+                    StringDataInputDataOutput.output(data::append),
+                    Printers.sink(LineEnding.NONE)
+                            .indenting(Indentation.SPACES2));
+
+            sizes.add(with(order, data.toString()));
+        }
+
+        return Collections.unmodifiableList(sizes);
+    }
+
+    /**
+     * Measures the UTF-8 bytes of DATA and its gzip and deflate compressed sizes.
+     */
+    static CurrencyProviderCompression with(final CurrencyProviderRecordOrder order,
+                                            final String data) throws IOException {
+        final byte[] raw = data.getBytes(StandardCharsets.UTF_8);
+
+        final ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+        compress(raw, new GZIPOutputStream(gzip));
+
+        final ByteArrayOutputStream deflate = new ByteArrayOutputStream();
+        compress(raw, new DeflaterOutputStream(deflate));
+
+        return new CurrencyProviderCompression(order,
+                raw.length,
+                gzip.size(),
+                deflate.size());
+    }
+
+    private static void compress(final byte[] raw,
+                                 final OutputStream output) throws IOException {
+        try (final OutputStream compressor = output) {
+            compressor.write(raw);
+        }
+    }
+
+    private CurrencyProviderCompression(final CurrencyProviderRecordOrder order,
+                                        final int raw,
+                                        final int gzip,
+                                        final int deflate) {
+        super();
+        this.order = order;
+        this.raw = raw;
+        this.gzip = gzip;
+        this.deflate = deflate;
+    }
+
+    CurrencyProviderRecordOrder order() {
+        return this.order;
+    }
+
+    private final CurrencyProviderRecordOrder order;
+
+    int raw() {
+        return this.raw;
+    }
+
+    private final int raw;
+
+    int gzip() {
+        return this.gzip;
+    }
+
+    private final int gzip;
+
+    int deflate() {
+        return this.deflate;
+    }
+
+    private final int deflate;
+
+    @Override
+    public String toString() {
+        return this.order + " raw=" + this.raw + " gzip=" + this.gzip + " deflate=" + this.deflate;
+    }
+}
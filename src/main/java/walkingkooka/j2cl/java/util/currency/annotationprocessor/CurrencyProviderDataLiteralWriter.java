@@ -0,0 +1,226 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Objects;
+
+/**
+ * Escapes and writes text as it arrives as a java expression that concatenates one or more
+ * <pre>preventInlining("...")</pre> calls, so the DATA of the generated CurrencyProviderData and shard classes is never
+ * held in memory as a single literal. Each literal is at most a bounded number of modified UTF-8 bytes, keeping it under
+ * the 65535 byte constant pool limit of javac. Because each literal is an argument of a method call the concatenation
+ * is never folded into a single constant.
+ */
+final class CurrencyProviderDataLiteralWriter implements Closeable {
+
+    /**
+     * The largest number of bytes of a single string constant in a class file.
+     */
+    final static int MAX_CHUNK_BYTES = 65535;
+
+    /**
+     * The smallest chunk size, which holds the 6 bytes of a surrogate pair.
+     */
+    final static int MIN_CHUNK_BYTES = 6;
+
+    /**
+     * The default chunk size, well under {@link #MAX_CHUNK_BYTES}.
+     */
+    final static int DEFAULT_CHUNK_BYTES = 32 * 1024;
+
+    static CurrencyProviderDataLiteralWriter with(final Appendable output,
+                                                  final int chunkBytes) {
+        Objects.requireNonNull(output, "output");
+        if (chunkBytes < MIN_CHUNK_BYTES || chunkBytes > MAX_CHUNK_BYTES) {
+            throw new IllegalArgumentException("Invalid chunk bytes " + chunkBytes + " not between " + MIN_CHUNK_BYTES + " and " + MAX_CHUNK_BYTES);
+        }
+
+        return new CurrencyProviderDataLiteralWriter(output, chunkBytes);
+    }
+
+    private CurrencyProviderDataLiteralWriter(final Appendable output,
+                                              final int chunkBytes) {
+        super();
+        this.output = output;
+        this.chunkBytes = chunkBytes;
+    }
+
+    /**
+     * Appends the text, suitable as the target of {@link walkingkooka.j2cl.java.io.string.StringDataInputDataOutput#output(java.util.function.Consumer)}.
+     */
+    void append(final String text) {
+        try {
+            this.append0(text);
+        } catch (final IOException cause) {
+            throw new UncheckedIOException(cause);
+        }
+    }
+
+    private void append0(final String text) throws IOException {
+        final Appendable output = this.output;
+        final int length = text.length();
+
+        for (int i = 0; i < length; i++) {
+            final char c = text.charAt(i);
+            final int bytes = bytes(c);
+
+            // a high surrogate starts a new literal unless its pair fits, so the low surrogate never needs to split
+            final boolean split = Character.isLowSurrogate(c) && Character.isHighSurrogate(this.previous) ?
+                    false :
+                    this.bytes + bytes + (Character.isHighSurrogate(c) ? bytes(Character.MIN_LOW_SURROGATE) : 0) > this.chunkBytes;
+            if (this.chunks == 0 || split) {
+                this.startChunk();
+            }
+
+            escape(c, output);
+            this.bytes += bytes;
+            this.previous = c;
+        }
+    }
+
+    private void startChunk() throws IOException {
+        final Appendable output = this.output;
+
+        if (this.chunks > 0) {
+            output.append(CLOSE);
+            output.append(SEPARATOR);
+        }
+        output.append(OPEN);
+
+        this.chunks++;
+        this.bytes = 0;
+    }
+
+    /**
+     * Closes the last literal, writing an empty literal if nothing was appended. The {@link Appendable} is not closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (0 == this.chunks) {
+            this.startChunk();
+        }
+        this.output.append(CLOSE);
+    }
+
+    /**
+     * The number of literals written so far.
+     */
+    int chunks() {
+        return this.chunks;
+    }
+
+    private final static String OPEN = "preventInlining(\"";
+
+    private final static String CLOSE = "\")";
+
+    private final static String SEPARATOR = " +\n      ";
+
+    /**
+     * The number of modified UTF-8 bytes used by a char in the constant pool.
+     */
+    private static int bytes(final char c) {
+        return c >= 0x1 && c <= 0x7f ?
+                1 :
+                c <= 0x7ff ?
+                        2 :
+                        3;
+    }
+
+    /**
+     * The number of chars of the escaped text within a literal, which are also its bytes as the escaped text is ASCII.
+     */
+    static long escapedLength(final CharSequence text) {
+        long length = 0;
+
+        final int count = text.length();
+        for (int i = 0; i < count; i++) {
+            length += escapedLength(text.charAt(i));
+        }
+        return length;
+    }
+
+    private static int escapedLength(final char c) {
+        final int length;
+        switch (c) {
+            case '"':
+            case '\\':
+            case '\n':
+            case '\r':
+            case '\t':
+                length = 2;
+                break;
+            default:
+                length = c < ' ' || c > '~' ?
+                        6 :
+                        1;
+                break;
+        }
+        return length;
+    }
+
+    private static void escape(final char c,
+                               final Appendable output) throws IOException {
+        switch (c) {
+            case '"':
+                output.append("\\\"");
+                break;
+            case '\\':
+                output.append("\\\\");
+                break;
+            case '\n':
+                output.append("\\n");
+                break;
+            case '\r':
+                output.append("\\r");
+                break;
+            case '\t':
+                output.append("\\t");
+                break;
+            default:
+                if (c < ' ' || c > '~') {
+                    output.append("\\u");
+                    final String hex = Integer.toHexString(c);
+                    for (int i = hex.length(); i < 4; i++) {
+                        output.append('0');
+                    }
+                    output.append(hex);
+                } else {
+                    output.append(c);
+                }
+                break;
+        }
+    }
+
+    private final Appendable output;
+
+    private final int chunkBytes;
+
+    private int chunks;
+
+    private int bytes;
+
+    private char previous;
+
+    @Override
+    public String toString() {
+        return this.chunks + " chunks of " + this.chunkBytes + " bytes";
+    }
+}
@@ -0,0 +1,461 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.collect.set.SortedSets;
+import walkingkooka.j2cl.java.io.string.StringDataInputDataOutput;
+import walkingkooka.j2cl.locale.annotationprocessor.LocaleAwareAnnotationProcessorTool;
+import walkingkooka.text.CharSequences;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * A reference decoder of {@code DATA} written by {@link CurrencyProviderTool}, which reads the unversioned format and
+ * every {@link CurrencyProviderFeature} into {@link CurrencyDecodedRecord records} by currency code. Any lookup
+ * columns and locale hash are checked against the decoded records.
+ */
+final class CurrencyProviderDecoder {
+
+    /**
+     * Decodes {@code DATA} that was not written with {@link CurrencyProviderFeature#SHARDS}.
+     */
+    static Map<String, CurrencyDecodedRecord> decode(final DataInput data) throws IOException {
+        return decode(data, CurrencyProviderDecoder::shardsUnsupported);
+    }
+
+    /**
+     * Decodes the text form of {@code DATA} that was not written with {@link CurrencyProviderFeature#SHARDS}.
+     */
+    static Map<String, CurrencyDecodedRecord> decode(final String data) throws IOException {
+        return decode(data, CurrencyProviderDecoder::shardsUnsupported);
+    }
+
+    private static DataInput shardsUnsupported(final String currencyCode) {
+        throw new IllegalArgumentException("Feature " + CurrencyProviderFeature.SHARDS + " requires shards, missing " + CharSequences.quoteAndEscape(currencyCode));
+    }
+
+    /**
+     * Decodes {@code DATA}, reading the symbols of each currency from its shard when
+     * {@link CurrencyProviderFeature#SHARDS} is present. The returned map is in the order records were written.
+     * {@link CurrencyProviderFeature#OFFSET_TABLE} needs the text of {@code DATA} to seek records, see
+     * {@link #decode(String, Function)}.
+     */
+    static Map<String, CurrencyDecodedRecord> decode(final DataInput data,
+                                                     final Function<String, DataInput> shards) throws IOException {
+        return decode(data, null, shards);
+    }
+
+    /**
+     * Decodes the text form of {@code DATA}, records are read through any offset table by seeking within the text.
+     */
+    static Map<String, CurrencyDecodedRecord> decode(final String data,
+                                                     final Function<String, DataInput> shards) throws IOException {
+        return decode(StringDataInputDataOutput.input(data), data, shards);
+    }
+
+    private static Map<String, CurrencyDecodedRecord> decode(final DataInput data,
+                                                             final String text,
+                                                             final Function<String, DataInput> shards) throws IOException {
+        final int first = data.readInt();
+
+        final CurrencyProviderDecoder decoder;
+        final DataInput input;
+        final int count;
+        if (first >= 0) {
+            decoder = new CurrencyProviderDecoder(Collections.emptySet(), text, shards);
+            input = data;
+            count = first;
+        } else {
+            if (CurrencyProviderFeature.VERSION != first) {
+                throw new IllegalArgumentException("Unsupported version " + first);
+            }
+            decoder = new CurrencyProviderDecoder(CurrencyProviderFeature.fromBits(data.readInt()), text, shards);
+            input = decoder.input(data);
+            decoder.readHeader(input);
+            count = input.readInt();
+        }
+
+        return decoder.readRecords(count, input);
+    }
+
+    private CurrencyProviderDecoder(final Set<CurrencyProviderFeature> features,
+                                    final String text,
+                                    final Function<String, DataInput> shards) {
+        super();
+        if (null == text && features.contains(CurrencyProviderFeature.OFFSET_TABLE)) {
+            throw new IllegalArgumentException("Feature " + CurrencyProviderFeature.OFFSET_TABLE + " requires the text of DATA");
+        }
+        this.features = features;
+        this.text = text;
+        this.shards = features.contains(CurrencyProviderFeature.SHARDS) ?
+                shards :
+                null;
+        this.compact = features.contains(CurrencyProviderFeature.COMPACT_INTS);
+    }
+
+    /**
+     * Wraps everything read after the features in a {@link CurrencyCompactDataInput} when
+     * {@link CurrencyProviderFeature#COMPACT_INTS} is present.
+     */
+    private DataInput input(final DataInput data) {
+        return this.compact ?
+                CurrencyCompactDataInput.with(data) :
+                data;
+    }
+
+    /**
+     * Reads any string table, symbol pool and selected locale groups.
+     */
+    private void readHeader(final DataInput data) throws IOException {
+        final Set<CurrencyProviderFeature> features = this.features;
+
+        if (features.contains(CurrencyProviderFeature.STRING_TABLE)) {
+            if (features.contains(CurrencyProviderFeature.SYMBOL_POOL)) {
+                throw new IllegalArgumentException("Features " + CurrencyProviderFeature.STRING_TABLE + " and " + CurrencyProviderFeature.SYMBOL_POOL + " cannot both be present");
+            }
+            this.strings = readTable(data);
+            this.symbols = this.strings;
+        } else {
+            if (features.contains(CurrencyProviderFeature.SYMBOL_POOL)) {
+                this.symbols = readTable(data);
+            }
+        }
+        if (features.contains(CurrencyProviderFeature.GROUPED_LOCALES)) {
+            final Map<String, List<String>> selected = Maps.sorted();
+            final int count = data.readInt();
+
+            for (int i = 0; i < count; i++) {
+                final String language = this.readString(data);
+                final int suffixCount = data.readInt();
+                if (suffixCount < 0) {
+                    throw new IllegalStateException("Selected locales of " + CharSequences.quoteAndEscape(language) + " must not be an except group");
+                }
+                selected.put(language, this.readSuffixes(suffixCount, data));
+            }
+
+            this.selected = selected;
+        }
+    }
+
+    private static List<String> readTable(final DataInput data) throws IOException {
+        final int count = data.readInt();
+        final List<String> table = Lists.array();
+
+        for (int i = 0; i < count; i++) {
+            table.add(data.readUTF());
+        }
+
+        return table;
+    }
+
+    /**
+     * Reads any lookup columns and locale hash, and then every record either in turn or through the offset table.
+     */
+    private Map<String, CurrencyDecodedRecord> readRecords(final int count,
+                                                           final DataInput data) throws IOException {
+        final Set<CurrencyProviderFeature> features = this.features;
+
+        final List<String> columnCodes = features.contains(CurrencyProviderFeature.LOOKUP_COLUMNS) ?
+                this.readLookupColumns(count, data) :
+                null;
+        final CurrencyLocaleHash hash = features.contains(CurrencyProviderFeature.LOCALE_HASH) ?
+                CurrencyLocaleHash.read(data) :
+                null;
+
+        final Map<String, CurrencyDecodedRecord> records = Maps.ordered();
+
+        if (features.contains(CurrencyProviderFeature.OFFSET_TABLE)) {
+            // entries are sorted by currency code, records are decoded in the order they were written
+            final Map<Integer, String> offsetToCode = Maps.sorted();
+            final Map<Integer, Integer> offsetToLength = Maps.hash();
+            int end = 0;
+
+            for (int i = 0; i < count; i++) {
+                final String currencyCode = null != columnCodes ?
+                        columnCodes.get(i) :
+                        data.readUTF();
+                final int offset = data.readInt();
+                final int length = data.readInt();
+                offsetToCode.put(offset, currencyCode);
+                offsetToLength.put(offset, length);
+                end = Math.max(end, offset + length);
+            }
+
+            // the records are the end of DATA, offsets start at the first value of the first record
+            final String text = this.text;
+            final int start = text.length() - end;
+            if (start < 0) {
+                throw new IllegalStateException("Records length " + end + " longer than DATA " + text.length());
+            }
+            for (final Entry<Integer, String> offsetAndCode : offsetToCode.entrySet()) {
+                final int offset = start + offsetAndCode.getKey();
+                final CurrencyDecodedRecord record = this.readRecord(
+                        this.input(
+                                StringDataInputDataOutput.input(text.substring(offset, offset + offsetToLength.get(offsetAndCode.getKey())))
+                        )
+                );
+
+                final String currencyCode = offsetAndCode.getValue();
+                if (false == currencyCode.equals(record.currencyCode())) {
+                    throw new IllegalStateException("Record at " + offset + " expected " + CharSequences.quoteAndEscape(currencyCode) + " got " + CharSequences.quoteAndEscape(record.currencyCode()));
+                }
+                records.put(currencyCode, record);
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                final CurrencyDecodedRecord record = this.readRecord(data);
+                records.put(record.currencyCode(), record);
+            }
+        }
+
+        if (null != hash) {
+            verifyHash(hash, records);
+        }
+
+        return Collections.unmodifiableMap(records);
+    }
+
+    /**
+     * Reads the currency codes, numeric codes and fraction digits sorted by currency code, and the indices sorted by
+     * numeric code, returning the currency codes.
+     */
+    private List<String> readLookupColumns(final int count,
+                                           final DataInput data) throws IOException {
+        final List<String> codes = Lists.array();
+        for (int i = 0; i < count; i++) {
+            codes.add(data.readUTF());
+        }
+
+        final int[] numericCodes = new int[count];
+        for (int i = 0; i < count; i++) {
+            numericCodes[i] = data.readInt();
+        }
+
+        final Map<String, int[]> codeToAttributes = Maps.hash();
+        for (int i = 0; i < count; i++) {
+            codeToAttributes.put(codes.get(i), new int[]{data.readInt(), numericCodes[i]});
+        }
+
+        int previous = Integer.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            final int numericCode = numericCodes[data.readInt()];
+            if (numericCode < previous) {
+                throw new IllegalStateException("Numeric code index out of order " + numericCode + " after " + previous);
+            }
+            previous = numericCode;
+        }
+
+        this.codeToAttributes = codeToAttributes;
+        return codes;
+    }
+
+    /**
+     * Fails if any locale of a record does not hash to the index of its record.
+     */
+    private static void verifyHash(final CurrencyLocaleHash hash,
+                                   final Map<String, CurrencyDecodedRecord> records) {
+        final Map<String, Integer> languageTagToIndex = Maps.sorted();
+
+        int i = 0;
+        for (final CurrencyDecodedRecord record : records.values()) {
+            for (final Locale locale : record.locales()) {
+                languageTagToIndex.put(locale.toLanguageTag(), i);
+            }
+            i++;
+        }
+
+        hash.verify(languageTagToIndex);
+    }
+
+    /**
+     * Reads a single record, with its symbols read from its shard if present.
+     */
+    private CurrencyDecodedRecord readRecord(final DataInput data) throws IOException {
+        final String currencyCode = data.readUTF();
+
+        final int defaultFractionDigits;
+        final int numericCode;
+        final Map<String, int[]> codeToAttributes = this.codeToAttributes;
+        if (null == codeToAttributes) {
+            defaultFractionDigits = data.readInt();
+            numericCode = data.readInt();
+        } else {
+            final int[] attributes = codeToAttributes.get(currencyCode);
+            if (null == attributes) {
+                throw new IllegalStateException("Record " + CharSequences.quoteAndEscape(currencyCode) + " missing from lookup columns");
+            }
+            defaultFractionDigits = attributes[0];
+            numericCode = attributes[1];
+        }
+
+        final Function<String, DataInput> shards = this.shards;
+        final DataInput symbolData = null != shards ?
+                this.input(shards.apply(currencyCode)) :
+                data;
+
+        final String defaultSymbol = this.readSymbol(symbolData);
+        final Set<Locale> locales = this.readLocales(data);
+
+        final Map<String, String> languageToSymbol = Maps.sorted();
+        if (this.features.contains(CurrencyProviderFeature.LANGUAGE_SYMBOLS)) {
+            final int count = symbolData.readInt();
+            for (int i = 0; i < count; i++) {
+                final String language = this.readString(symbolData);
+                languageToSymbol.put(language, this.readSymbol(symbolData));
+            }
+        }
+
+        final Map<String, Set<Locale>> symbolToLocales = Maps.sorted();
+        final int count = symbolData.readInt();
+        for (int i = 0; i < count; i++) {
+            final String symbol = this.readSymbol(symbolData);
+            symbolToLocales.put(symbol, this.readLocales(symbolData));
+        }
+
+        return CurrencyDecodedRecord.with(currencyCode,
+                defaultFractionDigits,
+                numericCode,
+                defaultSymbol,
+                locales,
+                Collections.unmodifiableMap(languageToSymbol),
+                Collections.unmodifiableMap(symbolToLocales));
+    }
+
+    /**
+     * Reads a list of locales as language tags, string table indices or language groups.
+     */
+    private Set<Locale> readLocales(final DataInput data) throws IOException {
+        final Set<Locale> locales = SortedSets.tree(LocaleAwareAnnotationProcessorTool.LOCALE_COMPARATOR);
+
+        final Map<String, List<String>> selected = this.selected;
+        if (null == selected) {
+            final int count = data.readInt();
+            for (int i = 0; i < count; i++) {
+                locales.add(Locale.forLanguageTag(this.readString(data)));
+            }
+        } else {
+            final int groupCount = data.readInt();
+            for (int i = 0; i < groupCount; i++) {
+                final String language = this.readString(data);
+                final int count = data.readInt();
+
+                final List<String> suffixes;
+                if (count < 0) {
+                    final List<String> selectedSuffixes = selected.get(language);
+                    if (null == selectedSuffixes) {
+                        throw new IllegalStateException("Except group of unselected language " + CharSequences.quoteAndEscape(language));
+                    }
+                    suffixes = Lists.array();
+                    suffixes.addAll(selectedSuffixes);
+                    suffixes.removeAll(this.readSuffixes(-count - 1, data));
+                } else {
+                    suffixes = this.readSuffixes(count, data);
+                }
+
+                for (final String suffix : suffixes) {
+                    locales.add(Locale.forLanguageTag(CurrencyLocaleGroups.languageTag(language, suffix)));
+                }
+            }
+        }
+
+        return Collections.unmodifiableSet(locales);
+    }
+
+    private List<String> readSuffixes(final int count,
+                                      final DataInput data) throws IOException {
+        final List<String> suffixes = Lists.array();
+        for (int i = 0; i < count; i++) {
+            suffixes.add(this.readString(data));
+        }
+        return suffixes;
+    }
+
+    /**
+     * Reads a string or its index when a string table is present.
+     */
+    private String readString(final DataInput data) throws IOException {
+        final List<String> strings = this.strings;
+        return null == strings ?
+                data.readUTF() :
+                strings.get(data.readInt());
+    }
+
+    /**
+     * Reads a symbol or its index when a string table or symbol pool is present.
+     */
+    private String readSymbol(final DataInput data) throws IOException {
+        final List<String> symbols = this.symbols;
+        return null == symbols ?
+                data.readUTF() :
+                symbols.get(data.readInt());
+    }
+
+    private final Set<CurrencyProviderFeature> features;
+
+    /**
+     * Provides the shard of each currency code, only present when {@link CurrencyProviderFeature#SHARDS} is present.
+     */
+    private final Function<String, DataInput> shards;
+
+    /**
+     * When true ints after the features are read by a {@link CurrencyCompactDataInput}.
+     */
+    private final boolean compact;
+
+    /**
+     * The text form of {@code DATA}, required to seek records through the offset table, otherwise may be null.
+     */
+    private final String text;
+
+    /**
+     * The string table when {@link CurrencyProviderFeature#STRING_TABLE} is present.
+     */
+    private List<String> strings;
+
+    /**
+     * The symbol pool or the string table or null.
+     */
+    private List<String> symbols;
+
+    /**
+     * The suffixes of the selected locales of each language when {@link CurrencyProviderFeature#GROUPED_LOCALES} is
+     * present.
+     */
+    private Map<String, List<String>> selected;
+
+    /**
+     * The fraction digits and numeric code of each currency code when {@link CurrencyProviderFeature#LOOKUP_COLUMNS}
+     * is present.
+     */
+    private Map<String, int[]> codeToAttributes;
+
+    @Override
+    public String toString() {
+        return this.features.toString();
+    }
+}
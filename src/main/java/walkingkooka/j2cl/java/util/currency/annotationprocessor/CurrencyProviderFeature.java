@@ -0,0 +1,158 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import walkingkooka.text.CharSequences;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Optional features of the versioned DATA format. When no features are selected the original unversioned format,
+ * which starts with the record count, is written. Otherwise DATA starts with {@link #VERSION} followed by the
+ * {@link #bits(Set)} of the selected features.
+ */
+enum CurrencyProviderFeature {
+
+    /**
+     * All language tags and symbols are written once in a table before the records, which then refer to them by index.
+     */
+    STRING_TABLE(1),
+
+    /**
+     * Lists of locales are grouped by language, with the language written once followed by the suffix of each tag,
+     * or the suffixes of the selected tags of the language that are absent. The selected tags are written once
+     * after any table.
+     */
+    GROUPED_LOCALES(2),
+
+    /**
+     * DATA only holds a directory of the currency code, attributes and locales of each currency, the default symbol
+     * and symbols of each currency are written to a separate shard, so unused shards may be removed by the compiler.
+     */
+    SHARDS(4),
+
+    /**
+     * Only the default symbol and other symbols are written once in a pool, which records then refer to by index. Cannot
+     * be selected with {@link #STRING_TABLE}, which already holds every symbol.
+     */
+    SYMBOL_POOL(8),
+
+    /**
+     * Each currency writes the languages whose most common symbol differs from the default symbol, and only the
+     * locales whose symbol differs from their language symbol. Symbols are resolved by locale, then language and then
+     * the default symbol.
+     */
+    LANGUAGE_SYMBOLS(16),
+
+    /**
+     * The record count is followed by the sorted currency codes, each with the offset and length of its record in the
+     * text of DATA, counted from the first record. The records are the end of DATA, so a decoder may binary search the
+     * codes and seek to decode only the records it needs.
+     */
+    OFFSET_TABLE(32),
+
+    /**
+     * The record count is followed by columns of the currency codes, numeric codes and fraction digits sorted by
+     * currency code, and the indices sorted by numeric code, which records no longer hold. With {@link #OFFSET_TABLE}
+     * the offset table omits the currency codes already in the columns.
+     */
+    LOOKUP_COLUMNS(64),
+
+    /**
+     * The record count, and any lookup columns, are followed by a minimal perfect hash of the language tag of every
+     * locale of each record to the index of the record, see {@link CurrencyLocaleHash}.
+     */
+    LOCALE_HASH(128),
+
+    /**
+     * Every int after the features, counts, indices, fraction digits and numeric codes, is written as a string of
+     * printable digits, see {@link CurrencyCompactDataOutput}, never longer than its decimal text.
+     */
+    COMPACT_INTS(256);
+
+    /**
+     * The first int of a versioned DATA, the unversioned format starts with a record count which is never negative.
+     */
+    final static int VERSION = -2;
+
+    CurrencyProviderFeature(final int bit) {
+        this.bit = bit;
+    }
+
+    /**
+     * The bit in the features int that is set when this feature is present.
+     */
+    final int bit;
+
+    /**
+     * Returns the features int for the given features.
+     */
+    static int bits(final Set<CurrencyProviderFeature> features) {
+        int bits = 0;
+        for (final CurrencyProviderFeature feature : features) {
+            bits |= feature.bit;
+        }
+        return bits;
+    }
+
+    /**
+     * Returns the features present in the given bits.
+     */
+    static Set<CurrencyProviderFeature> fromBits(final int bits) {
+        final Set<CurrencyProviderFeature> features = EnumSet.noneOf(CurrencyProviderFeature.class);
+        int remaining = bits;
+
+        for (final CurrencyProviderFeature feature : values()) {
+            if (0 != (bits & feature.bit)) {
+                features.add(feature);
+                remaining &= ~feature.bit;
+            }
+        }
+
+        if (0 != remaining) {
+            throw new IllegalArgumentException("Unknown feature bits " + remaining);
+        }
+
+        return Collections.unmodifiableSet(features);
+    }
+
+    /**
+     * Parses a csv of feature names, ignoring case. An empty string returns no features.
+     */
+    static Set<CurrencyProviderFeature> parse(final String features) {
+        final Set<CurrencyProviderFeature> parsed = EnumSet.noneOf(CurrencyProviderFeature.class);
+
+        for (final String token : features.split(",")) {
+            final String name = token.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+
+            try {
+                parsed.add(valueOf(name.toUpperCase(Locale.ENGLISH)));
+            } catch (final IllegalArgumentException unknown) {
+                throw new IllegalArgumentException("Unknown feature " + CharSequences.quoteAndEscape(name) + " expected one of " + EnumSet.allOf(CurrencyProviderFeature.class));
+            }
+        }
+
+        return Collections.unmodifiableSet(parsed);
+    }
+}
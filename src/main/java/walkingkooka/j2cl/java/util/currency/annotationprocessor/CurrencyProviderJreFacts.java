@@ -0,0 +1,177 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import walkingkooka.j2cl.locale.WalkingkookaLanguageTag;
+
+import java.util.Collections;
+import java.util.Currency;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A process wide memo of the currency of each locale and the symbol of each currency and locale, so later compilations
+ * in the same long lived JVM, such as an IDE or build daemon, do not query the JRE again. Facts are kept for a few
+ * locale provider identities, formed from the JRE vendor, version and locale providers, and the least recently used
+ * are dropped. Every method may be called by many threads.
+ */
+final class CurrencyProviderJreFacts {
+
+    /**
+     * The most locale provider identities whose facts are kept.
+     */
+    private final static int MAX_IDENTITIES = 4;
+
+    /**
+     * The most symbols kept for a single identity, further symbols are computed each time.
+     */
+    final static int MAX_SYMBOLS = 1 << 20;
+
+    private final static Map<String, CurrencyProviderJreFacts> IDENTITY_TO_FACTS = Collections.synchronizedMap(
+            new LinkedHashMap<String, CurrencyProviderJreFacts>(MAX_IDENTITIES * 2, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<String, CurrencyProviderJreFacts> eldest) {
+                    return this.size() > MAX_IDENTITIES;
+                }
+            }
+    );
+
+    /**
+     * Returns the facts for the locale provider identity of this JRE.
+     */
+    static CurrencyProviderJreFacts current() {
+        return get(identity());
+    }
+
+    /**
+     * The identity of the JRE locale providers, facts are never shared between different identities.
+     */
+    static String identity() {
+        return System.getProperty("java.vendor") + " " +
+                System.getProperty("java.runtime.version") + " " +
+                System.getProperty("java.locale.providers");
+    }
+
+    static CurrencyProviderJreFacts get(final String identity) {
+        return IDENTITY_TO_FACTS.computeIfAbsent(identity, CurrencyProviderJreFacts::new);
+    }
+
+    private CurrencyProviderJreFacts(final String identity) {
+        super();
+        this.identity = identity;
+    }
+
+    /**
+     * All JRE {@link Locale locales}, loaded once.
+     */
+    Set<Locale> locales() {
+        Set<Locale> locales = this.locales;
+        if (null == locales) {
+            locales = Collections.unmodifiableSet(WalkingkookaLanguageTag.locales());
+            this.locales = locales;
+        }
+        return locales;
+    }
+
+    private volatile Set<Locale> locales;
+
+    /**
+     * All available {@link Currency currencies}, loaded once.
+     */
+    Set<Currency> currencies() {
+        Set<Currency> currencies = this.currencies;
+        if (null == currencies) {
+            currencies = Collections.unmodifiableSet(Currency.getAvailableCurrencies());
+            this.currencies = currencies;
+        }
+        return currencies;
+    }
+
+    private volatile Set<Currency> currencies;
+
+    /**
+     * Returns the {@link Currency} of the {@link Locale} or null if it has none.
+     */
+    Currency currency(final Locale locale) {
+        final Object currency = this.localeToCurrency.computeIfAbsent(locale, CurrencyProviderJreFacts::currencyOrNone);
+        return NONE == currency ?
+                null :
+                (Currency) currency;
+    }
+
+    private static Object currencyOrNone(final Locale locale) {
+        Object currency;
+        try {
+            currency = Currency.getInstance(locale);
+        } catch (final Exception unsupported) {
+            // locale doesnt have a currency
+            currency = null;
+        }
+        return null == currency ?
+                NONE :
+                currency;
+    }
+
+    /**
+     * Marks a {@link Locale} without a {@link Currency}, as null cannot be held by a {@link ConcurrentHashMap}.
+     */
+    private final static Object NONE = new Object();
+
+    private final Map<Locale, Object> localeToCurrency = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the symbol of the {@link Currency} for the {@link Locale}, only calling {@link Currency#getSymbol(Locale)}
+     * the first time unless {@link #MAX_SYMBOLS} are already held.
+     */
+    String symbol(final Currency currency,
+                  final Locale locale) {
+        final Map<Locale, String> localeToSymbol = this.currencyToLocaleToSymbol.computeIfAbsent(currency, (c) -> new ConcurrentHashMap<>());
+
+        String symbol = localeToSymbol.get(locale);
+        if (null == symbol) {
+            symbol = currency.getSymbol(locale);
+
+            if (this.symbolCount.get() < MAX_SYMBOLS && null == localeToSymbol.putIfAbsent(locale, symbol)) {
+                this.symbolCount.incrementAndGet();
+            }
+        }
+        return symbol;
+    }
+
+    private final Map<Currency, Map<Locale, String>> currencyToLocaleToSymbol = new ConcurrentHashMap<>();
+
+    private final AtomicInteger symbolCount = new AtomicInteger();
+
+    /**
+     * The number of symbols held.
+     */
+    int symbolCount() {
+        return this.symbolCount.get();
+    }
+
+    private final String identity;
+
+    @Override
+    public String toString() {
+        return this.identity + " " + this.symbolCount + " symbols";
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import java.util.Currency;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A {@link CurrencyProviderSource} that queries the live JRE, loading its locale providers on first use. The currency
+ * of each locale and every symbol are memoized for the whole process by {@link CurrencyProviderJreFacts}. The singleton
+ * finds the {@link CurrencyProviderJreFacts} of the current JRE for every query, while a {@link #resolve() resolved}
+ * source holds them, so its many lookups during a generate never rebuild the identity or take the lock of the facts
+ * of every identity.
+ */
+final class CurrencyProviderJreSource implements CurrencyProviderSource {
+
+    /**
+     * Singleton
+     */
+    final static CurrencyProviderJreSource INSTANCE = new CurrencyProviderJreSource(null);
+
+    /**
+     * Creates a source that answers every query from the given {@link CurrencyProviderJreFacts}.
+     */
+    static CurrencyProviderJreSource with(final CurrencyProviderJreFacts facts) {
+        return new CurrencyProviderJreSource(Objects.requireNonNull(facts, "facts"));
+    }
+
+    private CurrencyProviderJreSource(final CurrencyProviderJreFacts facts) {
+        super();
+        this.facts = facts;
+    }
+
+    @Override
+    public CurrencyProviderSource resolve() {
+        return null != this.facts ?
+                this :
+                with(CurrencyProviderJreFacts.current());
+    }
+
+    /**
+     * The held facts or those of the current JRE for the singleton.
+     */
+    private CurrencyProviderJreFacts facts() {
+        final CurrencyProviderJreFacts facts = this.facts;
+        return null != facts ?
+                facts :
+                CurrencyProviderJreFacts.current();
+    }
+
+    private final CurrencyProviderJreFacts facts;
+
+    @Override
+    public Set<Locale> locales() {
+        return this.facts()
+                .locales();
+    }
+
+    @Override
+    public Set<Currency> currencies() {
+        return this.facts()
+                .currencies();
+    }
+
+    @Override
+    public Currency currency(final Locale locale) {
+        return this.facts()
+                .currency(locale);
+    }
+
+    @Override
+    public Currency currency(final String currencyCode) {
+        Currency currency;
+        try {
+            currency = Currency.getInstance(currencyCode);
+        } catch (final Exception unknown) {
+            currency = null;
+        }
+        return currency;
+    }
+
+    @Override
+    public int defaultFractionDigits(final Currency currency) {
+        return currency.getDefaultFractionDigits();
+    }
+
+    @Override
+    public int numericCode(final Currency currency) {
+        return currency.getNumericCode();
+    }
+
+    @Override
+    public String symbol(final Currency currency,
+                         final Locale locale) {
+        return this.facts()
+                .symbol(currency, locale);
+    }
+
+    @Override
+    public String toString() {
+        return "JRE " + CurrencyProviderJreFacts.identity();
+    }
+}
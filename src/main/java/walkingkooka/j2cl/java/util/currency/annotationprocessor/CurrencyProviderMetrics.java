@@ -0,0 +1,242 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Collects the wall time of each phase of a generate and the bytes written for the header and each section of every
+ * currency. Sizes are the bytes of the escaped text of DATA, see {@link CurrencyDataOutputCounter}. Instances are not
+ * thread safe and are only updated by the thread calling {@link CurrencyProviderTool}.
+ */
+final class CurrencyProviderMetrics {
+
+    /**
+     * The JRE locales used to select default symbols are loaded.
+     */
+    final static String LOCALES = "locales";
+
+    /**
+     * The currency of each selected locale is found.
+     */
+    final static String INDEX = "index";
+
+    /**
+     * The default symbol and symbols of each currency are computed.
+     */
+    final static String RECORDS = "records";
+
+    /**
+     * The header and records are written.
+     */
+    final static String WRITE = "write";
+
+    /**
+     * The number of currencies named in {@link #toString()}.
+     */
+    private final static int LARGEST = 5;
+
+    static CurrencyProviderMetrics empty() {
+        return new CurrencyProviderMetrics();
+    }
+
+    private CurrencyProviderMetrics() {
+        super();
+    }
+
+    /**
+     * Adds the nanos to the total of the phase.
+     */
+    void phase(final String phase,
+               final long nanos) {
+        this.phaseToNanos.merge(phase, nanos, Long::sum);
+    }
+
+    /**
+     * The total nanos of each phase in the order they first ran.
+     */
+    Map<String, Long> phases() {
+        return this.phaseToNanos;
+    }
+
+    private final Map<String, Long> phaseToNanos = Maps.ordered();
+
+    void header(final long bytes) {
+        this.headerBytes += bytes;
+    }
+
+    long headerBytes() {
+        return this.headerBytes;
+    }
+
+    private long headerBytes;
+
+    /**
+     * Records the bytes written for each section of a single currency.
+     */
+    void currency(final String currencyCode,
+                  final int localeCount,
+                  final int symbolCount,
+                  final long attributes,
+                  final long locales,
+                  final long symbols) {
+        this.currencies.add(
+                CurrencyProviderMetricsCurrency.with(currencyCode,
+                        localeCount,
+                        symbolCount,
+                        attributes,
+                        locales,
+                        symbols)
+        );
+    }
+
+    /**
+     * All currencies sorted by their total bytes, largest first.
+     */
+    List<CurrencyProviderMetricsCurrency> largest() {
+        return this.currencies.stream()
+                .sorted(Comparator.comparingLong(CurrencyProviderMetricsCurrency::total).reversed())
+                .collect(Collectors.toList());
+    }
+
+    List<CurrencyProviderMetricsCurrency> currencies() {
+        return this.currencies;
+    }
+
+    private final List<CurrencyProviderMetricsCurrency> currencies = Lists.array();
+
+    /**
+     * True if nothing was measured, which happens when output is replayed from a cache.
+     */
+    boolean isEmpty() {
+        return this.phaseToNanos.isEmpty();
+    }
+
+    /**
+     * The header and all currencies.
+     */
+    long totalBytes() {
+        long total = this.headerBytes;
+        for (final CurrencyProviderMetricsCurrency currency : this.currencies) {
+            total += currency.total();
+        }
+        return total;
+    }
+
+    /**
+     * A machine readable report of everything that was measured.
+     */
+    String toJson() {
+        final StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        json.append("  \"javaVersion\": ").append(quote(System.getProperty("java.version"))).append(",\n");
+
+        json.append("  \"phasesNanos\": {");
+        String separator = "\n";
+        for (final Entry<String, Long> phaseAndNanos : this.phaseToNanos.entrySet()) {
+            json.append(separator)
+                    .append("    ")
+                    .append(quote(phaseAndNanos.getKey()))
+                    .append(": ")
+                    .append(phaseAndNanos.getValue());
+            separator = ",\n";
+        }
+        json.append("\n  },\n");
+
+        json.append("  \"headerBytes\": ").append(this.headerBytes).append(",\n");
+        json.append("  \"totalBytes\": ").append(this.totalBytes()).append(",\n");
+
+        json.append("  \"currencies\": [");
+        separator = "\n";
+        for (final CurrencyProviderMetricsCurrency currency : this.currencies) {
+            json.append(separator)
+                    .append("    {\"currencyCode\": ").append(quote(currency.currencyCode()))
+                    .append(", \"localeCount\": ").append(currency.localeCount())
+                    .append(", \"symbolCount\": ").append(currency.symbolCount())
+                    .append(", \"attributesBytes\": ").append(currency.attributes())
+                    .append(", \"localesBytes\": ").append(currency.locales())
+                    .append(", \"symbolsBytes\": ").append(currency.symbols())
+                    .append(", \"totalBytes\": ").append(currency.total())
+                    .append("}");
+            separator = ",\n";
+        }
+        json.append("\n  ]\n");
+        json.append("}\n");
+
+        return json.toString();
+    }
+
+    private static String quote(final String text) {
+        final StringBuilder quoted = new StringBuilder();
+        quoted.append('"');
+
+        final int length = null == text ? 0 : text.length();
+        for (int i = 0; i < length; i++) {
+            final char c = text.charAt(i);
+            if ('"' == c || '\\' == c) {
+                quoted.append('\\').append(c);
+            } else if (c < ' ') {
+                quoted.append(String.format("\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+        }
+
+        quoted.append('"');
+        return quoted.toString();
+    }
+
+    /**
+     * A one line summary of each phase in milliseconds, the bytes of each section and the largest currencies.
+     */
+    @Override
+    public String toString() {
+        long attributes = 0;
+        long locales = 0;
+        long symbols = 0;
+        for (final CurrencyProviderMetricsCurrency currency : this.currencies) {
+            attributes += currency.attributes();
+            locales += currency.locales();
+            symbols += currency.symbols();
+        }
+
+        return this.phaseToNanos.entrySet()
+                .stream()
+                .map(e -> e.getKey() + " " + TimeUnit.NANOSECONDS.toMillis(e.getValue()) + "ms")
+                .collect(Collectors.joining(", ")) +
+                ", " + this.totalBytes() + " bytes" +
+                " (header " + this.headerBytes +
+                ", attributes " + attributes +
+                ", locales " + locales +
+                ", symbols " + symbols + ")" +
+                ", largest " +
+                this.largest()
+                        .stream()
+                        .limit(LARGEST)
+                        .map(c -> c.currencyCode() + " " + c.total())
+                        .collect(Collectors.joining(", "));
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+/**
+ * The bytes written for each section of a single currency.
+ */
+final class CurrencyProviderMetricsCurrency {
+
+    static CurrencyProviderMetricsCurrency with(final String currencyCode,
+                                                final int localeCount,
+                                                final int symbolCount,
+                                                final long attributes,
+                                                final long locales,
+                                                final long symbols) {
+        return new CurrencyProviderMetricsCurrency(currencyCode,
+                localeCount,
+                symbolCount,
+                attributes,
+                locales,
+                symbols);
+    }
+
+    private CurrencyProviderMetricsCurrency(final String currencyCode,
+                                            final int localeCount,
+                                            final int symbolCount,
+                                            final long attributes,
+                                            final long locales,
+                                            final long symbols) {
+        super();
+        this.currencyCode = currencyCode;
+        this.localeCount = localeCount;
+        this.symbolCount = symbolCount;
+        this.attributes = attributes;
+        this.locales = locales;
+        this.symbols = symbols;
+    }
+
+    String currencyCode() {
+        return this.currencyCode;
+    }
+
+    private final String currencyCode;
+
+    /**
+     * The number of locales that use this currency.
+     */
+    int localeCount() {
+        return this.localeCount;
+    }
+
+    private final int localeCount;
+
+    /**
+     * The number of symbols other than the default symbol.
+     */
+    int symbolCount() {
+        return this.symbolCount;
+    }
+
+    private final int symbolCount;
+
+    /**
+     * The currency code, fraction digits, numeric code and default symbol.
+     */
+    long attributes() {
+        return this.attributes;
+    }
+
+    private final long attributes;
+
+    long locales() {
+        return this.locales;
+    }
+
+    private final long locales;
+
+    long symbols() {
+        return this.symbols;
+    }
+
+    private final long symbols;
+
+    long total() {
+        return this.attributes + this.locales + this.symbols;
+    }
+
+    @Override
+    public String toString() {
+        return this.currencyCode + " " + this.total();
+    }
+}
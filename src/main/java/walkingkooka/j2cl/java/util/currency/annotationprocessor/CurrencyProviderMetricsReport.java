@@ -0,0 +1,63 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import walkingkooka.text.CharSequences;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * The reports of the {@link CurrencyProviderMetrics} of a generate.
+ */
+enum CurrencyProviderMetricsReport {
+
+    /**
+     * A one line summary printed by the Messager as a note.
+     */
+    NOTE,
+
+    /**
+     * A JSON file written beside the generated classes.
+     */
+    JSON;
+
+    /**
+     * Parses a csv of report names, ignoring case. An empty string returns no reports.
+     */
+    static Set<CurrencyProviderMetricsReport> parse(final String reports) {
+        final Set<CurrencyProviderMetricsReport> parsed = EnumSet.noneOf(CurrencyProviderMetricsReport.class);
+
+        for (final String token : reports.split(",")) {
+            final String name = token.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+
+            try {
+                parsed.add(valueOf(name.toUpperCase(Locale.ENGLISH)));
+            } catch (final IllegalArgumentException unknown) {
+                throw new IllegalArgumentException("Unknown metrics report " + CharSequences.quoteAndEscape(name) + " expected one of " + EnumSet.allOf(CurrencyProviderMetricsReport.class));
+            }
+        }
+
+        return Collections.unmodifiableSet(parsed);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.set.SortedSets;
+import walkingkooka.text.CharSequences;
+
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * The order {@link CurrencyRecord records} are written to DATA. Currencies without locales always follow those with
+ * locales, and the order is always stable so the output is deterministic.
+ */
+enum CurrencyProviderRecordOrder {
+
+    /**
+     * Sorted by currency code.
+     */
+    CURRENCY_CODE {
+        @Override
+        String family(final CurrencyRecord record) {
+            return "";
+        }
+    },
+
+    /**
+     * Clusters currencies used by the same languages, so records with similar language tags and symbols sit close
+     * together, which helps gzip and deflate find repeated substrings within their window. Currencies of a family are
+     * sorted by currency code.
+     */
+    LOCALE_FAMILY {
+        @Override
+        String family(final CurrencyRecord record) {
+            final Set<String> languages = SortedSets.tree();
+            for (final Locale locale : record.locales()) {
+                languages.add(CurrencyLocaleGroups.language(locale));
+            }
+            return String.join(",", languages);
+        }
+    };
+
+    /**
+     * Returns the family of the record, records are sorted by family and then currency code.
+     */
+    abstract String family(final CurrencyRecord record);
+
+    /**
+     * Returns a new list of the records in this order.
+     */
+    List<CurrencyRecord> order(final List<CurrencyRecord> records) {
+        final List<CurrencyRecord> ordered = Lists.array();
+        ordered.addAll(records);
+        ordered.sort(
+                Comparator.comparing((CurrencyRecord r) -> r.locales().isEmpty())
+                        .thenComparing(this::family)
+                        .thenComparing(CurrencyRecord::currencyCode)
+        );
+        return ordered;
+    }
+
+    /**
+     * Parses the name of an order ignoring case.
+     */
+    static CurrencyProviderRecordOrder parse(final String order) {
+        try {
+            return valueOf(order.trim().toUpperCase(Locale.ENGLISH));
+        } catch (final IllegalArgumentException unknown) {
+            throw new IllegalArgumentException("Unknown record order " + CharSequences.quoteAndEscape(order) + " expected one of " + EnumSet.allOf(CurrencyProviderRecordOrder.class));
+        }
+    }
+}
@@ -0,0 +1,383 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.collect.set.SortedSets;
+import walkingkooka.text.CharSequences;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * A {@link CurrencyProviderSource} read from a file exported from another {@link CurrencyProviderSource}, so generating
+ * never loads the JRE locale providers and the output is the same for any JRE. The file is memory mapped, the
+ * locales, currencies and symbols are read when loaded, while the matrix of symbol indices of every currency and
+ * locale is read from the mapped file as symbols are requested.
+ * <pre>
+ * magic, version,
+ * locale count, language tags,
+ * currency count, currency code, fraction digits, numeric code for each currency,
+ * currency index or -1 of each locale,
+ * symbol count, symbols,
+ * unsigned short symbol index for each currency and then each locale
+ * </pre>
+ * Strings are written as the byte count followed by the UTF-8 bytes.
+ */
+final class CurrencyProviderSnapshot implements CurrencyProviderSource {
+
+    private final static int MAGIC = 0x43555253;
+
+    /**
+     * Increment when the file format changes.
+     */
+    private final static int VERSION = 1;
+
+    /**
+     * The largest number of symbols, as symbol indices are written as unsigned shorts.
+     */
+    private final static int MAX_SYMBOLS = 0xffff;
+
+    /**
+     * Writes every fact of the {@link CurrencyProviderSource} to the file.
+     */
+    static void export(final CurrencyProviderSource unresolved,
+                       final Path file) throws IOException {
+        final CurrencyProviderSource source = unresolved.resolve();
+
+        // locales are read using their language tag, so locales with the same language tag are only written once
+        final Set<String> languageTags = SortedSets.tree();
+        for (final Locale locale : source.locales()) {
+            languageTags.add(locale.toLanguageTag());
+        }
+
+        final List<Locale> locales = Lists.array();
+        for (final String languageTag : languageTags) {
+            locales.add(Locale.forLanguageTag(languageTag));
+        }
+
+        final List<Currency> currencies = Lists.array();
+        currencies.addAll(source.currencies());
+        currencies.sort(CurrencyProviderTool::compareCurrencyCodes);
+
+        final Map<Currency, Integer> currencyToIndex = Maps.hash();
+        for (final Currency currency : currencies) {
+            currencyToIndex.put(currency, currencyToIndex.size());
+        }
+
+        final List<String> symbols = Lists.array();
+        final Map<String, Integer> symbolToIndex = Maps.hash();
+        final char[] matrix = new char[currencies.size() * locales.size()];
+        int i = 0;
+        for (final Currency currency : currencies) {
+            for (final Locale locale : locales) {
+                final String symbol = source.symbol(currency, locale);
+                Integer index = symbolToIndex.get(symbol);
+                if (null == index) {
+                    index = symbols.size();
+                    if (index >= MAX_SYMBOLS) {
+                        throw new IllegalStateException("Too many symbols > " + MAX_SYMBOLS);
+                    }
+                    symbolToIndex.put(symbol, index);
+                    symbols.add(symbol);
+                }
+                matrix[i++] = (char) index.intValue();
+            }
+        }
+
+        final Path parent = file.toAbsolutePath()
+                .getParent();
+        if (null != parent) {
+            Files.createDirectories(parent);
+        }
+
+        try (final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+
+            output.writeInt(locales.size());
+            for (final Locale locale : locales) {
+                writeString(locale.toLanguageTag(), output);
+            }
+
+            output.writeInt(currencies.size());
+            for (final Currency currency : currencies) {
+                writeString(currency.getCurrencyCode(), output);
+                output.writeInt(source.defaultFractionDigits(currency));
+                output.writeInt(source.numericCode(currency));
+            }
+
+            for (final Locale locale : locales) {
+                final Currency currency = source.currency(locale);
+                output.writeInt(null == currency ? -1 : currencyToIndex.get(currency));
+            }
+
+            output.writeInt(symbols.size());
+            for (final String symbol : symbols) {
+                writeString(symbol, output);
+            }
+
+            for (final char index : matrix) {
+                output.writeChar(index);
+            }
+        }
+    }
+
+    private static void writeString(final String string,
+                                    final DataOutputStream output) throws IOException {
+        final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    /**
+     * Memory maps the file and reads everything except the symbol index matrix, which is only checked to fit the file
+     * and to hold indices of loaded symbols.
+     */
+    static CurrencyProviderSnapshot load(final Path file) throws IOException {
+        final ByteBuffer buffer;
+        try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        final int magic = buffer.getInt();
+        if (MAGIC != magic) {
+            throw new IllegalArgumentException("Invalid snapshot " + file + " magic " + Integer.toHexString(magic));
+        }
+        final int version = buffer.getInt();
+        if (VERSION != version) {
+            throw new IllegalArgumentException("Invalid snapshot " + file + " version " + version + " expected " + VERSION);
+        }
+
+        final int localeCount = buffer.getInt();
+        final Map<Locale, Integer> localeToIndex = Maps.ordered();
+        for (int i = 0; i < localeCount; i++) {
+            localeToIndex.put(Locale.forLanguageTag(readString(buffer)), i);
+        }
+
+        final int currencyCount = buffer.getInt();
+        final Currency[] currencies = new Currency[currencyCount];
+        final Set<Currency> currencySet = Sets.ordered();
+        final int[] defaultFractionDigits = new int[currencyCount];
+        final int[] numericCodes = new int[currencyCount];
+        final Map<String, Integer> codeToIndex = Maps.hash();
+        for (int i = 0; i < currencyCount; i++) {
+            final String currencyCode = readString(buffer);
+            try {
+                currencies[i] = Currency.getInstance(currencyCode);
+            } catch (final IllegalArgumentException unknown) {
+                throw new IllegalArgumentException("Invalid snapshot " + file + " currency " + CharSequences.quoteAndEscape(currencyCode) + " unknown to this JRE");
+            }
+            currencySet.add(currencies[i]);
+            defaultFractionDigits[i] = buffer.getInt();
+            numericCodes[i] = buffer.getInt();
+            codeToIndex.put(currencyCode, i);
+        }
+
+        final int[] localeCurrencies = new int[localeCount];
+        for (int i = 0; i < localeCount; i++) {
+            localeCurrencies[i] = buffer.getInt();
+        }
+
+        final int symbolCount = buffer.getInt();
+        final String[] symbols = new String[symbolCount];
+        for (int i = 0; i < symbolCount; i++) {
+            symbols[i] = readString(buffer);
+        }
+
+        final int matrixOffset = buffer.position();
+        final long matrixEnd = matrixOffset + 2L * currencyCount * localeCount;
+        if (matrixEnd > buffer.limit()) {
+            throw new IllegalArgumentException("Invalid snapshot " + file + " symbol matrix ends at " + matrixEnd + " beyond size " + buffer.limit());
+        }
+        for (int i = matrixOffset; i < matrixEnd; i = i + 2) {
+            final int symbolIndex = buffer.getChar(i);
+            if (symbolIndex >= symbolCount) {
+                throw new IllegalArgumentException("Invalid snapshot " + file + " symbol index " + symbolIndex + " at " + i + " expected < " + symbolCount);
+            }
+        }
+
+        final ByteBuffer all = buffer.duplicate();
+        all.position(0);
+        final CRC32 crc = new CRC32();
+        crc.update(all);
+
+        return new CurrencyProviderSnapshot(file,
+                Long.toHexString(crc.getValue()),
+                Collections.unmodifiableMap(localeToIndex),
+                Collections.unmodifiableSet(currencySet),
+                currencies,
+                defaultFractionDigits,
+                numericCodes,
+                codeToIndex,
+                localeCurrencies,
+                symbols,
+                buffer,
+                matrixOffset);
+    }
+
+    private static String readString(final ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private CurrencyProviderSnapshot(final Path file,
+                                     final String crc,
+                                     final Map<Locale, Integer> localeToIndex,
+                                     final Set<Currency> currencySet,
+                                     final Currency[] currencies,
+                                     final int[] defaultFractionDigits,
+                                     final int[] numericCodes,
+                                     final Map<String, Integer> codeToIndex,
+                                     final int[] localeCurrencies,
+                                     final String[] symbols,
+                                     final ByteBuffer matrix,
+                                     final int matrixOffset) {
+        super();
+        this.file = file;
+        this.crc = crc;
+        this.localeToIndex = localeToIndex;
+        this.currencySet = currencySet;
+        this.currencies = currencies;
+        this.defaultFractionDigits = defaultFractionDigits;
+        this.numericCodes = numericCodes;
+        this.codeToIndex = codeToIndex;
+        this.localeCurrencies = localeCurrencies;
+        this.symbols = symbols;
+        this.matrix = matrix;
+        this.matrixOffset = matrixOffset;
+    }
+
+    @Override
+    public CurrencyProviderSource resolve() {
+        return this;
+    }
+
+    @Override
+    public Set<Locale> locales() {
+        return this.localeToIndex.keySet();
+    }
+
+    @Override
+    public Set<Currency> currencies() {
+        return this.currencySet;
+    }
+
+    @Override
+    public Currency currency(final Locale locale) {
+        final int currency = this.localeCurrencies[this.localeIndex(locale)];
+        return -1 == currency ?
+                null :
+                this.currencies[currency];
+    }
+
+    @Override
+    public Currency currency(final String currencyCode) {
+        final Integer index = this.codeToIndex.get(currencyCode);
+        return null == index ?
+                null :
+                this.currencies[index];
+    }
+
+    @Override
+    public int defaultFractionDigits(final Currency currency) {
+        return this.defaultFractionDigits[this.currencyIndex(currency)];
+    }
+
+    @Override
+    public int numericCode(final Currency currency) {
+        return this.numericCodes[this.currencyIndex(currency)];
+    }
+
+    /**
+     * Reads the symbol index from the mapped matrix, absolute reads never move the position, so many threads may read
+     * symbols at the same time.
+     */
+    @Override
+    public String symbol(final Currency currency,
+                         final Locale locale) {
+        final int cell = this.currencyIndex(currency) * this.localeToIndex.size() + this.localeIndex(locale);
+        return this.symbols[this.matrix.getChar(this.matrixOffset + cell * 2)];
+    }
+
+    private int localeIndex(final Locale locale) {
+        final Integer index = this.localeToIndex.get(locale);
+        if (null == index) {
+            throw new IllegalArgumentException("Locale " + CharSequences.quoteAndEscape(locale.toLanguageTag()) + " missing from snapshot " + this.file);
+        }
+        return index;
+    }
+
+    private int currencyIndex(final Currency currency) {
+        final Integer index = this.codeToIndex.get(currency.getCurrencyCode());
+        if (null == index) {
+            throw new IllegalArgumentException("Currency " + CharSequences.quoteAndEscape(currency.getCurrencyCode()) + " missing from snapshot " + this.file);
+        }
+        return index;
+    }
+
+    private final Path file;
+
+    /**
+     * A CRC32 of the entire file, so a cache never replays output generated from a different snapshot with the same
+     * path.
+     */
+    private final String crc;
+
+    private final Map<Locale, Integer> localeToIndex;
+
+    private final Set<Currency> currencySet;
+
+    private final Currency[] currencies;
+
+    private final int[] defaultFractionDigits;
+
+    private final int[] numericCodes;
+
+    private final Map<String, Integer> codeToIndex;
+
+    private final int[] localeCurrencies;
+
+    private final String[] symbols;
+
+    private final ByteBuffer matrix;
+
+    private final int matrixOffset;
+
+    @Override
+    public String toString() {
+        return "snapshot " + this.file + " " + this.crc;
+    }
+}
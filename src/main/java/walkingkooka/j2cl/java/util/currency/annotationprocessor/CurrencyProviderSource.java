@@ -0,0 +1,64 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import java.util.Currency;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * The currency and locale facts read by {@link CurrencyProviderTool}, either queried from the live JRE or read from a
+ * {@link CurrencyProviderSnapshot}.
+ */
+interface CurrencyProviderSource {
+
+    /**
+     * Returns a source that answers every query of a single generate from the same facts, which may be this source.
+     */
+    CurrencyProviderSource resolve();
+
+    /**
+     * All {@link Locale locales}, used to select the default symbol of each {@link Currency}.
+     */
+    Set<Locale> locales();
+
+    /**
+     * All available {@link Currency currencies}.
+     */
+    Set<Currency> currencies();
+
+    /**
+     * Returns the {@link Currency} of the {@link Locale} or null if it has none.
+     */
+    Currency currency(final Locale locale);
+
+    /**
+     * Returns the {@link Currency} with the currency code or null if it is unknown.
+     */
+    Currency currency(final String currencyCode);
+
+    int defaultFractionDigits(final Currency currency);
+
+    int numericCode(final Currency currency);
+
+    /**
+     * Returns the symbol of the {@link Currency} for the {@link Locale}.
+     */
+    String symbol(final Currency currency,
+                  final Locale locale);
+}
@@ -17,11 +17,11 @@
 
 package walkingkooka.j2cl.java.util.currency.annotationprocessor;
 
+import walkingkooka.collect.list.Lists;
 import walkingkooka.collect.map.Maps;
 import walkingkooka.collect.set.Sets;
 import walkingkooka.collect.set.SortedSets;
 import walkingkooka.j2cl.java.io.string.StringDataInputDataOutput;
-import walkingkooka.j2cl.java.util.locale.support.LocaleSupport;
 import walkingkooka.j2cl.locale.WalkingkookaLanguageTag;
 import walkingkooka.j2cl.locale.annotationprocessor.LocaleAwareAnnotationProcessor;
 import walkingkooka.j2cl.locale.annotationprocessor.LocaleAwareAnnotationProcessorTool;
@@ -32,12 +32,21 @@ import walkingkooka.text.printer.Printers;
 
 import java.io.DataOutput;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Paths;
+import java.util.Comparator;
 import java.util.Currency;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.function.Function;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
@@ -45,11 +54,50 @@ import java.util.stream.Collectors;
  */
 public final class CurrencyProviderTool {
 
+    /**
+     * Without arguments prints the DATA and comments of all locales, otherwise each argument is a profiles file, see
+     * {@link CurrencyProviderBatch}. <pre>--export file</pre> writes a {@link CurrencyProviderSnapshot} of the JRE,
+     * <pre>--snapshot file</pre> selects a snapshot as the source of the following profiles and
+     * <pre>--compression filter</pre> prints the {@link CurrencyProviderCompression} of each record order for the
+     * locale filter.
+     */
     public static void main(final String[] args) throws IOException {
+        if (args.length > 0) {
+            CurrencyProviderToolOptions options = CurrencyProviderToolOptions.DEFAULT
+                    .setParallelism(Runtime.getRuntime().availableProcessors());
+
+            for (int i = 0; i < args.length; i++) {
+                final String arg = args[i];
+                switch (arg) {
+                    case EXPORT:
+                        CurrencyProviderSnapshot.export(options.source(), Paths.get(argument(args, ++i, arg)));
+                        break;
+                    case SNAPSHOT:
+                        options = options.setSource(CurrencyProviderSnapshot.load(Paths.get(argument(args, ++i, arg))));
+                        break;
+                    case COMPRESSION:
+                        for (final CurrencyProviderCompression compression : CurrencyProviderCompression.measure(
+                                WalkingkookaLanguageTag.all(argument(args, ++i, arg)),
+                                Sets.of("XXX"),
+                                options)) {
+                            System.out.println(compression);
+                        }
+                        break;
+                    default:
+                        CurrencyProviderBatch.load(Paths.get(arg))
+                                .run(options, System.out::println);
+                        break;
+                }
+            }
+            return;
+        }
+
         try (final Printer printer = Printers.sysOut()) {
             final StringBuilder data = new StringBuilder();
             generate(WalkingkookaLanguageTag.all("*"),
                     Sets.of("XXX"),
+                    CurrencyProviderToolOptions.DEFAULT
+                            .setParallelism(Runtime.getRuntime().availableProcessors()),
                     StringDataInputDataOutput.output(data::append),
                     LocaleAwareAnnotationProcessor.comments(printer));
             printer.print(CharSequences.quoteAndEscape(data));
@@ -57,248 +105,468 @@ public final class CurrencyProviderTool {
         }
     }
 
-    static void generate(final Set<String> languageTags,
-                         final Set<String> currencyCodes,
-                         final DataOutput data,
-                         final IndentingPrinter comments) throws IOException {
-        generate0(languageTags.stream()
-                        .map(Locale::forLanguageTag)
-                        .collect(Collectors.toCollection(Sets::ordered)),
+    private final static String EXPORT = "--export";
+
+    private final static String SNAPSHOT = "--snapshot";
+
+    private final static String COMPRESSION = "--compression";
+
+    private static String argument(final String[] args,
+                                   final int i,
+                                   final String option) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException("Missing argument after " + option);
+        }
+        return args[i];
+    }
+
+    static CurrencySelection generate(final Set<String> languageTags,
+                                      final Set<String> currencyCodes,
+                                      final DataOutput data,
+                                      final IndentingPrinter comments) throws IOException {
+        return generate(languageTags,
                 currencyCodes,
+                CurrencyProviderToolOptions.DEFAULT,
                 data,
                 comments);
     }
 
-    static void generate0(final Set<Locale> locales,
-                          final Set<String> currencyCodes,
-                          final DataOutput data,
-                          final IndentingPrinter comments) throws IOException {
-        data.writeInt(currencyToLocale(locales, Sets.hash()).size() + currencyCodes.size());
-
-        generate1(locales,
+    /**
+     * Generates a record for each currency of the given language tags that passes
+     * {@link CurrencyProviderToolOptions#currenciesWithLocales()}, followed by a record for each of the currency codes.
+     */
+    static CurrencySelection generate(final Set<String> languageTags,
+                                      final Set<String> currencyCodes,
+                                      final CurrencyProviderToolOptions options,
+                                      final DataOutput data,
+                                      final IndentingPrinter comments) throws IOException {
+        return generate(languageTags,
                 currencyCodes,
+                options,
                 data,
+                CurrencyProviderTool::shardsUnsupported,
                 comments);
     }
 
-    private static void generate1(final Set<Locale> locales,
-                                  final Set<String> currencyCodes,
-                                  final DataOutput data,
-                                  final IndentingPrinter comments) throws IOException {
-        final Set<Currency> ignore = Sets.ordered();
-        generateCurrenciesWithLocales(locales, ignore, data, comments);
-        generateCurrenciesWithoutLocales(currencyCodes, locales, ignore, data, comments);
+    private static void shardsUnsupported(final String currencyCode,
+                                          final String data) {
+        throw new IllegalArgumentException("Feature " + CurrencyProviderFeature.SHARDS + " requires a shard sink");
     }
 
-    private static void generateCurrenciesWithLocales(final Set<Locale> locales,
-                                                      final Set<Currency> ignore,
-                                                      final DataOutput data,
-                                                      final IndentingPrinter comments) {
-        final Map<Currency, Set<Locale>> currencyToLocales = currencyToLocale(locales, ignore);
-        currencyToLocales.forEach((c, l) -> generateCurrenciesWithLocales(c, locales, data, comments));
+    /**
+     * Generates a record for each currency of the given language tags that passes
+     * {@link CurrencyProviderToolOptions#currenciesWithLocales()}, followed by a record for each of the currency codes.
+     * When {@link CurrencyProviderFeature#SHARDS} is selected the shard of each currency is given to the
+     * {@link CurrencyShardSink}.
+     */
+    static CurrencySelection generate(final Set<String> languageTags,
+                                      final Set<String> currencyCodes,
+                                      final CurrencyProviderToolOptions options,
+                                      final DataOutput data,
+                                      final CurrencyShardSink shards,
+                                      final IndentingPrinter comments) throws IOException {
+        return generate0(languageTags.stream()
+                        .map(Locale::forLanguageTag)
+                        .collect(Collectors.toCollection(() -> SortedSets.tree(LocaleAwareAnnotationProcessorTool.LOCALE_COMPARATOR))),
+                currencyCodes,
+                options,
+                data,
+                shards,
+                comments);
     }
 
-    private static Map<Currency, Set<Locale>> currencyToLocale(final Set<Locale> locales,
-                                                               final Set<Currency> ignore) {
-        final Map<Currency, Set<Locale>> currencyToLocales = Maps.sorted(CurrencyProviderTool::compareCurrencyCodes);
+    static CurrencySelection generate0(final Set<Locale> locales,
+                                       final Set<String> currencyCodes,
+                                       final CurrencyProviderToolOptions options,
+                                       final DataOutput data,
+                                       final CurrencyShardSink shards,
+                                       final IndentingPrinter comments) throws IOException {
+        final long start = System.nanoTime();
+        final CurrencySymbolTable symbols = CurrencySymbolTable.with(options.source());
+        phase(CurrencyProviderMetrics.LOCALES,
+                start,
+                options.metrics()
+                        .orElse(null)
+        );
+
+        return generate0(locales,
+                currencyCodes,
+                options,
+                symbols,
+                data,
+                shards,
+                comments);
+    }
 
-        for (final Locale locale : locales) {
-            try {
-                final Currency currency = Currency.getInstance(locale);
-                Set<Locale> localesForCurrency = currencyToLocales.get(currency);
-                if (null == localesForCurrency) {
-                    localesForCurrency = Sets.ordered();
-                    currencyToLocales.put(currency, localesForCurrency);
-                }
-                if (ignore.contains(currency)) {
-                    continue;
-                }
-                localesForCurrency.add(locale);
-                ignore.add(currency);
-            } catch (final Exception unsupported) {
-                // locale doesnt have a currency skip it.
-            }
-        }
+    /**
+     * Returns the given language tags that are also the language tag of a {@link Locale} of the
+     * {@link CurrencyProviderSource}, in the same order.
+     */
+    static Set<String> languageTags(final Set<String> languageTags,
+                                    final CurrencyProviderSource source) {
+        final Set<String> sourceLanguageTags = languageTags(source);
 
-        return currencyToLocales;
+        return languageTags.stream()
+                .filter(t -> sourceLanguageTags.contains(Locale.forLanguageTag(t).toLanguageTag()))
+                .collect(Collectors.toCollection(Sets::ordered));
     }
 
     /**
-     * Comparator used to sort by {@link Currency#getCurrencyCode()}
+     * The language tag of every {@link Locale} of the {@link CurrencyProviderSource}.
      */
-    private static int compareCurrencyCodes(final Currency left, final Currency right) {
-        return left.getCurrencyCode().compareTo(right.getCurrencyCode());
+    private static Set<String> languageTags(final CurrencyProviderSource source) {
+        return source.locales()
+                .stream()
+                .map(Locale::toLanguageTag)
+                .collect(Collectors.toCollection(Sets::hash));
     }
 
-    private static void generateCurrenciesWithLocales(final Currency currency,
-                                                      final Set<Locale> filteredLocales,
-                                                      final DataOutput data,
-                                                      final IndentingPrinter comments) {
-        try {
-            generateCurrenciesWithLocales0(currency,
-                    filteredLocales,
-                    data,
-                    comments);
-        } catch (final IOException cause) {
-            throw new RuntimeException(cause);
+    /**
+     * Generates using the given {@link CurrencySymbolTable}, which may be shared by several generates, so each symbol
+     * of a currency and locale is only resolved once. The locales and currency codes are sorted first, so the output
+     * never depends on the order they were given or enumerated. Locales absent from the {@link CurrencyProviderSource}
+     * are skipped, so a snapshot gives the same DATA on any JRE, even one with more locales.
+     */
+    static CurrencySelection generate0(final Set<Locale> unsortedLocales,
+                                       final Set<String> unsortedCurrencyCodes,
+                                       final CurrencyProviderToolOptions options,
+                                       final CurrencySymbolTable symbols,
+                                       final DataOutput data,
+                                       final CurrencyShardSink shards,
+                                       final IndentingPrinter comments) throws IOException {
+        final Set<String> sourceLanguageTags = languageTags(symbols.source());
+        final Set<Locale> locales = SortedSets.tree(LocaleAwareAnnotationProcessorTool.LOCALE_COMPARATOR);
+        for (final Locale locale : unsortedLocales) {
+            if (sourceLanguageTags.contains(locale.toLanguageTag())) {
+                locales.add(locale);
+            }
         }
-    }
 
-    private static void generateCurrenciesWithLocales0(final Currency currency,
-                                                       final Set<Locale> filteredLocales,
-                                                       final DataOutput data,
-                                                       final IndentingPrinter comments) throws IOException {
-        final String defaultSymbol = defaultSymbol(currency);
+        final Set<String> currencyCodes = SortedSets.tree();
+        currencyCodes.addAll(unsortedCurrencyCodes);
 
-        generateCurrencyCode(currency, data, comments);
+        final CurrencyProviderMetrics metrics = options.metrics()
+                .orElse(null);
 
-        comments.indent();
-        {
-            generateCurrencyAttributes(currency,
-                    defaultSymbol,
-                    data,
-                    comments);
+        long start = System.nanoTime();
+        final CurrencyLocaleIndex index = CurrencyLocaleIndex.with(locales, symbols.source());
+        final Predicate<Currency> currenciesWithLocales = options.currenciesWithLocales();
 
-            final Set<Locale> locales = SortedSets.tree(LocaleAwareAnnotationProcessorTool.LOCALE_COMPARATOR);
+        final Map<Currency, Set<Locale>> withLocales = Maps.sorted(CurrencyProviderTool::compareCurrencyCodes);
+        int localesKept = 0;
+        int localesPruned = 0;
 
-            for (final Locale possible : filteredLocales) {
-                try {
-                    final Currency possibleCurrency = Currency.getInstance(possible);
-                    if (currency.getCurrencyCode().equals(possibleCurrency.getCurrencyCode())) {
-                        locales.add(possible);
-                    }
-                } catch (final Exception ignore) {
-                    // ignore
-                }
+        for (final Entry<Currency, Set<Locale>> currencyAndLocales : index.currencyToLocales().entrySet()) {
+            final Currency currency = currencyAndLocales.getKey();
+            final Set<Locale> localesForCurrency = currencyAndLocales.getValue();
+
+            if (currenciesWithLocales.test(currency)) {
+                withLocales.put(currency, localesForCurrency);
+                localesKept += localesForCurrency.size();
+            } else {
+                localesPruned += localesForCurrency.size();
             }
+        }
 
-            LocaleSupport.generateLocales(locales, data, comments);
+        final Set<Currency> withoutLocales = currenciesWithoutLocales(currencyCodes, index, symbols.source());
+        start = phase(CurrencyProviderMetrics.INDEX, start, metrics);
 
-            final Map<String, Set<Locale>> symbolToLocales = buildSymbolToLocales(currency, filteredLocales);
-            symbolToLocales.remove(defaultSymbol);
-            generateSymbolsToLocales(symbolToLocales, data, comments);
-        }
-        comments.outdent();
+        final List<CurrencyRecord> records = options.recordOrder()
+                .order(
+                        records(locales,
+                                withLocales,
+                                withoutLocales,
+                                symbols,
+                                options.parallelism())
+                );
+        start = phase(CurrencyProviderMetrics.RECORDS, start, metrics);
+
+        generate1(locales,
+                records,
+                options,
+                data,
+                shards,
+                comments);
+        phase(CurrencyProviderMetrics.WRITE, start, metrics);
 
-        comments.lineStart();
-        comments.print(comments.lineEnding());
+        return CurrencySelection.with(records.size(),
+                index.currencyToLocales().size() - withLocales.size(),
+                localesKept,
+                localesPruned);
     }
 
     /**
-     * Finds the default symbol for a {@link Currency} which seems to be the most popular symbol for all JRE locales.
+     * Records the time since start of the phase if metrics are present, returning the start of the next phase.
      */
-    private static String defaultSymbol(final Currency currency) {
-        String most = null;
-        int mostCount = -1;
-
-        for (final Entry<String, Set<Locale>> symbolAndLocales : buildSymbolToLocales(currency, WalkingkookaLanguageTag.locales()).entrySet()) {
-            final int count = symbolAndLocales.getValue().size();
-            if (count > mostCount) {
-                mostCount = count;
-                most = symbolAndLocales.getKey();
-            }
+    private static long phase(final String phase,
+                              final long start,
+                              final CurrencyProviderMetrics metrics) {
+        final long end = System.nanoTime();
+        if (null != metrics) {
+            metrics.phase(phase, end - start);
         }
-
-        return most;
+        return end;
     }
 
-    private static void generateCurrenciesWithoutLocales(final Set<String> currencyCodes,
-                                                         final Set<Locale> locales,
-                                                         final Set<Currency> ignore,
-                                                         final DataOutput data,
-                                                         final IndentingPrinter comments) throws IOException {
+    /**
+     * Returns the {@link Currency} for each of the given currency codes sorted by currency code, skipping unknown codes
+     * and those already present in the {@link CurrencyLocaleIndex}.
+     */
+    private static Set<Currency> currenciesWithoutLocales(final Set<String> currencyCodes,
+                                                          final CurrencyLocaleIndex index,
+                                                          final CurrencyProviderSource source) {
+        final Set<Currency> currencies = SortedSets.tree(CurrencyProviderTool::compareCurrencyCodes);
+
         for (final String currencyCode : currencyCodes) {
-            try {
-                final Currency currency = Currency.getInstance(currencyCode);
+            final Currency currency = source.currency(currencyCode);
 
-                // dont output $currency if it has already been consumed
-                if (ignore.add(currency)) {
-                    generateCurrencyWithoutLocales0(currency, locales, data, comments);
-                }
-            } catch (final Exception unsupported) {
+            // dont output $currency if it has already been consumed
+            if (null != currency && false == index.contains(currency)) {
+                currencies.add(currency);
             }
         }
+
+        return currencies;
     }
 
-    private static void generateCurrencyWithoutLocales0(final Currency currency,
-                                                        final Set<Locale> locales,
-                                                        final DataOutput data,
-                                                        final IndentingPrinter comments) throws IOException {
-        final String currencyCode = currency.getCurrencyCode();
+    /**
+     * Computes a {@link CurrencyRecord} for each currency with locales sorted by currency code, followed by the
+     * currencies without locales. Records are independent of each other, and when the parallelism is greater than one
+     * they are computed concurrently, the returned list is always in the same order.
+     */
+    private static List<CurrencyRecord> records(final Set<Locale> locales,
+                                                final Map<Currency, Set<Locale>> withLocales,
+                                                final Set<Currency> withoutLocales,
+                                                final CurrencySymbolTable symbols,
+                                                final int parallelism) throws IOException {
+        final List<Callable<CurrencyRecord>> tasks = Lists.array();
+
+        for (final Entry<Currency, Set<Locale>> currencyAndLocales : withLocales.entrySet()) {
+            tasks.add(() -> CurrencyRecord.withLocales(currencyAndLocales.getKey(),
+                    currencyAndLocales.getValue(),
+                    locales,
+                    symbols)
+            );
+        }
 
-        generateCurrencyCode(currency,
-                data,
-                comments);
-        comments.indent();
-        {
-            generateCurrencyAttributes(currency,
-                    currencyCode,
-                    data,
-                    comments);
+        for (final Currency currency : withoutLocales) {
+            tasks.add(() -> CurrencyRecord.withoutLocales(currency,
+                    locales,
+                    symbols)
+            );
+        }
+
+        return parallelism > 1 && tasks.size() > 1 ?
+                recordsParallel(tasks, parallelism) :
+                recordsSequential(tasks);
+    }
 
-            LocaleSupport.generateLocales(Sets.empty(), data, comments);
+    private static List<CurrencyRecord> recordsSequential(final List<Callable<CurrencyRecord>> tasks) {
+        final List<CurrencyRecord> records = Lists.array();
 
-            final Map<String, Set<Locale>> symbolToLocales = buildSymbolToLocales(currency, locales);
-            symbolToLocales.remove(currencyCode);
-            generateSymbolsToLocales(symbolToLocales, data, comments);
+        for (final Callable<CurrencyRecord> task : tasks) {
+            try {
+                records.add(task.call());
+            } catch (final RuntimeException cause) {
+                throw cause;
+            } catch (final Exception cause) {
+                throw new IllegalStateException(cause.getMessage(), cause);
+            }
         }
-        comments.outdent();
-        comments.lineStart();
-        comments.print(comments.lineEnding());
+
+        return records;
     }
 
-    private static Map<String, Set<Locale>> buildSymbolToLocales(final Currency currency,
-                                                                 final Set<Locale> locales) {
-        return LocaleAwareAnnotationProcessorTool.buildMultiLocaleMap(localeToSymbol(currency), locales);
+    private static List<CurrencyRecord> recordsParallel(final List<Callable<CurrencyRecord>> tasks,
+                                                        final int parallelism) throws IOException {
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, tasks.size()),
+                CurrencyProviderTool::thread);
+        try {
+            final List<CurrencyRecord> records = Lists.array();
+
+            for (final Future<CurrencyRecord> future : executor.invokeAll(tasks)) {
+                records.add(future.get());
+            }
+
+            return records;
+        } catch (final InterruptedException cause) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while computing currency records");
+        } catch (final ExecutionException cause) {
+            final Throwable wrapped = cause.getCause();
+            if (wrapped instanceof RuntimeException) {
+                throw (RuntimeException) wrapped;
+            }
+            throw new IllegalStateException(wrapped.getMessage(), wrapped);
+        } finally {
+            executor.shutdownNow();
+        }
     }
 
-    private static Function<Locale, String> localeToSymbol(final Currency currency) {
-        return l -> currency.getSymbol(l);
+    /**
+     * Daemon threads so a failed generate never keeps the compiler alive.
+     */
+    private static Thread thread(final Runnable runnable) {
+        final Thread thread = new Thread(runnable, CurrencyProviderTool.class.getSimpleName());
+        thread.setDaemon(true);
+        return thread;
     }
 
-    private static void generateCurrencyCode(final Currency currency,
-                                             final DataOutput data,
-                                             final IndentingPrinter comments) throws IOException {
-        final String currencyCode = currency.getCurrencyCode();
-        comments.lineStart();
-        comments.print("currencyCode=" + currencyCode);
-        data.writeUTF(currencyCode);
+    /**
+     * Comparator used to sort by {@link Currency#getCurrencyCode()}
+     */
+    static int compareCurrencyCodes(final Currency left, final Currency right) {
+        return left.getCurrencyCode().compareTo(right.getCurrencyCode());
     }
 
-    private static void generateCurrencyAttributes(final Currency currency,
-                                                   final String defaultSymbol,
-                                                   final DataOutput data,
-                                                   final IndentingPrinter comments) throws IOException {
-        final int defaultFractionDigits = currency.getDefaultFractionDigits();
-        comments.lineStart();
-        comments.print("defaultFractionDigits=" + defaultFractionDigits);
-        data.writeInt(defaultFractionDigits);
-
-        final int numericCode = currency.getNumericCode();
-        comments.lineStart();
-        comments.print("numericCode=" + numericCode);
-        data.writeInt(numericCode);
-
-        comments.lineStart();
-        comments.print("defaultSymbol=" + defaultSymbol);
-        data.writeUTF(defaultSymbol);
+    private static void generate1(final Set<Locale> locales,
+                                  final List<CurrencyRecord> records,
+                                  final CurrencyProviderToolOptions options,
+                                  final DataOutput data,
+                                  final CurrencyShardSink shards,
+                                  final IndentingPrinter comments) throws IOException {
+        final CurrencyRecordWriter writer = CurrencyRecordWriter.with(records, locales, options);
+
+        final CurrencyDataOutputCounter header = CurrencyDataOutputCounter.with(data);
+        writer.writeHeader(header);
+
+        final DataOutput headerOutput = writer.output(header);
+        headerOutput.writeInt(records.size());
+
+        final boolean columns = options.has(CurrencyProviderFeature.LOOKUP_COLUMNS);
+        if (columns) {
+            writeLookupColumns(records, headerOutput);
+        }
+        if (options.has(CurrencyProviderFeature.LOCALE_HASH)) {
+            localeHash(records).write(headerOutput);
+        }
+
+        final boolean sharded = options.has(CurrencyProviderFeature.SHARDS);
+
+        if (options.has(CurrencyProviderFeature.OFFSET_TABLE)) {
+            // records follow the offset table in DATA, so each is recorded while measuring its text form and replayed after
+            final StringBuilder text = new StringBuilder();
+            final DataOutput textOutput = StringDataInputDataOutput.output(text::append);
+            textOutput.writeInt(0);
+
+            // offsets start at the first value of the first record, skipping the comma before each record
+            final int recordsStart = text.length() + 1;
+            final List<byte[]> recordings = Lists.array();
+            final Map<String, Integer> codeToOffset = Maps.sorted();
+            final Map<String, Integer> codeToLength = Maps.hash();
+
+            for (final CurrencyRecord record : records) {
+                final int offset = text.length() + 1 - recordsStart;
+                final CurrencyDataOutputRecorder recorder = CurrencyDataOutputRecorder.with(textOutput);
+                writeRecord(writer,
+                        record,
+                        recorder,
+                        sharded,
+                        shards,
+                        comments);
+                recordings.add(recorder.recording());
+
+                final String currencyCode = record.currencyCode();
+                codeToOffset.put(currencyCode, offset);
+                codeToLength.put(currencyCode, text.length() - recordsStart - offset);
+            }
+
+            for (final Entry<String, Integer> codeAndOffset : codeToOffset.entrySet()) {
+                final String currencyCode = codeAndOffset.getKey();
+                if (false == columns) {
+                    headerOutput.writeUTF(currencyCode);
+                }
+                headerOutput.writeInt(codeAndOffset.getValue());
+                headerOutput.writeInt(codeToLength.get(currencyCode));
+            }
+
+            options.metrics()
+                    .ifPresent(m -> m.header(header.bytes()));
+
+            for (final byte[] recording : recordings) {
+                CurrencyDataOutputRecorder.replay(recording, data);
+            }
+        } else {
+            options.metrics()
+                    .ifPresent(m -> m.header(header.bytes()));
+
+            for (final CurrencyRecord record : records) {
+                writeRecord(writer,
+                        record,
+                        data,
+                        sharded,
+                        shards,
+                        comments);
+            }
+        }
     }
 
     /**
-     * For each symbol to locale, write the symbol and then a csv string of locales.
+     * Writes the currency codes, numeric codes and fraction digits of the records sorted by currency code, so they may
+     * be binary searched, followed by the indices of the records sorted by numeric code.
      */
-    private static void generateSymbolsToLocales(final Map<String, Set<Locale>> symbolToLocales,
-                                                 final DataOutput data,
-                                                 final IndentingPrinter comments) throws IOException {
-        data.writeInt(symbolToLocales.size());
+    private static void writeLookupColumns(final List<CurrencyRecord> records,
+                                           final DataOutput data) throws IOException {
+        final List<CurrencyRecord> sorted = Lists.array();
+        sorted.addAll(records);
+        sorted.sort(Comparator.comparing(CurrencyRecord::currencyCode));
+
+        for (final CurrencyRecord record : sorted) {
+            data.writeUTF(record.currencyCode());
+        }
+        for (final CurrencyRecord record : sorted) {
+            data.writeInt(record.numericCode());
+        }
+        for (final CurrencyRecord record : sorted) {
+            data.writeInt(record.defaultFractionDigits());
+        }
 
-        for (final Entry<String, Set<Locale>> symbolAndLocales : symbolToLocales.entrySet()) {
-            final String symbol = symbolAndLocales.getKey();
-            data.writeUTF(symbol);
+        final List<Integer> numericOrder = Lists.array();
+        for (int i = 0; i < sorted.size(); i++) {
+            numericOrder.add(i);
+        }
+        numericOrder.sort(Comparator.comparingInt((Integer i) -> sorted.get(i).numericCode())
+                .thenComparing(Comparator.naturalOrder()));
 
-            LocaleSupport.generateLocales(symbolAndLocales.getValue(),
+        for (final Integer index : numericOrder) {
+            data.writeInt(index);
+        }
+    }
+
+    /**
+     * Builds a {@link CurrencyLocaleHash} of the language tag of every locale of each record to the index of the record.
+     */
+    private static CurrencyLocaleHash localeHash(final List<CurrencyRecord> records) {
+        final Map<String, Integer> languageTagToIndex = Maps.sorted();
+
+        for (int i = 0; i < records.size(); i++) {
+            for (final Locale locale : records.get(i).locales()) {
+                languageTagToIndex.put(locale.toLanguageTag(), i);
+            }
+        }
+
+        return CurrencyLocaleHash.with(languageTagToIndex);
+    }
+
+    /**
+     * Writes a single record, with its symbols written to a new shard when sharded.
+     */
+    private static void writeRecord(final CurrencyRecordWriter writer,
+                                    final CurrencyRecord record,
+                                    final DataOutput data,
+                                    final boolean sharded,
+                                    final CurrencyShardSink shards,
+                                    final IndentingPrinter comments) throws IOException {
+        if (sharded) {
+            final StringBuilder shard = new StringBuilder();
+            writer.write(record,
+                    data,
+                    StringDataInputDataOutput.output(shard::append),
+                    comments);
+            shards.shard(record.currencyCode(), shard.toString());
+        } else {
+            writer.write(record,
                     data,
-                    symbol,
                     comments);
         }
     }
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import java.util.Collections;
+import java.util.Currency;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Immutable options that control which currencies {@link CurrencyProviderTool} generates and how they are written.
+ */
+final class CurrencyProviderToolOptions {
+
+    /**
+     * Keeps all currencies with locales and writes the unversioned format.
+     */
+    final static CurrencyProviderToolOptions DEFAULT = new CurrencyProviderToolOptions(
+            (c) -> true,
+            Collections.unmodifiableSet(EnumSet.noneOf(CurrencyProviderFeature.class)),
+            1,
+            CurrencyProviderCommentLevel.FULL,
+            Optional.empty(),
+            CurrencyProviderJreSource.INSTANCE,
+            CurrencyProviderRecordOrder.CURRENCY_CODE
+    );
+
+    private CurrencyProviderToolOptions(final Predicate<Currency> currenciesWithLocales,
+                                        final Set<CurrencyProviderFeature> features,
+                                        final int parallelism,
+                                        final CurrencyProviderCommentLevel commentLevel,
+                                        final Optional<CurrencyProviderMetrics> metrics,
+                                        final CurrencyProviderSource source,
+                                        final CurrencyProviderRecordOrder recordOrder) {
+        super();
+        this.currenciesWithLocales = currenciesWithLocales;
+        this.features = features;
+        this.parallelism = parallelism;
+        this.commentLevel = commentLevel;
+        this.metrics = metrics;
+        this.source = source;
+        this.recordOrder = recordOrder;
+    }
+
+    /**
+     * Filters the currencies used by at least one selected locale.
+     */
+    Predicate<Currency> currenciesWithLocales() {
+        return this.currenciesWithLocales;
+    }
+
+    CurrencyProviderToolOptions setCurrenciesWithLocales(final Predicate<Currency> currenciesWithLocales) {
+        Objects.requireNonNull(currenciesWithLocales, "currenciesWithLocales");
+
+        return this.currenciesWithLocales.equals(currenciesWithLocales) ?
+                this :
+                new CurrencyProviderToolOptions(currenciesWithLocales,
+                        this.features,
+                        this.parallelism,
+                        this.commentLevel,
+                        this.metrics,
+                        this.source,
+                        this.recordOrder);
+    }
+
+    private final Predicate<Currency> currenciesWithLocales;
+
+    /**
+     * The {@link CurrencyProviderFeature features} of the format, empty selects the unversioned format.
+     */
+    Set<CurrencyProviderFeature> features() {
+        return this.features;
+    }
+
+    boolean has(final CurrencyProviderFeature feature) {
+        return this.features.contains(feature);
+    }
+
+    CurrencyProviderToolOptions setFeatures(final Set<CurrencyProviderFeature> features) {
+        Objects.requireNonNull(features, "features");
+
+        final Set<CurrencyProviderFeature> copy = EnumSet.noneOf(CurrencyProviderFeature.class);
+        copy.addAll(features);
+
+        if (copy.contains(CurrencyProviderFeature.STRING_TABLE) && copy.contains(CurrencyProviderFeature.SYMBOL_POOL)) {
+            throw new IllegalArgumentException("Features " + CurrencyProviderFeature.STRING_TABLE + " and " + CurrencyProviderFeature.SYMBOL_POOL + " cannot both be selected");
+        }
+
+        return this.features.equals(copy) ?
+                this :
+                new CurrencyProviderToolOptions(this.currenciesWithLocales,
+                        Collections.unmodifiableSet(copy),
+                        this.parallelism,
+                        this.commentLevel,
+                        this.metrics,
+                        this.source,
+                        this.recordOrder);
+    }
+
+    private final Set<CurrencyProviderFeature> features;
+
+    /**
+     * The number of threads that compute {@link CurrencyRecord records}, records are always written in the same order
+     * so the output is identical for any parallelism.
+     */
+    int parallelism() {
+        return this.parallelism;
+    }
+
+    CurrencyProviderToolOptions setParallelism(final int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Invalid parallelism " + parallelism + " < 1");
+        }
+
+        return this.parallelism == parallelism ?
+                this :
+                new CurrencyProviderToolOptions(this.currenciesWithLocales,
+                        this.features,
+                        parallelism,
+                        this.commentLevel,
+                        this.metrics,
+                        this.source,
+                        this.recordOrder);
+    }
+
+    private final int parallelism;
+
+    /**
+     * How much of each record is printed to the comments.
+     */
+    CurrencyProviderCommentLevel commentLevel() {
+        return this.commentLevel;
+    }
+
+    CurrencyProviderToolOptions setCommentLevel(final CurrencyProviderCommentLevel commentLevel) {
+        Objects.requireNonNull(commentLevel, "commentLevel");
+
+        return this.commentLevel == commentLevel ?
+                this :
+                new CurrencyProviderToolOptions(this.currenciesWithLocales,
+                        this.features,
+                        this.parallelism,
+                        commentLevel,
+                        this.metrics,
+                        this.source,
+                        this.recordOrder);
+    }
+
+    private final CurrencyProviderCommentLevel commentLevel;
+
+    /**
+     * When present receives the time of each phase and the bytes of each record.
+     */
+    Optional<CurrencyProviderMetrics> metrics() {
+        return this.metrics;
+    }
+
+    CurrencyProviderToolOptions setMetrics(final Optional<CurrencyProviderMetrics> metrics) {
+        Objects.requireNonNull(metrics, "metrics");
+
+        return this.metrics.equals(metrics) ?
+                this :
+                new CurrencyProviderToolOptions(this.currenciesWithLocales,
+                        this.features,
+                        this.parallelism,
+                        this.commentLevel,
+                        metrics,
+                        this.source,
+                        this.recordOrder);
+    }
+
+    private final Optional<CurrencyProviderMetrics> metrics;
+
+    /**
+     * The {@link CurrencyProviderSource} of every currency and locale fact, defaults to the live JRE.
+     */
+    CurrencyProviderSource source() {
+        return this.source;
+    }
+
+    CurrencyProviderToolOptions setSource(final CurrencyProviderSource source) {
+        Objects.requireNonNull(source, "source");
+
+        return this.source.equals(source) ?
+                this :
+                new CurrencyProviderToolOptions(this.currenciesWithLocales,
+                        this.features,
+                        this.parallelism,
+                        this.commentLevel,
+                        this.metrics,
+                        source,
+                        this.recordOrder);
+    }
+
+    private final CurrencyProviderSource source;
+
+    /**
+     * The order records are written, defaults to {@link CurrencyProviderRecordOrder#CURRENCY_CODE}.
+     */
+    CurrencyProviderRecordOrder recordOrder() {
+        return this.recordOrder;
+    }
+
+    CurrencyProviderToolOptions setRecordOrder(final CurrencyProviderRecordOrder recordOrder) {
+        Objects.requireNonNull(recordOrder, "recordOrder");
+
+        return this.recordOrder == recordOrder ?
+                this :
+                new CurrencyProviderToolOptions(this.currenciesWithLocales,
+                        this.features,
+                        this.parallelism,
+                        this.commentLevel,
+                        this.metrics,
+                        this.source,
+                        recordOrder);
+    }
+
+    private final CurrencyProviderRecordOrder recordOrder;
+
+    @Override
+    public String toString() {
+        return "features=" + this.features + " parallelism=" + this.parallelism + " comments=" + this.commentLevel + " source=" + this.source + " order=" + this.recordOrder;
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import walkingkooka.collect.set.Sets;
+
+import java.util.Collections;
+import java.util.Currency;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * All the values written for a single currency, computed before anything is written.
+ */
+final class CurrencyRecord {
+
+    /**
+     * Creates a record for a {@link Currency} used by one or more of the selected locales. The default symbol is the
+     * most popular symbol for all JRE locales.
+     */
+    static CurrencyRecord withLocales(final Currency currency,
+                                      final Set<Locale> locales,
+                                      final Set<Locale> filteredLocales,
+                                      final CurrencySymbolTable symbols) {
+        return with(currency,
+                symbols.defaultSymbol(currency),
+                locales,
+                filteredLocales,
+                symbols);
+    }
+
+    /**
+     * Creates a record for a {@link Currency} not used by any of the selected locales, its currency code is also its
+     * default symbol.
+     */
+    static CurrencyRecord withoutLocales(final Currency currency,
+                                         final Set<Locale> filteredLocales,
+                                         final CurrencySymbolTable symbols) {
+        return with(currency,
+                currency.getCurrencyCode(),
+                Sets.empty(),
+                filteredLocales,
+                symbols);
+    }
+
+    private static CurrencyRecord with(final Currency currency,
+                                       final String defaultSymbol,
+                                       final Set<Locale> locales,
+                                       final Set<Locale> filteredLocales,
+                                       final CurrencySymbolTable symbols) {
+        final Map<String, Set<Locale>> symbolToLocales = symbols.symbolToLocales(currency, filteredLocales);
+        symbolToLocales.remove(defaultSymbol);
+
+        final CurrencyProviderSource source = symbols.source();
+        return new CurrencyRecord(currency.getCurrencyCode(),
+                source.defaultFractionDigits(currency),
+                source.numericCode(currency),
+                defaultSymbol,
+                locales,
+                Collections.unmodifiableMap(symbolToLocales));
+    }
+
+    private CurrencyRecord(final String currencyCode,
+                           final int defaultFractionDigits,
+                           final int numericCode,
+                           final String defaultSymbol,
+                           final Set<Locale> locales,
+                           final Map<String, Set<Locale>> symbolToLocales) {
+        super();
+        this.currencyCode = currencyCode;
+        this.defaultFractionDigits = defaultFractionDigits;
+        this.numericCode = numericCode;
+        this.defaultSymbol = defaultSymbol;
+        this.locales = locales;
+        this.symbolToLocales = symbolToLocales;
+    }
+
+    String currencyCode() {
+        return this.currencyCode;
+    }
+
+    private final String currencyCode;
+
+    int defaultFractionDigits() {
+        return this.defaultFractionDigits;
+    }
+
+    private final int defaultFractionDigits;
+
+    int numericCode() {
+        return this.numericCode;
+    }
+
+    private final int numericCode;
+
+    String defaultSymbol() {
+        return this.defaultSymbol;
+    }
+
+    private final String defaultSymbol;
+
+    /**
+     * The sorted {@link Locale locales} that use this currency.
+     */
+    Set<Locale> locales() {
+        return this.locales;
+    }
+
+    private final Set<Locale> locales;
+
+    /**
+     * Each symbol other than the default symbol and the {@link Locale locales} that use it.
+     */
+    Map<String, Set<Locale>> symbolToLocales() {
+        return this.symbolToLocales;
+    }
+
+    private final Map<String, Set<Locale>> symbolToLocales;
+
+    @Override
+    public String toString() {
+        return this.currencyCode + " " + this.locales + " " + this.symbolToLocales;
+    }
+}
@@ -0,0 +1,483 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import walkingkooka.collect.map.Maps;
+import walkingkooka.j2cl.java.util.locale.support.LocaleSupport;
+import walkingkooka.text.Indentation;
+import walkingkooka.text.LineEnding;
+import walkingkooka.text.printer.IndentingPrinter;
+import walkingkooka.text.printer.Printers;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Writes the header and {@link CurrencyRecord records} using the {@link CurrencyProviderFeature features} of the
+ * {@link CurrencyProviderToolOptions}, and the matching comments.
+ */
+final class CurrencyRecordWriter {
+
+    /**
+     * Prepares any tables required by the features for the given {@link CurrencyRecord records}.
+     */
+    static CurrencyRecordWriter with(final List<CurrencyRecord> records,
+                                     final Set<Locale> selected,
+                                     final CurrencyProviderToolOptions options) {
+        final CurrencyLocaleGroups groups = options.has(CurrencyProviderFeature.GROUPED_LOCALES) ?
+                CurrencyLocaleGroups.with(selected) :
+                null;
+        final Map<String, CurrencyLanguageSymbols> languageSymbols = options.has(CurrencyProviderFeature.LANGUAGE_SYMBOLS) ?
+                languageSymbols(records, selected) :
+                null;
+
+        // STRING_TABLE and SYMBOL_POOL are never both selected, the string table also holds every symbol
+        final CurrencyStringTable strings = options.has(CurrencyProviderFeature.STRING_TABLE) ?
+                CurrencyStringTable.with(records, groups, languageSymbols) :
+                null;
+
+        return new CurrencyRecordWriter(
+                options.features(),
+                options.commentLevel(),
+                strings,
+                options.has(CurrencyProviderFeature.SYMBOL_POOL) ?
+                        CurrencyStringTable.symbols(records, languageSymbols) :
+                        strings,
+                groups,
+                languageSymbols,
+                options.metrics()
+                        .orElse(null)
+        );
+    }
+
+    /**
+     * Computes the {@link CurrencyLanguageSymbols} of every record by currency code.
+     */
+    private static Map<String, CurrencyLanguageSymbols> languageSymbols(final List<CurrencyRecord> records,
+                                                                        final Set<Locale> selected) {
+        final Map<String, CurrencyLanguageSymbols> languageSymbols = Maps.hash();
+
+        for (final CurrencyRecord record : records) {
+            languageSymbols.put(
+                    record.currencyCode(),
+                    CurrencyLanguageSymbols.with(
+                            record.defaultSymbol(),
+                            record.symbolToLocales(),
+                            selected
+                    )
+            );
+        }
+
+        return languageSymbols;
+    }
+
+    private CurrencyRecordWriter(final Set<CurrencyProviderFeature> features,
+                                 final CurrencyProviderCommentLevel commentLevel,
+                                 final CurrencyStringTable strings,
+                                 final CurrencyStringTable symbols,
+                                 final CurrencyLocaleGroups groups,
+                                 final Map<String, CurrencyLanguageSymbols> languageSymbols,
+                                 final CurrencyProviderMetrics metrics) {
+        super();
+        this.features = features;
+        this.commentLevel = commentLevel;
+        this.details = commentLevel.hasDetails();
+        this.sink = this.details ?
+                null :
+                Printers.sink(LineEnding.NONE)
+                        .indenting(Indentation.SPACES2);
+        this.attributes = false == features.contains(CurrencyProviderFeature.LOOKUP_COLUMNS);
+        this.compact = features.contains(CurrencyProviderFeature.COMPACT_INTS);
+        this.strings = strings;
+        this.symbols = symbols;
+        this.groups = groups;
+        this.languageSymbols = languageSymbols;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Writes the version and features followed by any tables, nothing is written for the unversioned format.
+     */
+    void writeHeader(final DataOutput data) throws IOException {
+        final Set<CurrencyProviderFeature> features = this.features;
+        if (false == features.isEmpty()) {
+            data.writeInt(CurrencyProviderFeature.VERSION);
+            data.writeInt(CurrencyProviderFeature.bits(features));
+        }
+
+        final DataOutput output = this.output(data);
+        writeTable(this.symbols, output);
+
+        final CurrencyLocaleGroups groups = this.groups;
+        if (null != groups) {
+            this.writeGroups(groups.selected(), output);
+        }
+    }
+
+    /**
+     * Returns a {@link CurrencyCompactDataOutput} when {@link CurrencyProviderFeature#COMPACT_INTS} is present,
+     * which must receive everything written after the features.
+     */
+    DataOutput output(final DataOutput data) {
+        return this.compact ?
+                CurrencyCompactDataOutput.with(data) :
+                data;
+    }
+
+    /**
+     * Writes the count and then each string of the table if present.
+     */
+    private static void writeTable(final CurrencyStringTable table,
+                                   final DataOutput data) throws IOException {
+        if (null != table) {
+            final List<String> all = table.strings();
+            data.writeInt(all.size());
+
+            for (final String string : all) {
+                data.writeUTF(string);
+            }
+        }
+    }
+
+    private final Set<CurrencyProviderFeature> features;
+
+    private final CurrencyProviderCommentLevel commentLevel;
+
+    /**
+     * When false the comments given to each write method ignore everything, so nothing is formatted.
+     */
+    private final boolean details;
+
+    /**
+     * Receives the details of every record when {@link #details} is false, shared by all records.
+     */
+    private final IndentingPrinter sink;
+
+    /**
+     * When false the fraction digits and numeric code are only present in the lookup columns and not in each record.
+     */
+    private final boolean attributes;
+
+    /**
+     * When true ints after the features are written by a {@link CurrencyCompactDataOutput}.
+     */
+    private final boolean compact;
+
+    /**
+     * When present strings are written as an index into this table.
+     */
+    private final CurrencyStringTable strings;
+
+    /**
+     * The table of symbols, either the {@link #strings} or the pool of {@link CurrencyProviderFeature#SYMBOL_POOL} or
+     * null. This is the only table written by the header.
+     */
+    private final CurrencyStringTable symbols;
+
+    /**
+     * When present lists of locales are grouped by language.
+     */
+    private final CurrencyLocaleGroups groups;
+
+    /**
+     * When present each record writes its language symbols followed by only the overrides.
+     */
+    private final Map<String, CurrencyLanguageSymbols> languageSymbols;
+
+    /**
+     * When present the bytes of each section of every record are counted.
+     */
+    private final CurrencyProviderMetrics metrics;
+
+    /**
+     * Writes a single {@link CurrencyRecord}.
+     */
+    void write(final CurrencyRecord record,
+               final DataOutput data,
+               final IndentingPrinter comments) throws IOException {
+        this.write(record,
+                data,
+                data,
+                comments);
+    }
+
+    /**
+     * Writes a single {@link CurrencyRecord}, with the default symbol and symbols written to the shard. When the shard
+     * is the data the record is identical to an unsharded record.
+     */
+    void write(final CurrencyRecord record,
+               final DataOutput data,
+               final DataOutput shard,
+               final IndentingPrinter comments) throws IOException {
+        final CurrencyProviderMetrics metrics = this.metrics;
+        final CurrencyDataOutputCounter dataCounter = null != metrics ?
+                CurrencyDataOutputCounter.with(data) :
+                null;
+        final CurrencyDataOutputCounter shardCounter = null == dataCounter || data == shard ?
+                dataCounter :
+                CurrencyDataOutputCounter.with(shard);
+        final DataOutput dataOutput = this.output(null != dataCounter ? dataCounter : data);
+        final DataOutput shardOutput = data == shard ?
+                dataOutput :
+                this.output(null != shardCounter ? shardCounter : shard);
+
+        final CurrencyProviderCommentLevel commentLevel = this.commentLevel;
+        commentLevel.summary(record, comments);
+
+        final IndentingPrinter details = this.details ?
+                comments :
+                this.sink;
+        this.writeCurrencyCode(record, dataOutput, details);
+
+        details.indent();
+        {
+            this.writeCurrencyAttributes(record,
+                    dataOutput,
+                    details);
+            this.writeDefaultSymbol(record,
+                    shardOutput,
+                    details);
+            final long attributes = bytes(dataCounter, shardCounter);
+
+            this.writeLocales(record.locales(),
+                    null,
+                    dataOutput,
+                    details);
+            final long locales = bytes(dataCounter, shardCounter) - attributes;
+
+            final Map<String, CurrencyLanguageSymbols> languageSymbols = this.languageSymbols;
+            if (null == languageSymbols) {
+                this.writeSymbolsToLocales(record.symbolToLocales(),
+                        shardOutput,
+                        details);
+            } else {
+                final CurrencyLanguageSymbols recordLanguageSymbols = languageSymbols.get(record.currencyCode());
+                this.writeLanguageToSymbol(recordLanguageSymbols.languageToSymbol(),
+                        shardOutput,
+                        details);
+                this.writeSymbolsToLocales(recordLanguageSymbols.overrides(),
+                        shardOutput,
+                        details);
+            }
+            final long symbols = bytes(dataCounter, shardCounter) - attributes - locales;
+
+            if (null != metrics) {
+                metrics.currency(record.currencyCode(),
+                        record.locales().size(),
+                        record.symbolToLocales().size(),
+                        attributes,
+                        locales,
+                        symbols);
+            }
+        }
+        details.outdent();
+
+        if (this.details) {
+            details.lineStart();
+            details.print(details.lineEnding());
+        }
+    }
+
+    /**
+     * The bytes counted so far by both counters, which may be the same or absent.
+     */
+    private static long bytes(final CurrencyDataOutputCounter data,
+                              final CurrencyDataOutputCounter shard) {
+        return null == data ?
+                0 :
+                data == shard ?
+                        data.bytes() :
+                        data.bytes() + shard.bytes();
+    }
+
+    private void comment(final String label,
+                         final Object value,
+                         final IndentingPrinter comments) {
+        if (this.details) {
+            comments.lineStart();
+            comments.print(label + "=" + value);
+        }
+    }
+
+    private void writeCurrencyCode(final CurrencyRecord record,
+                                   final DataOutput data,
+                                   final IndentingPrinter comments) throws IOException {
+        final String currencyCode = record.currencyCode();
+        this.comment("currencyCode", currencyCode, comments);
+        data.writeUTF(currencyCode);
+    }
+
+    private void writeCurrencyAttributes(final CurrencyRecord record,
+                                         final DataOutput data,
+                                         final IndentingPrinter comments) throws IOException {
+        final int defaultFractionDigits = record.defaultFractionDigits();
+        this.comment("defaultFractionDigits", defaultFractionDigits, comments);
+
+        final int numericCode = record.numericCode();
+        this.comment("numericCode", numericCode, comments);
+
+        if (this.attributes) {
+            data.writeInt(defaultFractionDigits);
+            data.writeInt(numericCode);
+        }
+    }
+
+    private void writeDefaultSymbol(final CurrencyRecord record,
+                                    final DataOutput data,
+                                    final IndentingPrinter comments) throws IOException {
+        final String defaultSymbol = record.defaultSymbol();
+        this.comment("defaultSymbol", defaultSymbol, comments);
+        this.writeSymbol(defaultSymbol, data);
+    }
+
+    /**
+     * Writes the count and then each language and its symbol.
+     */
+    private void writeLanguageToSymbol(final Map<String, String> languageToSymbol,
+                                       final DataOutput data,
+                                       final IndentingPrinter comments) throws IOException {
+        data.writeInt(languageToSymbol.size());
+
+        for (final Entry<String, String> languageAndSymbol : languageToSymbol.entrySet()) {
+            final String language = languageAndSymbol.getKey();
+            final String symbol = languageAndSymbol.getValue();
+            this.comment("language " + language, symbol, comments);
+
+            this.writeString(language, data);
+            this.writeSymbol(symbol, data);
+        }
+    }
+
+    /**
+     * For each symbol to locale, write the symbol and then a csv string of locales.
+     */
+    private void writeSymbolsToLocales(final Map<String, Set<Locale>> symbolToLocales,
+                                       final DataOutput data,
+                                       final IndentingPrinter comments) throws IOException {
+        data.writeInt(symbolToLocales.size());
+
+        for (final Entry<String, Set<Locale>> symbolAndLocales : symbolToLocales.entrySet()) {
+            final String symbol = symbolAndLocales.getKey();
+            this.writeSymbol(symbol, data);
+
+            this.writeLocales(symbolAndLocales.getValue(),
+                    symbol,
+                    data,
+                    comments);
+        }
+    }
+
+    /**
+     * The label printed before the locales of a currency.
+     */
+    private final static String LOCALES = "locales";
+
+    /**
+     * Writes the {@link Locale locales} as language tags, indices into the {@link CurrencyStringTable} or language
+     * groups depending on the features. The symbol is null when writing the locales of a currency. Without details
+     * the language tags are written here, the same as {@link LocaleSupport} without formatting its comment.
+     */
+    private void writeLocales(final Set<Locale> locales,
+                              final String symbol,
+                              final DataOutput data,
+                              final IndentingPrinter comments) throws IOException {
+        if (null == this.strings && null == this.groups && this.details) {
+            if (null == symbol) {
+                LocaleSupport.generateLocales(locales, data, comments);
+            } else {
+                LocaleSupport.generateLocales(locales, data, symbol, comments);
+            }
+        } else {
+            if (this.details) {
+                this.comment(null == symbol ? LOCALES : symbol,
+                        locales.stream()
+                                .map(Locale::toLanguageTag)
+                                .collect(Collectors.joining(", ")),
+                        comments);
+            }
+
+            final CurrencyLocaleGroups groups = this.groups;
+            if (null == groups) {
+                data.writeInt(locales.size());
+                for (final Locale locale : locales) {
+                    this.writeString(locale.toLanguageTag(), data);
+                }
+            } else {
+                this.writeGroups(groups.group(locales), data);
+            }
+        }
+    }
+
+    /**
+     * Writes the group count, and then for each group the language, followed by the suffix count, which is negative
+     * for an except group and then each suffix.
+     */
+    private void writeGroups(final List<CurrencyLocaleGroup> groups,
+                             final DataOutput data) throws IOException {
+        data.writeInt(groups.size());
+
+        for (final CurrencyLocaleGroup group : groups) {
+            this.writeString(group.language(), data);
+
+            final List<String> suffixes = group.suffixes();
+            final int count = suffixes.size();
+            data.writeInt(group.except() ? -count - 1 : count);
+
+            for (final String suffix : suffixes) {
+                this.writeString(suffix, data);
+            }
+        }
+    }
+
+    /**
+     * Writes the symbol or its index when a {@link CurrencyStringTable} of symbols is present.
+     */
+    private void writeSymbol(final String symbol,
+                             final DataOutput data) throws IOException {
+        final CurrencyStringTable symbols = this.symbols;
+        if (null == symbols) {
+            data.writeUTF(symbol);
+        } else {
+            data.writeInt(symbols.index(symbol));
+        }
+    }
+
+    /**
+     * Writes the string or its index when a {@link CurrencyStringTable} is present.
+     */
+    private void writeString(final String string,
+                             final DataOutput data) throws IOException {
+        final CurrencyStringTable strings = this.strings;
+        if (null == strings) {
+            data.writeUTF(string);
+        } else {
+            data.writeInt(strings.index(string));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return this.features + " " + this.commentLevel;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+/**
+ * Counts of the currencies and locales kept or pruned by a single generate.
+ */
+final class CurrencySelection {
+
+    static CurrencySelection with(final int currenciesKept,
+                                  final int currenciesPruned,
+                                  final int localesKept,
+                                  final int localesPruned) {
+        return new CurrencySelection(currenciesKept,
+                currenciesPruned,
+                localesKept,
+                localesPruned);
+    }
+
+    private CurrencySelection(final int currenciesKept,
+                              final int currenciesPruned,
+                              final int localesKept,
+                              final int localesPruned) {
+        super();
+        this.currenciesKept = currenciesKept;
+        this.currenciesPruned = currenciesPruned;
+        this.localesKept = localesKept;
+        this.localesPruned = localesPruned;
+    }
+
+    /**
+     * The number of currency records written.
+     */
+    int currenciesKept() {
+        return this.currenciesKept;
+    }
+
+    private final int currenciesKept;
+
+    /**
+     * The number of currencies used by a selected locale that were excluded.
+     */
+    int currenciesPruned() {
+        return this.currenciesPruned;
+    }
+
+    private final int currenciesPruned;
+
+    /**
+     * The number of locales that appear in a currency record.
+     */
+    int localesKept() {
+        return this.localesKept;
+    }
+
+    private final int localesKept;
+
+    /**
+     * The number of locales whose currency was excluded.
+     */
+    int localesPruned() {
+        return this.localesPruned;
+    }
+
+    private final int localesPruned;
+
+    @Override
+    public String toString() {
+        return "Currency kept " + this.currenciesKept + " pruned " + this.currenciesPruned +
+                ", Locale kept " + this.localesKept + " pruned " + this.localesPruned;
+    }
+}
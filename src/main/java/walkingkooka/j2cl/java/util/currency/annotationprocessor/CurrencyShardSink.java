@@ -0,0 +1,33 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import java.io.IOException;
+
+/**
+ * Receives the data of each currency shard when the {@link CurrencyProviderFeature#SHARDS} feature is selected.
+ */
+@FunctionalInterface
+interface CurrencyShardSink {
+
+    /**
+     * Accepts the shard for the given currency code.
+     */
+    void shard(final String currencyCode,
+               final String data) throws IOException;
+}
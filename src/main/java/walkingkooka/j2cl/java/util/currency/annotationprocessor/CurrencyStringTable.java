@@ -0,0 +1,195 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.text.CharSequences;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * An interned table of every language tag and symbol referenced by a list of {@link CurrencyRecord records}. When
+ * {@link CurrencyLocaleGroups} are present the languages and suffixes of each group replace language tags. The most
+ * frequently referenced strings are given the smallest indices, ties are sorted by the string itself. When
+ * {@link CurrencyLanguageSymbols} are present their languages, symbols and overrides replace the other symbols of each
+ * record.
+ */
+final class CurrencyStringTable {
+
+    static CurrencyStringTable with(final List<CurrencyRecord> records,
+                                    final CurrencyLocaleGroups groups,
+                                    final Map<String, CurrencyLanguageSymbols> languageSymbols) {
+        final Map<String, Integer> stringToCount = Maps.hash();
+
+        if (null != groups) {
+            countGroups(groups.selected(), stringToCount);
+        }
+
+        for (final CurrencyRecord record : records) {
+            count(record.defaultSymbol(), stringToCount);
+            countLocales(record.locales(), groups, stringToCount);
+
+            final CurrencyLanguageSymbols recordLanguageSymbols = null != languageSymbols ?
+                    languageSymbols.get(record.currencyCode()) :
+                    null;
+            if (null != recordLanguageSymbols) {
+                for (final Entry<String, String> languageAndSymbol : recordLanguageSymbols.languageToSymbol().entrySet()) {
+                    count(languageAndSymbol.getKey(), stringToCount);
+                    count(languageAndSymbol.getValue(), stringToCount);
+                }
+            }
+
+            for (final Entry<String, Set<Locale>> symbolAndLocales : symbolToLocales(record, recordLanguageSymbols).entrySet()) {
+                count(symbolAndLocales.getKey(), stringToCount);
+                countLocales(symbolAndLocales.getValue(), groups, stringToCount);
+            }
+        }
+
+        return with(stringToCount);
+    }
+
+    /**
+     * Creates a table of only the default symbol and other symbols of each record.
+     */
+    static CurrencyStringTable symbols(final List<CurrencyRecord> records,
+                                       final Map<String, CurrencyLanguageSymbols> languageSymbols) {
+        final Map<String, Integer> stringToCount = Maps.hash();
+
+        for (final CurrencyRecord record : records) {
+            count(record.defaultSymbol(), stringToCount);
+
+            final CurrencyLanguageSymbols recordLanguageSymbols = null != languageSymbols ?
+                    languageSymbols.get(record.currencyCode()) :
+                    null;
+            if (null != recordLanguageSymbols) {
+                for (final String symbol : recordLanguageSymbols.languageToSymbol().values()) {
+                    count(symbol, stringToCount);
+                }
+            }
+
+            for (final String symbol : symbolToLocales(record, recordLanguageSymbols).keySet()) {
+                count(symbol, stringToCount);
+            }
+        }
+
+        return with(stringToCount);
+    }
+
+    /**
+     * The overrides of the {@link CurrencyLanguageSymbols} if present or all other symbols of the record.
+     */
+    private static Map<String, Set<Locale>> symbolToLocales(final CurrencyRecord record,
+                                                            final CurrencyLanguageSymbols languageSymbols) {
+        return null != languageSymbols ?
+                languageSymbols.overrides() :
+                record.symbolToLocales();
+    }
+
+    private static CurrencyStringTable with(final Map<String, Integer> stringToCount) {
+        final List<String> strings = Lists.array();
+        strings.addAll(stringToCount.keySet());
+        strings.sort(
+                Comparator.<String>comparingInt(stringToCount::get)
+                        .reversed()
+                        .thenComparing(Comparator.naturalOrder())
+        );
+
+        final Map<String, Integer> stringToIndex = Maps.hash();
+        for (final String string : strings) {
+            stringToIndex.put(string, stringToIndex.size());
+        }
+
+        return new CurrencyStringTable(Collections.unmodifiableList(strings), stringToIndex);
+    }
+
+    private static void countLocales(final Set<Locale> locales,
+                                     final CurrencyLocaleGroups groups,
+                                     final Map<String, Integer> stringToCount) {
+        if (null == groups) {
+            for (final Locale locale : locales) {
+                count(locale.toLanguageTag(), stringToCount);
+            }
+        } else {
+            countGroups(groups.group(locales), stringToCount);
+        }
+    }
+
+    private static void countGroups(final List<CurrencyLocaleGroup> groups,
+                                    final Map<String, Integer> stringToCount) {
+        for (final CurrencyLocaleGroup group : groups) {
+            count(group.language(), stringToCount);
+
+            for (final String suffix : group.suffixes()) {
+                count(suffix, stringToCount);
+            }
+        }
+    }
+
+    private static void count(final String string,
+                              final Map<String, Integer> stringToCount) {
+        stringToCount.merge(string, 1, Integer::sum);
+    }
+
+    private CurrencyStringTable(final List<String> strings,
+                                final Map<String, Integer> stringToIndex) {
+        super();
+        this.strings = strings;
+        this.stringToIndex = stringToIndex;
+    }
+
+    /**
+     * Returns the index of the language tag for the given {@link Locale}.
+     */
+    int index(final Locale locale) {
+        return this.index(locale.toLanguageTag());
+    }
+
+    /**
+     * Returns the index of the given string, failing if it is not present.
+     */
+    int index(final String string) {
+        final Integer index = this.stringToIndex.get(string);
+        if (null == index) {
+            throw new IllegalArgumentException("Unknown string " + CharSequences.quoteAndEscape(string));
+        }
+        return index;
+    }
+
+    /**
+     * All strings in index order.
+     */
+    List<String> strings() {
+        return this.strings;
+    }
+
+    private final List<String> strings;
+
+    private final Map<String, Integer> stringToIndex;
+
+    @Override
+    public String toString() {
+        return this.strings.toString();
+    }
+}
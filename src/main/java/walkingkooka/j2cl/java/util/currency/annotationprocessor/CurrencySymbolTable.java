@@ -0,0 +1,125 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import walkingkooka.j2cl.locale.annotationprocessor.LocaleAwareAnnotationProcessorTool;
+
+import java.util.Currency;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A table of {@link CurrencyProviderSource#symbol(Currency, Locale)} keyed by currency and then {@link Locale}, that is
+ * created once for each generate, so each symbol is only resolved once. The table may be shared by the threads
+ * computing records.
+ */
+final class CurrencySymbolTable {
+
+    /**
+     * Creates a new empty table, where default symbols are selected from the given {@link Locale locales}.
+     */
+    static CurrencySymbolTable with(final Set<Locale> locales) {
+        return new CurrencySymbolTable(locales, CurrencyProviderJreSource.INSTANCE.resolve());
+    }
+
+    /**
+     * Creates a new empty table, where default symbols are selected from all the {@link Locale locales} of the
+     * {@link CurrencyProviderSource}, which is {@link CurrencyProviderSource#resolve() resolved} once for the table.
+     */
+    static CurrencySymbolTable with(final CurrencyProviderSource source) {
+        final CurrencyProviderSource resolved = source.resolve();
+        return new CurrencySymbolTable(resolved.locales(), resolved);
+    }
+
+    private CurrencySymbolTable(final Set<Locale> locales,
+                                final CurrencyProviderSource source) {
+        super();
+        this.locales = locales;
+        this.source = source;
+    }
+
+    /**
+     * The {@link CurrencyProviderSource} of all symbols and other facts of a {@link Currency}.
+     */
+    CurrencyProviderSource source() {
+        return this.source;
+    }
+
+    private final CurrencyProviderSource source;
+
+    /**
+     * Finds the default symbol for a {@link Currency} which seems to be the most popular symbol for all JRE locales,
+     * ties select the smallest symbol so the order locales are enumerated never matters.
+     */
+    String defaultSymbol(final Currency currency) {
+        String defaultSymbol = this.currencyToDefaultSymbol.get(currency);
+        if (null == defaultSymbol) {
+            int mostCount = -1;
+
+            for (final Entry<String, Set<Locale>> symbolAndLocales : this.symbolToLocales(currency, this.locales).entrySet()) {
+                final int count = symbolAndLocales.getValue().size();
+                final String symbol = symbolAndLocales.getKey();
+                if (count > mostCount || (count == mostCount && symbol.compareTo(defaultSymbol) < 0)) {
+                    mostCount = count;
+                    defaultSymbol = symbol;
+                }
+            }
+
+            this.currencyToDefaultSymbol.putIfAbsent(currency, defaultSymbol);
+        }
+        return defaultSymbol;
+    }
+
+    /**
+     * All the {@link Locale locales} used to select the default symbol for each {@link Currency}.
+     */
+    private final Set<Locale> locales;
+
+    /**
+     * Cache of previously selected default symbols.
+     */
+    private final Map<Currency, String> currencyToDefaultSymbol = new ConcurrentHashMap<>();
+
+    /**
+     * Groups the given {@link Locale locales} by their symbol for the given {@link Currency}.
+     */
+    Map<String, Set<Locale>> symbolToLocales(final Currency currency,
+                                             final Set<Locale> locales) {
+        return LocaleAwareAnnotationProcessorTool.buildMultiLocaleMap(l -> this.symbol(currency, l), locales);
+    }
+
+    /**
+     * Returns the symbol for the {@link Currency} and {@link Locale}, calling {@link CurrencyProviderSource#symbol(Currency, Locale)}
+     * only the first time a pair is requested.
+     */
+    String symbol(final Currency currency,
+                  final Locale locale) {
+        return this.currencyToLocaleToSymbol.computeIfAbsent(currency, (c) -> new ConcurrentHashMap<>())
+                .computeIfAbsent(locale, l -> this.source.symbol(currency, l));
+    }
+
+    private final Map<Currency, Map<Locale, String>> currencyToLocaleToSymbol = new ConcurrentHashMap<>();
+
+    @Override
+    public String toString() {
+        return this.currencyToLocaleToSymbol.toString();
+    }
+}
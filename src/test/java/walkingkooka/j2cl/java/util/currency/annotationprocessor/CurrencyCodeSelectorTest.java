@@ -0,0 +1,127 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.text.CharSequences;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class CurrencyCodeSelectorTest implements ClassTesting<CurrencyCodeSelector> {
+
+    @Test
+    public void testParseNullFails() {
+        assertThrows(NullPointerException.class, () -> CurrencyCodeSelector.parse(null));
+    }
+
+    @Test
+    public void testParseWildcardNotLastFails() {
+        assertThrows(IllegalArgumentException.class, () -> CurrencyCodeSelector.parse("A*D"));
+    }
+
+    @Test
+    public void testParseExcludeOnlyFails() {
+        assertThrows(IllegalArgumentException.class, () -> CurrencyCodeSelector.parse("-"));
+    }
+
+    @Test
+    public void testEmpty() {
+        this.testAndCheck("", "AUD", true, true);
+        this.testAndCheck("", "AUD", false, false);
+    }
+
+    @Test
+    public void testInclude() {
+        this.testAndCheck("AUD", "AUD", false, true);
+        this.testAndCheck("AUD", "NZD", false, false);
+        this.testAndCheck("AUD", "NZD", true, true);
+    }
+
+    @Test
+    public void testIncludeCaseInsensitive() {
+        this.testAndCheck("aud", "AUD", false, true);
+    }
+
+    @Test
+    public void testIncludeWildcard() {
+        this.testAndCheck("A*", "AUD", false, true);
+        this.testAndCheck("A*", "ARS", false, true);
+        this.testAndCheck("A*", "NZD", false, false);
+    }
+
+    @Test
+    public void testExclude() {
+        this.testAndCheck("-EUR", "EUR", true, false);
+        this.testAndCheck("-EUR", "AUD", true, true);
+        this.testAndCheck("-EUR", "XXX", false, false);
+    }
+
+    @Test
+    public void testExcludeAllThenInclude() {
+        this.testAndCheck("-*,AUD,NZD", "AUD", true, true);
+        this.testAndCheck("-*,AUD,NZD", "NZD", false, true);
+        this.testAndCheck("-*,AUD,NZD", "EUR", true, false);
+    }
+
+    @Test
+    public void testIncludeAllThenExclude() {
+        this.testAndCheck("*, -EUR", "AUD", false, true);
+        this.testAndCheck("*, -EUR", "EUR", true, false);
+    }
+
+    @Test
+    public void testLastMatchWins() {
+        this.testAndCheck("AUD,-AUD", "AUD", true, false);
+        this.testAndCheck("-AUD,AUD", "AUD", false, true);
+    }
+
+    private void testAndCheck(final String selectors,
+                              final String currencyCode,
+                              final boolean withLocales,
+                              final boolean expected) {
+        this.checkEquals(
+                expected,
+                CurrencyCodeSelector.parse(selectors).test(currencyCode, withLocales),
+                () -> CharSequences.quoteAndEscape(selectors) + " test " + currencyCode + " withLocales=" + withLocales
+        );
+    }
+
+    @Test
+    public void testToString() {
+        this.toStringAndCheck(CurrencyCodeSelector.parse("-*,AUD"), "-*,AUD");
+    }
+
+    private void toStringAndCheck(final CurrencyCodeSelector selector,
+                                  final String expected) {
+        this.checkEquals(expected, selector.toString());
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<CurrencyCodeSelector> type() {
+        return CurrencyCodeSelector.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
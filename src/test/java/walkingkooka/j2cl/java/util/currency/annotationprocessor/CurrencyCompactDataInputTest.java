@@ -0,0 +1,106 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class CurrencyCompactDataInputTest implements ClassTesting<CurrencyCompactDataInput> {
+
+    @Test
+    public void testWithNullFails() {
+        assertThrows(NullPointerException.class, () -> CurrencyCompactDataInput.with(null));
+    }
+
+    @Test
+    public void testReadIntZero() throws IOException {
+        this.readIntAndCheck("!", 0);
+    }
+
+    @Test
+    public void testReadIntSmallNegative() throws IOException {
+        this.readIntAndCheck("#", -1);
+    }
+
+    @Test
+    public void testReadIntTwoDigits() throws IOException {
+        this.readIntAndCheck("{8", 999);
+    }
+
+    @Test
+    public void testReadIntEmptyFails() {
+        assertThrows(IOException.class, () -> this.readInt(""));
+    }
+
+    @Test
+    public void testReadIntInvalidDigitFails() {
+        assertThrows(IOException.class, () -> this.readInt(","));
+    }
+
+    @Test
+    public void testReadIntTooManyDigitsFails() {
+        assertThrows(IOException.class, () -> this.readInt("!!!!!!"));
+    }
+
+    @Test
+    public void testReadIntOverflowFails() {
+        assertThrows(IOException.class, () -> this.readInt("~~~~~"));
+    }
+
+    private void readIntAndCheck(final String digits,
+                                 final int expected) throws IOException {
+        this.checkEquals(
+                expected,
+                this.readInt(digits),
+                () -> "readInt " + digits
+        );
+    }
+
+    private int readInt(final String digits) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new DataOutputStream(bytes)
+                .writeUTF(digits);
+
+        return CurrencyCompactDataInput.with(
+                new DataInputStream(
+                        new ByteArrayInputStream(bytes.toByteArray())
+                )
+        ).readInt();
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<CurrencyCompactDataInput> type() {
+        return CurrencyCompactDataInput.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
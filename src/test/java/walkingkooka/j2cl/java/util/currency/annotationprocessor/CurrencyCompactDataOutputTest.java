@@ -0,0 +1,167 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class CurrencyCompactDataOutputTest implements ClassTesting<CurrencyCompactDataOutput> {
+
+    @Test
+    public void testWithNullFails() {
+        assertThrows(NullPointerException.class, () -> CurrencyCompactDataOutput.with(null));
+    }
+
+    @Test
+    public void testWriteIntZero() throws IOException {
+        this.writeIntAndCheck(0, "!");
+    }
+
+    @Test
+    public void testWriteIntSmallPositive() throws IOException {
+        this.writeIntAndCheck(45, "~");
+    }
+
+    @Test
+    public void testWriteIntSmallNegative() throws IOException {
+        this.writeIntAndCheck(-1, "#");
+    }
+
+    @Test
+    public void testWriteIntSmallNegativeMin() throws IOException {
+        this.writeIntAndCheck(-45, "}");
+    }
+
+    @Test
+    public void testWriteIntTwoDigits() throws IOException {
+        this.writeIntAndCheck(46, "##");
+    }
+
+    @Test
+    public void testWriteIntNumericCodeTwoDigits() throws IOException {
+        this.writeIntAndCheck(999, "{8");
+    }
+
+    @Test
+    public void testWriteIntMaxValueMaxDigits() throws IOException {
+        this.checkEquals(CurrencyCompactDataOutput.MAX_DIGITS, this.writeInt(Integer.MAX_VALUE).length());
+    }
+
+    @Test
+    public void testWriteIntMinValueMaxDigits() throws IOException {
+        this.checkEquals(CurrencyCompactDataOutput.MAX_DIGITS, this.writeInt(Integer.MIN_VALUE).length());
+    }
+
+    @Test
+    public void testWriteIntNeverLongerThanDecimal() throws IOException {
+        for (int i = -100_000; i <= 100_000; i++) {
+            final int value = i;
+            final String digits = this.writeInt(value);
+            this.checkEquals(
+                    true,
+                    digits.length() <= Integer.toString(value).length(),
+                    () -> value + " " + digits
+            );
+        }
+    }
+
+    @Test
+    public void testDigitsNeverEscaped() {
+        final String digits = CurrencyCompactDataOutput.DIGITS;
+        this.checkEquals(
+                (long) digits.length(),
+                CurrencyProviderDataLiteralWriter.escapedLength(digits),
+                digits
+        );
+        this.checkEquals(-1, digits.indexOf(','), "comma");
+    }
+
+    @Test
+    public void testWriteUTFForwarded() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CurrencyCompactDataOutput.with(new DataOutputStream(bytes))
+                .writeUTF("AUD");
+
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        new DataOutputStream(expected)
+                .writeUTF("AUD");
+
+        this.checkEquals(expected.toString(StandardCharsets.ISO_8859_1.name()), bytes.toString(StandardCharsets.ISO_8859_1.name()));
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        final int[] values = {0, 1, -1, 2, 45, -45, 46, -46, 756, 4140, -4141, 1 << 20, Integer.MAX_VALUE, Integer.MIN_VALUE};
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final CurrencyCompactDataOutput output = CurrencyCompactDataOutput.with(new DataOutputStream(bytes));
+        for (final int value : values) {
+            output.writeInt(value);
+        }
+        output.writeUTF("EUR");
+
+        final DataInput input = CurrencyCompactDataInput.with(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        for (final int value : values) {
+            this.checkEquals(value, input.readInt());
+        }
+        this.checkEquals("EUR", input.readUTF());
+    }
+
+    private void writeIntAndCheck(final int value,
+                                  final String expected) throws IOException {
+        this.checkEquals(
+                expected,
+                this.writeInt(value),
+                () -> "writeInt " + value
+        );
+    }
+
+    /**
+     * Returns the digits written for the int by {@link DataOutputStream#writeUTF(String)}.
+     */
+    private String writeInt(final int value) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CurrencyCompactDataOutput.with(new DataOutputStream(bytes))
+                .writeInt(value);
+        return new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))
+                .readUTF();
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<CurrencyCompactDataOutput> type() {
+        return CurrencyCompactDataOutput.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
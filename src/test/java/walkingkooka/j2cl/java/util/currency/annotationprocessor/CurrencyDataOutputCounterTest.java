@@ -0,0 +1,85 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.j2cl.java.io.string.StringDataInputDataOutput;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class CurrencyDataOutputCounterTest implements ClassTesting<CurrencyDataOutputCounter> {
+
+    @Test
+    public void testWithNullFails() {
+        assertThrows(NullPointerException.class, () -> CurrencyDataOutputCounter.with(null));
+    }
+
+    @Test
+    public void testBytesSameAsEscapedText() throws IOException {
+        final StringBuilder text = new StringBuilder();
+        final DataOutput output = StringDataInputDataOutput.output(text::append);
+        output.writeInt(2);
+        final int start = text.length();
+
+        final CurrencyDataOutputCounter counter = CurrencyDataOutputCounter.with(output);
+        counter.writeInt(1);
+        counter.writeInt(-978);
+        counter.writeUTF("AUD");
+        counter.writeUTF("€\"\\");
+        counter.writeChar(0x4020);
+
+        this.checkEquals(
+                CurrencyProviderDataLiteralWriter.escapedLength(text.substring(start)),
+                counter.bytes()
+        );
+    }
+
+    @Test
+    public void testBytesCountsEscapes() throws IOException {
+        final StringBuilder text = new StringBuilder();
+        final DataOutput output = StringDataInputDataOutput.output(text::append);
+        output.writeUTF("AUD");
+        final int start = text.length();
+
+        final CurrencyDataOutputCounter counter = CurrencyDataOutputCounter.with(output);
+        counter.writeUTF("€");
+
+        this.checkEquals(
+                text.length() - start + 5L,
+                counter.bytes(),
+                () -> "escaped € " + text
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<CurrencyDataOutputCounter> type() {
+        return CurrencyDataOutputCounter.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class CurrencyDataOutputDigestTest implements ClassTesting<CurrencyDataOutputDigest> {
+
+    @Test
+    public void testWithNullFails() {
+        assertThrows(NullPointerException.class, () -> CurrencyDataOutputDigest.with(null));
+    }
+
+    @Test
+    public void testForwards() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final CurrencyDataOutputDigest digest = CurrencyDataOutputDigest.with(new DataOutputStream(bytes));
+
+        digest.writeInt(1);
+        digest.writeUTF("AUD");
+
+        this.checkEquals(9, bytes.size());
+    }
+
+    @Test
+    public void testHashEmpty() {
+        this.checkEquals(
+                "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855",
+                CurrencyDataOutputDigest.with(new DataOutputStream(new ByteArrayOutputStream()))
+                        .hash()
+        );
+    }
+
+    @Test
+    public void testHashSameValuesSame() throws IOException {
+        this.checkEquals(
+                this.hash(1, "AUD", "A$"),
+                this.hash(1, "AUD", "A$")
+        );
+    }
+
+    @Test
+    public void testHashDifferentValuesDifferent() throws IOException {
+        this.checkNotEquals(
+                this.hash(1, "AUD", "A$"),
+                this.hash(1, "AUD", "$")
+        );
+    }
+
+    @Test
+    public void testHashStringBoundaries() throws IOException {
+        this.checkNotEquals(
+                this.hash(1, "AU", "DA$"),
+                this.hash(1, "AUD", "A$")
+        );
+    }
+
+    @Test
+    public void testHashShard() throws IOException {
+        final CurrencyDataOutputDigest digest = CurrencyDataOutputDigest.with(new DataOutputStream(new ByteArrayOutputStream()));
+        digest.writeInt(1);
+        digest.writeUTF("AUD");
+        digest.writeUTF("A$");
+        digest.shard("AUD", "$");
+
+        this.checkNotEquals(
+                this.hash(1, "AUD", "A$"),
+                digest.hash()
+        );
+    }
+
+    private String hash(final int count,
+                        final String currencyCode,
+                        final String symbol) throws IOException {
+        final CurrencyDataOutputDigest digest = CurrencyDataOutputDigest.with(new DataOutputStream(new ByteArrayOutputStream()));
+        digest.writeInt(count);
+        digest.writeUTF(currencyCode);
+        digest.writeUTF(symbol);
+        return digest.hash();
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<CurrencyDataOutputDigest> type() {
+        return CurrencyDataOutputDigest.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.j2cl.java.io.string.StringDataInputDataOutput;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class CurrencyDataOutputRecorderTest implements ClassTesting<CurrencyDataOutputRecorder> {
+
+    @Test
+    public void testWithNullFails() {
+        assertThrows(NullPointerException.class, () -> CurrencyDataOutputRecorder.with(null));
+    }
+
+    @Test
+    public void testForwards() throws IOException {
+        final StringBuilder data = new StringBuilder();
+        final CurrencyDataOutputRecorder recorder = CurrencyDataOutputRecorder.with(StringDataInputDataOutput.output(data::append));
+        write(recorder);
+
+        final StringBuilder expected = new StringBuilder();
+        write(StringDataInputDataOutput.output(expected::append));
+
+        this.checkEquals(expected.toString(), data.toString());
+    }
+
+    @Test
+    public void testReplay() throws IOException {
+        final StringBuilder data = new StringBuilder();
+        final CurrencyDataOutputRecorder recorder = CurrencyDataOutputRecorder.with(StringDataInputDataOutput.output(data::append));
+        write(recorder);
+
+        final StringBuilder replayed = new StringBuilder();
+        CurrencyDataOutputRecorder.replay(recorder.recording(), StringDataInputDataOutput.output(replayed::append));
+
+        this.checkEquals(data.toString(), replayed.toString());
+    }
+
+    @Test
+    public void testReplayNothing() throws IOException {
+        final StringBuilder replayed = new StringBuilder();
+        CurrencyDataOutputRecorder.replay(new byte[0], StringDataInputDataOutput.output(replayed::append));
+
+        this.checkEquals("", replayed.toString());
+    }
+
+    private static void write(final DataOutput data) throws IOException {
+        data.writeInt(2);
+        data.writeUTF("AUD");
+        data.writeInt(-1);
+        data.writeUTF("€");
+        data.writeUTF("a,b");
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<CurrencyDataOutputRecorder> type() {
+        return CurrencyDataOutputRecorder.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
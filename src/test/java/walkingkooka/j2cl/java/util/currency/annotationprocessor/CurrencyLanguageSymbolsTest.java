@@ -0,0 +1,110 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public final class CurrencyLanguageSymbolsTest implements ClassTesting<CurrencyLanguageSymbols> {
+
+    private final static Set<Locale> SELECTED = locales("en-AU", "en-CA", "en-GB", "en-NZ", "en-US", "fr-FR", "fr-CA");
+
+    @Test
+    public void testAllDefault() {
+        this.withAndCheck(
+                "US$",
+                Maps.empty(),
+                "{} {}"
+        );
+    }
+
+    @Test
+    public void testOverridesOnly() {
+        final Map<String, Set<Locale>> symbolToLocales = Maps.sorted();
+        symbolToLocales.put("$", locales("en-US"));
+
+        this.withAndCheck(
+                "US$",
+                symbolToLocales,
+                "{} {$=[en_US]}"
+        );
+    }
+
+    @Test
+    public void testLanguageDefault() {
+        final Map<String, Set<Locale>> symbolToLocales = Maps.sorted();
+        symbolToLocales.put("$", locales("en-AU", "en-CA", "en-NZ", "en-US"));
+        symbolToLocales.put("$US", locales("fr-CA"));
+
+        this.withAndCheck(
+                "US$",
+                symbolToLocales,
+                "{en=$} {$US=[fr_CA], US$=[en_GB]}"
+        );
+    }
+
+    @Test
+    public void testLanguageTiePrefersDefaultSymbol() {
+        final Map<String, Set<Locale>> symbolToLocales = Maps.sorted();
+        symbolToLocales.put("$US", locales("fr-CA"));
+
+        this.withAndCheck(
+                "US$",
+                symbolToLocales,
+                "{} {$US=[fr_CA]}"
+        );
+    }
+
+    private void withAndCheck(final String defaultSymbol,
+                              final Map<String, Set<Locale>> symbolToLocales,
+                              final String expected) {
+        this.checkEquals(
+                expected,
+                CurrencyLanguageSymbols.with(defaultSymbol, symbolToLocales, SELECTED)
+                        .toString(),
+                () -> defaultSymbol + " " + symbolToLocales
+        );
+    }
+
+    private static Set<Locale> locales(final String... languageTags) {
+        return Sets.of(languageTags)
+                .stream()
+                .map(Locale::forLanguageTag)
+                .collect(Collectors.toSet());
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<CurrencyLanguageSymbols> type() {
+        return CurrencyLanguageSymbols.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public final class CurrencyLocaleGroupsTest implements ClassTesting<CurrencyLocaleGroups> {
+
+    private final static Set<Locale> SELECTED = locales("de", "de-AT", "de-CH", "de-DE", "en-AU", "en-NZ");
+
+    @Test
+    public void testSelected() {
+        this.checkEquals(
+                "[de [, AT, CH, DE], en [AU, NZ]]",
+                CurrencyLocaleGroups.with(SELECTED)
+                        .selected()
+                        .toString()
+        );
+    }
+
+    @Test
+    public void testGroup() {
+        this.groupAndCheck(
+                locales("de-AT", "en-NZ"),
+                "[de [AT], en [NZ]]"
+        );
+    }
+
+    @Test
+    public void testGroupExcept() {
+        this.groupAndCheck(
+                locales("de-AT", "de-CH", "de-DE"),
+                "[de except []]"
+        );
+    }
+
+    @Test
+    public void testGroupExceptNotShorter() {
+        this.groupAndCheck(
+                locales("en-AU"),
+                "[en [AU]]"
+        );
+    }
+
+    @Test
+    public void testGroupNotSelected() {
+        this.groupAndCheck(
+                locales("fr-FR"),
+                "[fr [FR]]"
+        );
+    }
+
+    private void groupAndCheck(final Set<Locale> locales,
+                               final String expected) {
+        final List<CurrencyLocaleGroup> groups = CurrencyLocaleGroups.with(SELECTED)
+                .group(locales);
+        this.checkEquals(
+                expected,
+                groups.toString(),
+                () -> "" + locales
+        );
+    }
+
+    @Test
+    public void testLanguageTag() {
+        this.checkEquals("de-CH", CurrencyLocaleGroups.languageTag("de", "CH"));
+    }
+
+    @Test
+    public void testLanguageTagWithoutSuffix() {
+        this.checkEquals("de", CurrencyLocaleGroups.languageTag("de", ""));
+    }
+
+    @Test
+    public void testLanguage() {
+        this.checkEquals("de", CurrencyLocaleGroups.language(Locale.forLanguageTag("de-CH")));
+    }
+
+    @Test
+    public void testLanguageWithoutSuffix() {
+        this.checkEquals("de", CurrencyLocaleGroups.language(Locale.forLanguageTag("de")));
+    }
+
+    private static Set<Locale> locales(final String... languageTags) {
+        return Sets.of(languageTags)
+                .stream()
+                .map(Locale::forLanguageTag)
+                .collect(Collectors.toSet());
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<CurrencyLocaleGroups> type() {
+        return CurrencyLocaleGroups.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
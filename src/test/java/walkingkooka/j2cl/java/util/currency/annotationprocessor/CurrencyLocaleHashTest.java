@@ -0,0 +1,105 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.j2cl.locale.WalkingkookaLanguageTag;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.util.Map;
+import java.util.Map.Entry;
+
+public final class CurrencyLocaleHashTest implements ClassTesting<CurrencyLocaleHash> {
+
+    @Test
+    public void testEmpty() {
+        this.checkEquals(
+                -1,
+                CurrencyLocaleHash.with(Maps.empty())
+                        .index("en-AU")
+        );
+    }
+
+    @Test
+    public void testGerman() {
+        final Map<String, Integer> languageTagToIndex = Maps.sorted();
+        languageTagToIndex.put("de-CH", 0);
+        languageTagToIndex.put("de-LI", 0);
+        languageTagToIndex.put("de-AT", 1);
+        languageTagToIndex.put("de-BE", 1);
+        languageTagToIndex.put("de-DE", 1);
+        languageTagToIndex.put("de-IT", 1);
+        languageTagToIndex.put("de-LU", 1);
+
+        final CurrencyLocaleHash hash = CurrencyLocaleHash.with(languageTagToIndex);
+        this.checkEquals(
+                "[81, 0] [1, 1, 0, 1, 0, 1, 1]",
+                hash.toString()
+        );
+        this.indexAndCheck(hash, languageTagToIndex);
+    }
+
+    @Test
+    public void testAllLanguageTags() {
+        final Map<String, Integer> languageTagToIndex = Maps.sorted();
+        for (final String languageTag : WalkingkookaLanguageTag.all()) {
+            languageTagToIndex.put(languageTag, languageTagToIndex.size() % 100);
+        }
+
+        this.indexAndCheck(
+                CurrencyLocaleHash.with(languageTagToIndex),
+                languageTagToIndex
+        );
+    }
+
+    private void indexAndCheck(final CurrencyLocaleHash hash,
+                               final Map<String, Integer> languageTagToIndex) {
+        for (final Entry<String, Integer> languageTagAndIndex : languageTagToIndex.entrySet()) {
+            this.checkEquals(
+                    languageTagAndIndex.getValue(),
+                    hash.index(languageTagAndIndex.getKey()),
+                    languageTagAndIndex::getKey
+            );
+        }
+    }
+
+    @Test
+    public void testHashNeverNegative() {
+        for (final String languageTag : WalkingkookaLanguageTag.all()) {
+            this.checkEquals(
+                    true,
+                    CurrencyLocaleHash.hash(1, languageTag) >= 0,
+                    languageTag
+            );
+        }
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<CurrencyLocaleHash> type() {
+        return CurrencyLocaleHash.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class CurrencyLocaleIndexTest implements ClassTesting<CurrencyLocaleIndex> {
+
+    private final static Locale DE = Locale.forLanguageTag("de");
+    private final static Locale DE_AT = Locale.forLanguageTag("de-AT");
+    private final static Locale DE_CH = Locale.forLanguageTag("de-CH");
+    private final static Locale DE_DE = Locale.forLanguageTag("de-DE");
+    private final static Locale DE_LI = Locale.forLanguageTag("de-LI");
+
+    private final static Currency CHF = Currency.getInstance("CHF");
+    private final static Currency EUR = Currency.getInstance("EUR");
+
+    @Test
+    public void testCurrencyToLocales() {
+        final CurrencyLocaleIndex index = CurrencyLocaleIndex.with(Sets.of(DE_LI, DE_DE, DE_CH, DE_AT));
+
+        this.checkEquals(
+                Lists.of(CHF, EUR),
+                new ArrayList<>(index.currencyToLocales().keySet()),
+                "currencies sorted by currency code"
+        );
+        this.checkEquals(
+                Lists.of(DE_CH, DE_LI),
+                new ArrayList<>(index.currencyToLocales().get(CHF)),
+                "CHF locales"
+        );
+        this.checkEquals(
+                Lists.of(DE_AT, DE_DE),
+                new ArrayList<>(index.currencyToLocales().get(EUR)),
+                "EUR locales"
+        );
+    }
+
+    @Test
+    public void testWithoutCurrency() {
+        final CurrencyLocaleIndex index = CurrencyLocaleIndex.with(Sets.of(DE, DE_DE));
+
+        this.checkEquals(
+                Sets.of(DE),
+                index.withoutCurrency()
+        );
+        this.checkEquals(
+                Sets.of(EUR),
+                index.currencyToLocales().keySet()
+        );
+    }
+
+    @Test
+    public void testContains() {
+        final CurrencyLocaleIndex index = CurrencyLocaleIndex.with(Sets.of(DE_DE));
+
+        this.checkEquals(true, index.contains(EUR), "EUR");
+        this.checkEquals(false, index.contains(CHF), "CHF");
+    }
+
+    @Test
+    public void testImmutable() {
+        final Set<Locale> locales = CurrencyLocaleIndex.with(Sets.of(DE_DE))
+                .currencyToLocales()
+                .get(EUR);
+
+        assertThrows(
+                UnsupportedOperationException.class,
+                () -> locales.add(DE_AT)
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<CurrencyLocaleIndex> type() {
+        return CurrencyLocaleIndex.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -20,13 +20,25 @@ package walkingkooka.j2cl.java.util.currency.annotationprocessor;
 import org.junit.jupiter.api.Test;
 import walkingkooka.collect.set.Sets;
 import walkingkooka.collect.set.SortedSets;
+import walkingkooka.j2cl.java.io.string.StringDataInputDataOutput;
 import walkingkooka.reflect.ClassTesting;
 import walkingkooka.reflect.JavaVisibility;
 import walkingkooka.text.CharSequences;
+import walkingkooka.text.Indentation;
+import walkingkooka.text.LineEnding;
+import walkingkooka.text.printer.Printer;
+import walkingkooka.text.printer.Printers;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
 import java.util.Currency;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -66,6 +78,27 @@ public final class CurrencyProviderAnnotationProcessorTest implements ClassTesti
                         .collect(Collectors.toCollection(SortedSets::tree)));
     }
 
+    @Test
+    public void testCurrencyCodesWildcardExclude() {
+        final Set<String> currencyCodes = Currency.getAvailableCurrencies()
+                .stream()
+                .map(Currency::getCurrencyCode)
+                .collect(Collectors.toCollection(SortedSets::tree));
+        currencyCodes.remove("AUD");
+
+        this.currencyCodesAndCheck("*,-AUD", currencyCodes);
+    }
+
+    @Test
+    public void testCurrencyCodesExcludeOnly() {
+        this.currencyCodesAndCheck("-AUD", Sets.empty());
+    }
+
+    @Test
+    public void testCurrencyCodesExcludeAllThenInclude() {
+        this.currencyCodesAndCheck("-*,NZD,AUD", "AUD", "NZD");
+    }
+
     private void currencyCodesAndCheck(final String filter, final String... currencyCodes) {
         this.currencyCodesAndCheck(filter, Sets.of(currencyCodes));
     }
@@ -76,6 +109,139 @@ public final class CurrencyProviderAnnotationProcessorTest implements ClassTesti
                 () -> "filter " + CharSequences.quoteAndEscape(filter));
     }
 
+    @Test
+    public void testGenerateCachedHitNeverQueriesCurrencies() throws Exception {
+        final Path directory = Files.createTempDirectory(this.getClass().getSimpleName());
+        try {
+            final CurrencyProviderCache cache = CurrencyProviderCache.with(directory);
+            final CountingCurrencyProviderSource source = new CountingCurrencyProviderSource();
+            final CurrencyProviderToolOptions options = CurrencyProviderToolOptions.DEFAULT
+                    .setSource(source);
+
+            final String summary = this.generateCached(cache, options);
+            this.checkNotEquals(0, source.currencies, "generating queries currencies");
+
+            source.currencies = 0;
+            this.checkEquals(summary + ", cached", this.generateCached(cache, options), "summary");
+            this.checkEquals(0, source.currencies, "cache hit queried currencies");
+        } finally {
+            try (final Stream<Path> paths = Files.walk(directory)) {
+                paths.sorted(Comparator.reverseOrder())
+                        .forEach(p -> p.toFile().delete());
+            }
+        }
+    }
+
+    @Test
+    public void testGenerateCachedHitReplaysMetrics() throws Exception {
+        final Path directory = Files.createTempDirectory(this.getClass().getSimpleName());
+        try {
+            final CurrencyProviderCache cache = CurrencyProviderCache.with(directory);
+
+            final CurrencyProviderMetrics generated = CurrencyProviderMetrics.empty();
+            this.generateCached(cache, CurrencyProviderToolOptions.DEFAULT.setMetrics(Optional.of(generated)));
+
+            final CurrencyProviderMetrics replayed = CurrencyProviderMetrics.empty();
+            final String summary = this.generateCached(cache, CurrencyProviderToolOptions.DEFAULT.setMetrics(Optional.of(replayed)));
+            this.checkEquals(true, summary.endsWith(", cached"), summary);
+
+            this.checkEquals(generated.headerBytes(), replayed.headerBytes(), "headerBytes");
+            this.checkEquals(generated.totalBytes(), replayed.totalBytes(), "totalBytes");
+            this.checkEquals(generated.currencies().toString(), replayed.currencies().toString(), "currencies");
+            this.checkEquals(
+                    Optional.empty(),
+                    CurrencyProviderBudget.with(OptionalLong.of(generated.totalBytes()), OptionalLong.empty())
+                            .check(replayed),
+                    "within budget"
+            );
+            this.checkNotEquals(
+                    Optional.empty(),
+                    CurrencyProviderBudget.with(OptionalLong.of(generated.totalBytes() - 1), OptionalLong.empty())
+                            .check(replayed),
+                    "exceeds budget"
+            );
+        } finally {
+            try (final Stream<Path> paths = Files.walk(directory)) {
+                paths.sorted(Comparator.reverseOrder())
+                        .forEach(p -> p.toFile().delete());
+            }
+        }
+    }
+
+    private String generateCached(final CurrencyProviderCache cache,
+                                  final CurrencyProviderToolOptions options) throws Exception {
+        try (final Printer printer = Printers.stringBuilder(new StringBuilder(), LineEnding.NL)) {
+            return new CurrencyProviderAnnotationProcessor().generateCached(
+                    cache,
+                    "EN-AU",
+                    Sets.of("en-AU"),
+                    "AUD",
+                    CurrencyCodeSelector.parse("AUD"),
+                    options,
+                    StringDataInputDataOutput.output(new StringBuilder()::append),
+                    (c, s) -> {
+                        throw new AssertionError("Unexpected shard " + c);
+                    },
+                    printer.indenting(Indentation.SPACES2)
+            );
+        }
+    }
+
+    /**
+     * The JRE, counting the queries of all currencies.
+     */
+    private final static class CountingCurrencyProviderSource implements CurrencyProviderSource {
+
+        @Override
+        public CurrencyProviderSource resolve() {
+            return this;
+        }
+
+        @Override
+        public Set<Locale> locales() {
+            return CurrencyProviderJreSource.INSTANCE.locales();
+        }
+
+        @Override
+        public Set<Currency> currencies() {
+            this.currencies++;
+            return CurrencyProviderJreSource.INSTANCE.currencies();
+        }
+
+        int currencies;
+
+        @Override
+        public Currency currency(final Locale locale) {
+            return CurrencyProviderJreSource.INSTANCE.currency(locale);
+        }
+
+        @Override
+        public Currency currency(final String currencyCode) {
+            return CurrencyProviderJreSource.INSTANCE.currency(currencyCode);
+        }
+
+        @Override
+        public int defaultFractionDigits(final Currency currency) {
+            return CurrencyProviderJreSource.INSTANCE.defaultFractionDigits(currency);
+        }
+
+        @Override
+        public int numericCode(final Currency currency) {
+            return CurrencyProviderJreSource.INSTANCE.numericCode(currency);
+        }
+
+        @Override
+        public String symbol(final Currency currency,
+                             final Locale locale) {
+            return CurrencyProviderJreSource.INSTANCE.symbol(currency, locale);
+        }
+
+        @Override
+        public String toString() {
+            return CurrencyProviderJreSource.INSTANCE.toString();
+        }
+    }
+
     @Test
     public void testDefaultPublicConstructor() throws Exception {
         this.checkEquals(
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.j2cl.java.io.string.StringDataInputDataOutput;
+import walkingkooka.j2cl.locale.WalkingkookaLanguageTag;
+import walkingkooka.j2cl.locale.annotationprocessor.LocaleAwareAnnotationProcessor;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.text.CharSequences;
+import walkingkooka.text.LineEnding;
+import walkingkooka.text.printer.Printer;
+import walkingkooka.text.printer.Printers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class CurrencyProviderBatchTest implements ClassTesting<CurrencyProviderBatch> {
+
+    @Test
+    public void testWith() {
+        final Properties properties = new Properties();
+        properties.setProperty("NZ.locales", "EN-NZ");
+        properties.setProperty("NZ.output", "nz.txt");
+        properties.setProperty("DE.locales", "DE*");
+        properties.setProperty("DE.currencies", "-*,EUR");
+        properties.setProperty("DE.features", "STRING_TABLE");
+        properties.setProperty("DE.output", "de.txt");
+
+        this.checkEquals(
+                "[DE locales=DE* currencies=-*,EUR features=[STRING_TABLE] output=de.txt, NZ locales=EN-NZ currencies=XXX features=[] output=nz.txt]",
+                CurrencyProviderBatch.with(properties)
+                        .toString()
+        );
+    }
+
+    @Test
+    public void testWithMissingOutputFails() {
+        final Properties properties = new Properties();
+        properties.setProperty("NZ.locales", "EN-NZ");
+
+        assertThrows(IllegalArgumentException.class, () -> CurrencyProviderBatch.with(properties));
+    }
+
+    @Test
+    public void testWithShardsFails() {
+        final Properties properties = new Properties();
+        properties.setProperty("NZ.locales", "EN-NZ");
+        properties.setProperty("NZ.features", "SHARDS");
+        properties.setProperty("NZ.output", "nz.txt");
+
+        assertThrows(IllegalArgumentException.class, () -> CurrencyProviderBatch.with(properties));
+    }
+
+    @Test
+    public void testRun() throws IOException {
+        final Path directory = Files.createTempDirectory(this.getClass().getSimpleName());
+        try {
+            final Properties properties = new Properties();
+            properties.setProperty("NZ.locales", "EN-NZ");
+            properties.setProperty("NZ.output", directory.resolve("nz.txt").toString());
+            properties.setProperty("DE.locales", "DE*");
+            properties.setProperty("DE.currencies", "");
+            properties.setProperty("DE.output", directory.resolve("nested").resolve("de.txt").toString());
+
+            final List<String> log = Lists.array();
+            CurrencyProviderBatch.with(properties)
+                    .run(CurrencyProviderToolOptions.DEFAULT, log::add);
+
+            this.checkEquals(2, log.size(), () -> "" + log);
+            this.checkEquals(
+                    generate("EN-NZ", "XXX"),
+                    new String(Files.readAllBytes(directory.resolve("nz.txt")), StandardCharsets.UTF_8),
+                    "NZ"
+            );
+            this.checkEquals(
+                    generate("DE*", ""),
+                    new String(Files.readAllBytes(directory.resolve("nested").resolve("de.txt")), StandardCharsets.UTF_8),
+                    "DE"
+            );
+        } finally {
+            delete(directory);
+        }
+    }
+
+    private static String generate(final String filter,
+                                   final String currencyCode) throws IOException {
+        final StringBuilder data = new StringBuilder();
+        final StringBuilder text = new StringBuilder();
+
+        try (final Printer printer = Printers.stringBuilder(text, LineEnding.NL)) {
+            CurrencyProviderTool.generate(WalkingkookaLanguageTag.all(filter),
+                    currencyCode.isEmpty() ? Sets.empty() : Sets.of(currencyCode),
+                    StringDataInputDataOutput.output(data::append),
+                    LocaleAwareAnnotationProcessor.comments(printer));
+            printer.print(CharSequences.quoteAndEscape(data));
+            printer.flush();
+        }
+
+        return text.toString();
+    }
+
+    private static void delete(final Path directory) throws IOException {
+        try (final Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder())
+                    .forEach(p -> p.toFile().delete());
+        }
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<CurrencyProviderBatch> type() {
+        return CurrencyProviderBatch.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.util.Optional;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class CurrencyProviderBudgetTest implements ClassTesting<CurrencyProviderBudget> {
+
+    @Test
+    public void testWithNegativeTotalFails() {
+        assertThrows(IllegalArgumentException.class, () -> CurrencyProviderBudget.with(OptionalLong.of(-1), OptionalLong.empty()));
+    }
+
+    @Test
+    public void testWithNegativeCurrencyFails() {
+        assertThrows(IllegalArgumentException.class, () -> CurrencyProviderBudget.with(OptionalLong.empty(), OptionalLong.of(-1)));
+    }
+
+    @Test
+    public void testIsEmpty() {
+        this.checkEquals(true, CurrencyProviderBudget.with(OptionalLong.empty(), OptionalLong.empty()).isEmpty());
+    }
+
+    @Test
+    public void testWithinBudget() {
+        this.checkAndCheck(OptionalLong.of(25),
+                OptionalLong.of(15),
+                Optional.empty());
+    }
+
+    @Test
+    public void testTotalExceeded() {
+        this.checkAndCheck(OptionalLong.of(24),
+                OptionalLong.empty(),
+                Optional.of("DATA 25 bytes exceeds budget 24 bytes, largest EUR 15 bytes 5 locales 1 symbols, AUD 6 bytes 1 locales 0 symbols"));
+    }
+
+    @Test
+    public void testCurrencyExceeded() {
+        this.checkAndCheck(OptionalLong.empty(),
+                OptionalLong.of(5),
+                Optional.of("EUR 15 bytes exceeds currency budget 5 bytes, AUD 6 bytes exceeds currency budget 5 bytes, largest EUR 15 bytes 5 locales 1 symbols, AUD 6 bytes 1 locales 0 symbols"));
+    }
+
+    @Test
+    public void testTotalAndCurrencyExceeded() {
+        this.checkAndCheck(OptionalLong.of(1),
+                OptionalLong.of(10),
+                Optional.of("DATA 25 bytes exceeds budget 1 bytes, EUR 15 bytes exceeds currency budget 10 bytes, largest EUR 15 bytes 5 locales 1 symbols, AUD 6 bytes 1 locales 0 symbols"));
+    }
+
+    private void checkAndCheck(final OptionalLong total,
+                               final OptionalLong currency,
+                               final Optional<String> expected) {
+        final CurrencyProviderMetrics metrics = CurrencyProviderMetrics.empty();
+        metrics.header(4);
+        metrics.currency("AUD", 1, 0, 5, 1, 0);
+        metrics.currency("EUR", 5, 1, 6, 6, 3);
+
+        this.checkEquals(expected,
+                CurrencyProviderBudget.with(total, currency).check(metrics));
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<CurrencyProviderBudget> type() {
+        return CurrencyProviderBudget.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.j2cl.java.io.string.StringDataInputDataOutput;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.text.Indentation;
+import walkingkooka.text.LineEnding;
+import walkingkooka.text.printer.Printer;
+import walkingkooka.text.printer.Printers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+public final class CurrencyProviderCacheTest implements ClassTesting<CurrencyProviderCache> {
+
+    @Test
+    public void testKeySame() {
+        this.checkEquals(
+                CurrencyProviderCache.key(Lists.of("EN*", "AUD")),
+                CurrencyProviderCache.key(Lists.of("EN*", "AUD"))
+        );
+    }
+
+    @Test
+    public void testKeyDifferent() {
+        this.checkNotEquals(
+                CurrencyProviderCache.key(Lists.of("EN*", "AUD")),
+                CurrencyProviderCache.key(Lists.of("EN*", "NZD"))
+        );
+    }
+
+    @Test
+    public void testKeyPartsSeparated() {
+        this.checkNotEquals(
+                CurrencyProviderCache.key(Lists.of("EN", "*AUD")),
+                CurrencyProviderCache.key(Lists.of("EN*", "AUD"))
+        );
+    }
+
+    @Test
+    public void testLoadMissing() throws IOException {
+        final Path directory = Files.createTempDirectory(this.getClass().getSimpleName());
+        try {
+            this.checkEquals(
+                    Optional.empty(),
+                    CurrencyProviderCache.with(directory)
+                            .load("missing")
+            );
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        final Path directory = Files.createTempDirectory(this.getClass().getSimpleName());
+        try {
+            final CurrencyProviderCache cache = CurrencyProviderCache.with(directory.resolve("nested"));
+            final byte[] data = new byte[]{1, 2, 3};
+
+            final CurrencyProviderMetrics metrics = CurrencyProviderMetrics.empty();
+            metrics.header(12);
+            metrics.currency("AUD", 1, 2, 3, 4, 5);
+            metrics.currency("NZD", 6, 7, 8, 9, 10);
+
+            cache.save("key1", CurrencyProviderCacheEntry.with("summary1", "comments1\n  indented", data, metrics));
+
+            final CurrencyProviderCacheEntry loaded = cache.load("key1")
+                    .orElseThrow(() -> new AssertionError("entry missing"));
+            this.checkEquals("summary1", loaded.summary(), "summary");
+            this.checkEquals("comments1\n  indented", loaded.comments(), "comments");
+            assertArrayEquals(data, loaded.data(), "data");
+
+            final CurrencyProviderMetrics replayed = CurrencyProviderMetrics.empty();
+            loaded.replayMetrics(replayed);
+            this.checkEquals(metrics.headerBytes(), replayed.headerBytes(), "headerBytes");
+            this.checkEquals(metrics.totalBytes(), replayed.totalBytes(), "totalBytes");
+            this.checkEquals(
+                    metrics.currencies()
+                            .stream()
+                            .map(c -> c.currencyCode() + " " + c.localeCount() + " " + c.symbolCount() + " " + c.attributes() + " " + c.locales() + " " + c.symbols())
+                            .collect(Collectors.toList()),
+                    replayed.currencies()
+                            .stream()
+                            .map(c -> c.currencyCode() + " " + c.localeCount() + " " + c.symbolCount() + " " + c.attributes() + " " + c.locales() + " " + c.symbols())
+                            .collect(Collectors.toList()),
+                    "currencies"
+            );
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void testSaveGenerateAndReplay() throws IOException {
+        final Path directory = Files.createTempDirectory(this.getClass().getSimpleName());
+        try {
+            final StringBuilder data = new StringBuilder();
+            final StringBuilder comments = new StringBuilder();
+            final CurrencyDataOutputRecorder recorder = CurrencyDataOutputRecorder.with(StringDataInputDataOutput.output(data::append));
+
+            try (final Printer printer = Printers.stringBuilder(comments, LineEnding.NL)) {
+                CurrencyProviderTool.generate(
+                        Sets.of("en-AU"),
+                        Sets.empty(),
+                        recorder,
+                        printer.indenting(Indentation.SPACES2)
+                );
+                printer.flush();
+            }
+
+            final CurrencyProviderCache cache = CurrencyProviderCache.with(directory);
+            cache.save("key2", CurrencyProviderCacheEntry.with("summary2", comments.toString(), recorder.recording(), CurrencyProviderMetrics.empty()));
+
+            final StringBuilder replayedData = new StringBuilder();
+            final StringBuilder replayedComments = new StringBuilder();
+            try (final Printer printer = Printers.stringBuilder(replayedComments, LineEnding.NL)) {
+                this.checkEquals(
+                        "summary2",
+                        cache.load("key2")
+                                .orElseThrow(() -> new AssertionError("entry missing"))
+                                .replay(StringDataInputDataOutput.output(replayedData::append), printer.indenting(Indentation.SPACES2))
+                );
+                printer.flush();
+            }
+
+            this.checkEquals(data.toString(), replayedData.toString(), "data");
+            this.checkEquals(comments.toString(), replayedComments.toString(), "comments");
+        } finally {
+            delete(directory);
+        }
+    }
+
+    private static void delete(final Path directory) throws IOException {
+        try (final Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder())
+                    .forEach(p -> p.toFile().delete());
+        }
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<CurrencyProviderCache> type() {
+        return CurrencyProviderCache.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class CurrencyProviderCommentLevelTest implements ClassTesting<CurrencyProviderCommentLevel> {
+
+    @Test
+    public void testParse() {
+        this.checkEquals(CurrencyProviderCommentLevel.SUMMARY, CurrencyProviderCommentLevel.parse("SUMMARY"));
+    }
+
+    @Test
+    public void testParseCaseInsensitive() {
+        this.checkEquals(CurrencyProviderCommentLevel.NONE, CurrencyProviderCommentLevel.parse(" none "));
+    }
+
+    @Test
+    public void testParseUnknownFails() {
+        assertThrows(IllegalArgumentException.class, () -> CurrencyProviderCommentLevel.parse("unknown"));
+    }
+
+    @Test
+    public void testHasDetails() {
+        this.checkEquals(true, CurrencyProviderCommentLevel.FULL.hasDetails(), "FULL");
+        this.checkEquals(false, CurrencyProviderCommentLevel.SUMMARY.hasDetails(), "SUMMARY");
+        this.checkEquals(false, CurrencyProviderCommentLevel.NONE.hasDetails(), "NONE");
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<CurrencyProviderCommentLevel> type() {
+        return CurrencyProviderCommentLevel.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
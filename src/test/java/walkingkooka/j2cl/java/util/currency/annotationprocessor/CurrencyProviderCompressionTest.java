@@ -0,0 +1,80 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public final class CurrencyProviderCompressionTest implements ClassTesting<CurrencyProviderCompression> {
+
+    @Test
+    public void testWithRaw() throws IOException {
+        this.checkEquals(
+                6,
+                CurrencyProviderCompression.with(CurrencyProviderRecordOrder.CURRENCY_CODE, "1,AUD€")
+                        .raw()
+        );
+    }
+
+    @Test
+    public void testWithRepeatedCompresses() throws IOException {
+        final CurrencyProviderCompression compression = CurrencyProviderCompression.with(
+                CurrencyProviderRecordOrder.CURRENCY_CODE,
+                "en-AU,".repeat(100)
+        );
+
+        this.checkEquals(600, compression.raw(), "raw");
+        this.checkEquals(true, compression.gzip() < compression.raw(), () -> "gzip " + compression);
+        this.checkEquals(true, compression.deflate() < compression.gzip(), () -> "deflate " + compression);
+    }
+
+    @Test
+    public void testMeasure() throws IOException {
+        final List<CurrencyProviderCompression> measured = CurrencyProviderCompression.measure(
+                Sets.of("de-AT", "de-CH", "fr-FR"),
+                Sets.of("XXX"),
+                CurrencyProviderToolOptions.DEFAULT
+        );
+
+        this.checkEquals(
+                "[CURRENCY_CODE, LOCALE_FAMILY]",
+                measured.stream()
+                        .map(CurrencyProviderCompression::order)
+                        .collect(Collectors.toList())
+                        .toString()
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<CurrencyProviderCompression> type() {
+        return CurrencyProviderCompression.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
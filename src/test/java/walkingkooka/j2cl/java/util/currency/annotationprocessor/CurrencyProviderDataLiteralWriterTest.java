@@ -0,0 +1,220 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.j2cl.java.io.string.StringDataInputDataOutput;
+import walkingkooka.j2cl.locale.WalkingkookaLanguageTag;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.text.Indentation;
+import walkingkooka.text.LineEnding;
+import walkingkooka.text.printer.Printers;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class CurrencyProviderDataLiteralWriterTest implements ClassTesting<CurrencyProviderDataLiteralWriter> {
+
+    @Test
+    public void testWithNullOutputFails() {
+        assertThrows(NullPointerException.class, () -> CurrencyProviderDataLiteralWriter.with(null, 10));
+    }
+
+    @Test
+    public void testWithChunkBytesTooSmallFails() {
+        assertThrows(IllegalArgumentException.class, () -> CurrencyProviderDataLiteralWriter.with(new StringBuilder(), CurrencyProviderDataLiteralWriter.MIN_CHUNK_BYTES - 1));
+    }
+
+    @Test
+    public void testWithChunkBytesTooLargeFails() {
+        assertThrows(IllegalArgumentException.class, () -> CurrencyProviderDataLiteralWriter.with(new StringBuilder(), CurrencyProviderDataLiteralWriter.MAX_CHUNK_BYTES + 1));
+    }
+
+    @Test
+    public void testEmpty() throws IOException {
+        this.writeAndCheck(10,
+                "preventInlining(\"\")");
+    }
+
+    @Test
+    public void testSingleChunk() throws IOException {
+        this.writeAndCheck(10,
+                "preventInlining(\"2,AUD,2\")",
+                "2,", "AUD,", "2");
+    }
+
+    @Test
+    public void testEscaped() throws IOException {
+        this.writeAndCheck(20,
+                "preventInlining(\"\\\"\\\\\\n\\t\\u20ac\\u0000\")",
+                "\"\\\n\t€\0");
+    }
+
+    @Test
+    public void testSeveralChunks() throws IOException {
+        this.writeAndCheck(6,
+                "preventInlining(\"abcdef\") +\n      preventInlining(\"ghi\")",
+                "abc", "defghi");
+    }
+
+    @Test
+    public void testChunkCountsUtf8Bytes() throws IOException {
+        // € is 3 bytes
+        this.writeAndCheck(6,
+                "preventInlining(\"a\\u20ac\") +\n      preventInlining(\"\\u20acb\")",
+                "a€€b");
+    }
+
+    @Test
+    public void testSurrogatePairNeverSplit() throws IOException {
+        this.writeAndCheck(6,
+                "preventInlining(\"a\") +\n      preventInlining(\"\\ud83d\\ude00\") +\n      preventInlining(\"b\")",
+                "a\uD83D\uDE00b");
+    }
+
+    @Test
+    public void testSurrogatePairSplitAcrossAppends() throws IOException {
+        this.writeAndCheck(7,
+                "preventInlining(\"ab\") +\n      preventInlining(\"\\ud83d\\ude00c\")",
+                "ab\uD83D", "\uDE00c");
+    }
+
+    @Test
+    public void testAllLocalesDataSplitUnderConstantPoolLimit() throws IOException {
+        final Set<String> languageTags = WalkingkookaLanguageTag.all("*");
+
+        final StringBuilder data = new StringBuilder();
+        generate(languageTags, StringDataInputDataOutput.output(data::append));
+        this.checkEquals(true, data.length() > CurrencyProviderDataLiteralWriter.MAX_CHUNK_BYTES, () -> "DATA length " + data.length());
+
+        final StringBuilder source = new StringBuilder();
+        try (final CurrencyProviderDataLiteralWriter writer = CurrencyProviderDataLiteralWriter.with(source, CurrencyProviderDataLiteralWriter.DEFAULT_CHUNK_BYTES)) {
+            generate(languageTags, StringDataInputDataOutput.output(writer::append));
+        }
+
+        final String[] literals = source.toString()
+                .split(Pattern.quote(" +\n      "));
+        this.checkNotEquals(1, literals.length, "literals");
+
+        final StringBuilder unescaped = new StringBuilder();
+        for (final String literal : literals) {
+            final String text = unescape(literal);
+            final int bytes = modifiedUtf8Bytes(text);
+            this.checkEquals(true, bytes <= CurrencyProviderDataLiteralWriter.DEFAULT_CHUNK_BYTES, () -> "literal bytes " + bytes);
+            this.checkEquals(true, bytes < CurrencyProviderDataLiteralWriter.MAX_CHUNK_BYTES, () -> "literal bytes " + bytes);
+            unescaped.append(text);
+        }
+
+        this.checkEquals(data.toString(), unescaped.toString(), "DATA");
+    }
+
+    private static void generate(final Set<String> languageTags,
+                                 final DataOutput data) throws IOException {
+        CurrencyProviderTool.generate(languageTags,
+                Sets.empty(),
+                data,
+                Printers.sink(LineEnding.NONE)
+                        .indenting(Indentation.SPACES2));
+    }
+
+    /**
+     * Removes the surrounding method call and quotes and reverses the escaping of a single literal.
+     */
+    private static String unescape(final String literal) {
+        final String prefix = "preventInlining(\"";
+        final String suffix = "\")";
+        if (false == literal.startsWith(prefix) || false == literal.endsWith(suffix)) {
+            throw new AssertionError("Invalid literal " + literal);
+        }
+
+        final String escaped = literal.substring(prefix.length(), literal.length() - suffix.length());
+        final StringBuilder text = new StringBuilder();
+
+        for (int i = 0; i < escaped.length(); i++) {
+            char c = escaped.charAt(i);
+            if ('\\' == c) {
+                i++;
+                c = escaped.charAt(i);
+                switch (c) {
+                    case 'n':
+                        c = '\n';
+                        break;
+                    case 'r':
+                        c = '\r';
+                        break;
+                    case 't':
+                        c = '\t';
+                        break;
+                    case 'u':
+                        c = (char) Integer.parseInt(escaped.substring(i + 1, i + 5), 16);
+                        i += 4;
+                        break;
+                    default:
+                        break;
+                }
+            }
+            text.append(c);
+        }
+
+        return text.toString();
+    }
+
+    private static int modifiedUtf8Bytes(final String text) {
+        int bytes = 0;
+        for (final char c : text.toCharArray()) {
+            bytes += c >= 0x1 && c <= 0x7f ?
+                    1 :
+                    c <= 0x7ff ?
+                            2 :
+                            3;
+        }
+        return bytes;
+    }
+
+    private void writeAndCheck(final int chunkBytes,
+                               final String expected,
+                               final String... texts) throws IOException {
+        final StringBuilder output = new StringBuilder();
+
+        try (final CurrencyProviderDataLiteralWriter writer = CurrencyProviderDataLiteralWriter.with(output, chunkBytes)) {
+            for (final String text : texts) {
+                writer.append(text);
+            }
+        }
+
+        this.checkEquals(expected, output.toString());
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<CurrencyProviderDataLiteralWriter> type() {
+        return CurrencyProviderDataLiteralWriter.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
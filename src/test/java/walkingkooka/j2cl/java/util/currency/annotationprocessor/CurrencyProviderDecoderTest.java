@@ -0,0 +1,381 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.collect.set.SortedSets;
+import walkingkooka.j2cl.java.io.string.StringDataInputDataOutput;
+import walkingkooka.j2cl.locale.WalkingkookaLanguageTag;
+import walkingkooka.j2cl.locale.annotationprocessor.LocaleAwareAnnotationProcessorTool;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.text.Indentation;
+import walkingkooka.text.LineEnding;
+import walkingkooka.text.printer.Printers;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class CurrencyProviderDecoderTest implements ClassTesting<CurrencyProviderDecoder> {
+
+    private final static String GERMAN = "DE-AT,DE-BE,DE-CH,DE-DE,DE-IT,DE-LI,DE-LU";
+
+    private final static String GERMAN_DECODED = "[CHF 2 756 CHF [de_CH, de_LI] {} {}, EUR 2 978 € [de_AT, de_BE, de_DE, de_IT, de_LU] {} {EUR=[de_CH, de_LI]}]";
+
+    @Test
+    public void testDecodeUnsupportedVersionFails() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> CurrencyProviderDecoder.decode(StringDataInputDataOutput.input("-1"))
+        );
+    }
+
+    @Test
+    public void testDecodeStringTableAndSymbolPoolFails() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> CurrencyProviderDecoder.decode(
+                        StringDataInputDataOutput.input(
+                                CurrencyProviderFeature.VERSION + "," +
+                                        CurrencyProviderFeature.bits(EnumSet.of(CurrencyProviderFeature.STRING_TABLE, CurrencyProviderFeature.SYMBOL_POOL)) +
+                                        ",0"
+                        )
+                )
+        );
+    }
+
+    @Test
+    public void testDecodeShardsWithoutShardsFails() throws IOException {
+        final StringBuilder data = new StringBuilder();
+        CurrencyProviderTool.generate(languageTags(GERMAN),
+                Sets.empty(),
+                CurrencyProviderToolOptions.DEFAULT
+                        .setFeatures(EnumSet.of(CurrencyProviderFeature.SHARDS)),
+                StringDataInputDataOutput.output(data::append),
+                (c, s) -> {
+                },
+                Printers.sink(LineEnding.NONE)
+                        .indenting(Indentation.SPACES2));
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> CurrencyProviderDecoder.decode(StringDataInputDataOutput.input(data.toString()))
+        );
+    }
+
+    @Test
+    public void testDecodeOffsetTableWithoutTextFails() throws IOException {
+        final String data = generate(
+                languageTags(GERMAN),
+                EnumSet.of(CurrencyProviderFeature.OFFSET_TABLE),
+                Maps.sorted()
+        );
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> CurrencyProviderDecoder.decode(StringDataInputDataOutput.input(data))
+        );
+    }
+
+    @Test
+    public void testDecodeGerman() throws IOException {
+        this.decodeAndCheck(
+                GERMAN,
+                EnumSet.noneOf(CurrencyProviderFeature.class),
+                GERMAN_DECODED
+        );
+    }
+
+    @Test
+    public void testDecodeGermanStringTableGroupedLocales() throws IOException {
+        this.decodeAndCheck(
+                GERMAN,
+                EnumSet.of(CurrencyProviderFeature.STRING_TABLE, CurrencyProviderFeature.GROUPED_LOCALES),
+                GERMAN_DECODED
+        );
+    }
+
+    @Test
+    public void testDecodeGermanOffsetTableLookupColumnsLocaleHash() throws IOException {
+        this.decodeAndCheck(
+                GERMAN,
+                EnumSet.of(CurrencyProviderFeature.OFFSET_TABLE, CurrencyProviderFeature.LOOKUP_COLUMNS, CurrencyProviderFeature.LOCALE_HASH),
+                GERMAN_DECODED
+        );
+    }
+
+    @Test
+    public void testDecodeGermanLanguageSymbols() throws IOException {
+        this.decodeAndCheck(
+                GERMAN,
+                EnumSet.of(CurrencyProviderFeature.LANGUAGE_SYMBOLS),
+                GERMAN_DECODED
+        );
+    }
+
+    @Test
+    public void testDecodeGermanCompactInts() throws IOException {
+        this.decodeAndCheck(
+                GERMAN,
+                EnumSet.of(CurrencyProviderFeature.COMPACT_INTS),
+                GERMAN_DECODED
+        );
+    }
+
+    @Test
+    public void testRoundTripEnglish() throws IOException {
+        this.roundTripAndCheck(
+                "EN*",
+                EnumSet.noneOf(CurrencyProviderFeature.class)
+        );
+    }
+
+    @Test
+    public void testRoundTripEnglishStringTableGroupedLocales() throws IOException {
+        this.roundTripAndCheck(
+                "EN*",
+                EnumSet.of(CurrencyProviderFeature.STRING_TABLE, CurrencyProviderFeature.GROUPED_LOCALES)
+        );
+    }
+
+    @Test
+    public void testRoundTripEnglishSymbolPoolLanguageSymbols() throws IOException {
+        this.roundTripAndCheck(
+                "EN*",
+                EnumSet.of(CurrencyProviderFeature.SYMBOL_POOL, CurrencyProviderFeature.GROUPED_LOCALES, CurrencyProviderFeature.LANGUAGE_SYMBOLS)
+        );
+    }
+
+    @Test
+    public void testRoundTripEnglishShards() throws IOException {
+        this.roundTripAndCheck(
+                "EN*",
+                EnumSet.of(CurrencyProviderFeature.SHARDS, CurrencyProviderFeature.STRING_TABLE, CurrencyProviderFeature.LANGUAGE_SYMBOLS)
+        );
+    }
+
+    @Test
+    public void testRoundTripEnglishShardsOffsetTable() throws IOException {
+        this.roundTripAndCheck(
+                "EN*",
+                EnumSet.of(CurrencyProviderFeature.SHARDS, CurrencyProviderFeature.OFFSET_TABLE)
+        );
+    }
+
+    @Test
+    public void testRoundTripAll() throws IOException {
+        this.roundTripAndCheck(
+                "*",
+                EnumSet.noneOf(CurrencyProviderFeature.class)
+        );
+    }
+
+    @Test
+    public void testRoundTripAllEveryFeature() throws IOException {
+        this.roundTripAndCheck(
+                "*",
+                EnumSet.of(CurrencyProviderFeature.STRING_TABLE,
+                        CurrencyProviderFeature.GROUPED_LOCALES,
+                        CurrencyProviderFeature.LANGUAGE_SYMBOLS,
+                        CurrencyProviderFeature.OFFSET_TABLE,
+                        CurrencyProviderFeature.LOOKUP_COLUMNS,
+                        CurrencyProviderFeature.LOCALE_HASH)
+        );
+    }
+
+    @Test
+    public void testRoundTripEnglishShardsOffsetTableCompactInts() throws IOException {
+        this.roundTripAndCheck(
+                "EN*",
+                EnumSet.of(CurrencyProviderFeature.SHARDS, CurrencyProviderFeature.OFFSET_TABLE, CurrencyProviderFeature.COMPACT_INTS)
+        );
+    }
+
+    @Test
+    public void testRoundTripAllCompactInts() throws IOException {
+        this.roundTripAndCheck(
+                "*",
+                EnumSet.of(CurrencyProviderFeature.STRING_TABLE,
+                        CurrencyProviderFeature.GROUPED_LOCALES,
+                        CurrencyProviderFeature.LANGUAGE_SYMBOLS,
+                        CurrencyProviderFeature.OFFSET_TABLE,
+                        CurrencyProviderFeature.LOOKUP_COLUMNS,
+                        CurrencyProviderFeature.LOCALE_HASH,
+                        CurrencyProviderFeature.COMPACT_INTS)
+        );
+    }
+
+    @Test
+    public void testCompactIntsShorterEscapedText() throws IOException {
+        final Set<String> languageTags = WalkingkookaLanguageTag.all("*");
+        final Set<CurrencyProviderFeature> features = EnumSet.of(CurrencyProviderFeature.STRING_TABLE,
+                CurrencyProviderFeature.GROUPED_LOCALES,
+                CurrencyProviderFeature.LANGUAGE_SYMBOLS,
+                CurrencyProviderFeature.OFFSET_TABLE,
+                CurrencyProviderFeature.LOOKUP_COLUMNS,
+                CurrencyProviderFeature.LOCALE_HASH);
+        final Set<CurrencyProviderFeature> compactFeatures = EnumSet.copyOf(features);
+        compactFeatures.add(CurrencyProviderFeature.COMPACT_INTS);
+
+        final String data = generate(languageTags, features, Maps.sorted());
+        final String compact = generate(languageTags, compactFeatures, Maps.sorted());
+
+        final long length = CurrencyProviderDataLiteralWriter.escapedLength(data);
+        final long compactLength = CurrencyProviderDataLiteralWriter.escapedLength(compact);
+        this.checkEquals(
+                true,
+                compactLength < length,
+                () -> "escaped DATA " + compactLength + " with " + CurrencyProviderFeature.COMPACT_INTS + " should be shorter than " + length
+        );
+
+        this.checkEquals(
+                CurrencyProviderDecoder.decode(data)
+                        .values()
+                        .toString(),
+                CurrencyProviderDecoder.decode(compact)
+                        .values()
+                        .toString(),
+                "decoded"
+        );
+    }
+
+    private void decodeAndCheck(final String languageTags,
+                                final Set<CurrencyProviderFeature> features,
+                                final String expected) throws IOException {
+        this.checkEquals(
+                expected,
+                decode(languageTags(languageTags), features)
+                        .values()
+                        .toString(),
+                () -> languageTags + " " + features
+        );
+    }
+
+    /**
+     * Decodes the generated {@code DATA} and checks every currency, locale and symbol against the JRE.
+     */
+    private void roundTripAndCheck(final String filter,
+                                   final Set<CurrencyProviderFeature> features) throws IOException {
+        final Set<String> languageTags = WalkingkookaLanguageTag.all(filter);
+        final Map<String, CurrencyDecodedRecord> decoded = decode(languageTags, features);
+
+        final Map<String, Set<Locale>> currencyToLocales = Maps.sorted();
+        for (final String languageTag : languageTags) {
+            final Locale locale = Locale.forLanguageTag(languageTag);
+            final Currency currency = currency(locale);
+            if (null != currency) {
+                currencyToLocales.computeIfAbsent(
+                        currency.getCurrencyCode(),
+                        c -> SortedSets.tree(LocaleAwareAnnotationProcessorTool.LOCALE_COMPARATOR)
+                ).add(locale);
+            }
+        }
+
+        this.checkEquals(
+                currencyToLocales.keySet(),
+                decoded.keySet()
+                        .stream()
+                        .collect(Collectors.toCollection(SortedSets::tree)),
+                () -> filter + " " + features + " currency codes"
+        );
+
+        for (final CurrencyDecodedRecord record : decoded.values()) {
+            final String currencyCode = record.currencyCode();
+            final Currency currency = Currency.getInstance(currencyCode);
+
+            this.checkEquals(currency.getDefaultFractionDigits(), record.defaultFractionDigits(), () -> currencyCode + " defaultFractionDigits");
+            this.checkEquals(currency.getNumericCode(), record.numericCode(), () -> currencyCode + " numericCode");
+            this.checkEquals(currencyToLocales.get(currencyCode), record.locales(), () -> currencyCode + " locales");
+
+            for (final String languageTag : languageTags) {
+                final Locale locale = Locale.forLanguageTag(languageTag);
+                this.checkEquals(
+                        currency.getSymbol(locale),
+                        record.symbol(locale),
+                        () -> currencyCode + " symbol " + languageTag + " " + features
+                );
+            }
+        }
+    }
+
+    private static Currency currency(final Locale locale) {
+        try {
+            return Currency.getInstance(locale);
+        } catch (final IllegalArgumentException unsupported) {
+            return null;
+        }
+    }
+
+    private static Map<String, CurrencyDecodedRecord> decode(final Set<String> languageTags,
+                                                             final Set<CurrencyProviderFeature> features) throws IOException {
+        final Map<String, String> shards = Maps.sorted();
+        final String data = generate(languageTags, features, shards);
+
+        return CurrencyProviderDecoder.decode(
+                data,
+                c -> StringDataInputDataOutput.input(shards.get(c))
+        );
+    }
+
+    /**
+     * Returns the text form of {@code DATA}, any shards are added to the given {@link Map}.
+     */
+    private static String generate(final Set<String> languageTags,
+                                   final Set<CurrencyProviderFeature> features,
+                                   final Map<String, String> shards) throws IOException {
+        final StringBuilder data = new StringBuilder();
+
+        CurrencyProviderTool.generate(languageTags,
+                Sets.empty(),
+                CurrencyProviderToolOptions.DEFAULT
+                        .setFeatures(features),
+                StringDataInputDataOutput.output(data::append),
+                shards::put,
+                Printers.sink(LineEnding.NONE)
+                        .indenting(Indentation.SPACES2));
+
+        return data.toString();
+    }
+
+    private static Set<String> languageTags(final String languageTags) {
+        return Arrays.stream(languageTags.split(","))
+                .collect(Collectors.toCollection(Sets::ordered));
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<CurrencyProviderDecoder> type() {
+        return CurrencyProviderDecoder.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class CurrencyProviderFeatureTest implements ClassTesting<CurrencyProviderFeature> {
+
+    @Test
+    public void testBitsUnique() {
+        int all = 0;
+
+        for (final CurrencyProviderFeature feature : CurrencyProviderFeature.values()) {
+            this.checkEquals(1, Integer.bitCount(feature.bit), () -> feature + " bit");
+            this.checkEquals(0, all & feature.bit, () -> feature + " bit reused");
+            all |= feature.bit;
+        }
+    }
+
+    @Test
+    public void testBitsAndFromBitsRoundtrip() {
+        final Set<CurrencyProviderFeature> all = EnumSet.allOf(CurrencyProviderFeature.class);
+
+        this.checkEquals(
+                all,
+                CurrencyProviderFeature.fromBits(CurrencyProviderFeature.bits(all))
+        );
+    }
+
+    @Test
+    public void testBitsEmpty() {
+        this.checkEquals(0, CurrencyProviderFeature.bits(Sets.empty()));
+    }
+
+    @Test
+    public void testFromBitsUnknownFails() {
+        assertThrows(IllegalArgumentException.class, () -> CurrencyProviderFeature.fromBits(1 << 30));
+    }
+
+    @Test
+    public void testParseEmpty() {
+        this.checkEquals(Sets.empty(), CurrencyProviderFeature.parse(""));
+    }
+
+    @Test
+    public void testParse() {
+        this.checkEquals(
+                EnumSet.of(CurrencyProviderFeature.STRING_TABLE),
+                CurrencyProviderFeature.parse(" string_table ")
+        );
+    }
+
+    @Test
+    public void testParseUnknownFails() {
+        assertThrows(IllegalArgumentException.class, () -> CurrencyProviderFeature.parse("UNKNOWN"));
+    }
+
+    @Test
+    public void testVersionNegative() {
+        this.checkEquals(true, CurrencyProviderFeature.VERSION < 0);
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<CurrencyProviderFeature> type() {
+        return CurrencyProviderFeature.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
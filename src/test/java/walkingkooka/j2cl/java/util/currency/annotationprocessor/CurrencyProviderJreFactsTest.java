@@ -0,0 +1,122 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.util.Currency;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public final class CurrencyProviderJreFactsTest implements ClassTesting<CurrencyProviderJreFacts> {
+
+    private final static Currency EUR = Currency.getInstance("EUR");
+
+    private final static Locale DE_CH = Locale.forLanguageTag("de-CH");
+
+    @Test
+    public void testCurrentSame() {
+        assertSame(
+                CurrencyProviderJreFacts.current(),
+                CurrencyProviderJreFacts.current()
+        );
+    }
+
+    @Test
+    public void testCurrency() {
+        this.checkEquals(
+                Currency.getInstance("CHF"),
+                CurrencyProviderJreFacts.get(this.identity("currency"))
+                        .currency(DE_CH)
+        );
+    }
+
+    @Test
+    public void testCurrencyWithout() {
+        this.checkEquals(
+                null,
+                CurrencyProviderJreFacts.get(this.identity("without"))
+                        .currency(Locale.forLanguageTag("de"))
+        );
+    }
+
+    @Test
+    public void testSymbol() {
+        final CurrencyProviderJreFacts facts = CurrencyProviderJreFacts.get(this.identity("symbol"));
+
+        this.checkEquals(EUR.getSymbol(DE_CH), facts.symbol(EUR, DE_CH), "first");
+        this.checkEquals(EUR.getSymbol(DE_CH), facts.symbol(EUR, DE_CH), "memoized");
+        this.checkEquals(1, facts.symbolCount(), "symbolCount");
+    }
+
+    @Test
+    public void testSymbolManyThreads() throws Exception {
+        final CurrencyProviderJreFacts facts = CurrencyProviderJreFacts.get(this.identity("threads"));
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final Future<?>[] futures = new Future<?>[8];
+            for (int i = 0; i < futures.length; i++) {
+                futures[i] = executor.submit(() -> facts.symbol(EUR, DE_CH));
+            }
+            for (final Future<?> future : futures) {
+                this.checkEquals(EUR.getSymbol(DE_CH), future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        this.checkEquals(1, facts.symbolCount(), "symbolCount");
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIdentityDropped() {
+        final CurrencyProviderJreFacts first = CurrencyProviderJreFacts.get(this.identity("first"));
+
+        for (int i = 0; i < 8; i++) {
+            CurrencyProviderJreFacts.get(this.identity("other" + i));
+        }
+
+        assertNotSame(
+                first,
+                CurrencyProviderJreFacts.get(this.identity("first"))
+        );
+    }
+
+    private String identity(final String suffix) {
+        return this.getClass().getName() + " " + suffix;
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<CurrencyProviderJreFacts> type() {
+        return CurrencyProviderJreFacts.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
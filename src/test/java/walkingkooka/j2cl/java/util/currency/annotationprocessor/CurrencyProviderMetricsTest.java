@@ -0,0 +1,80 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+public final class CurrencyProviderMetricsTest implements ClassTesting<CurrencyProviderMetrics> {
+
+    @Test
+    public void testEmpty() {
+        final CurrencyProviderMetrics metrics = CurrencyProviderMetrics.empty();
+        this.checkEquals(true, metrics.isEmpty(), "isEmpty");
+        this.checkEquals(0L, metrics.totalBytes(), "totalBytes");
+    }
+
+    @Test
+    public void testPhaseAccumulates() {
+        final CurrencyProviderMetrics metrics = CurrencyProviderMetrics.empty();
+        metrics.phase(CurrencyProviderMetrics.INDEX, 1);
+        metrics.phase(CurrencyProviderMetrics.INDEX, 2);
+
+        this.checkEquals(false, metrics.isEmpty(), "isEmpty");
+        this.checkEquals(3L, metrics.phases().get(CurrencyProviderMetrics.INDEX), "index");
+    }
+
+    @Test
+    public void testToString() {
+        this.checkEquals("index 2ms, write 3ms, 25 bytes (header 4, attributes 11, locales 7, symbols 3), largest EUR 15, AUD 6",
+                this.metrics().toString());
+    }
+
+    @Test
+    public void testToJson() {
+        final String json = this.metrics().toJson();
+
+        this.checkEquals(true, json.contains("\"index\": 2000000"), json);
+        this.checkEquals(true, json.contains("\"headerBytes\": 4"), json);
+        this.checkEquals(true, json.contains("\"totalBytes\": 25"), json);
+        this.checkEquals(true, json.contains("{\"currencyCode\": \"AUD\", \"localeCount\": 1, \"symbolCount\": 0, \"attributesBytes\": 5, \"localesBytes\": 1, \"symbolsBytes\": 0, \"totalBytes\": 6}"), json);
+    }
+
+    private CurrencyProviderMetrics metrics() {
+        final CurrencyProviderMetrics metrics = CurrencyProviderMetrics.empty();
+        metrics.phase(CurrencyProviderMetrics.INDEX, 2_000_000);
+        metrics.phase(CurrencyProviderMetrics.WRITE, 3_000_000);
+        metrics.header(4);
+        metrics.currency("AUD", 1, 0, 5, 1, 0);
+        metrics.currency("EUR", 5, 1, 6, 6, 3);
+        return metrics;
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<CurrencyProviderMetrics> type() {
+        return CurrencyProviderMetrics.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
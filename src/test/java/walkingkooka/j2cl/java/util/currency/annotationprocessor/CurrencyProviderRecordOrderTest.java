@@ -0,0 +1,104 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.j2cl.java.io.string.StringDataInputDataOutput;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.text.Indentation;
+import walkingkooka.text.LineEnding;
+import walkingkooka.text.printer.Printers;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class CurrencyProviderRecordOrderTest implements ClassTesting<CurrencyProviderRecordOrder> {
+
+    private final static Set<String> LANGUAGE_TAGS = Sets.of("en-AU", "en-NZ", "fr-FR", "de-CH", "fr-CH");
+
+    @Test
+    public void testParse() {
+        this.checkEquals(
+                CurrencyProviderRecordOrder.LOCALE_FAMILY,
+                CurrencyProviderRecordOrder.parse(" locale_family ")
+        );
+    }
+
+    @Test
+    public void testParseUnknownFails() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> CurrencyProviderRecordOrder.parse("unknown")
+        );
+    }
+
+    @Test
+    public void testCurrencyCode() throws IOException {
+        this.orderAndCheck(
+                CurrencyProviderRecordOrder.CURRENCY_CODE,
+                "AUD", "CHF", "EUR", "NZD", "XXX"
+        );
+    }
+
+    @Test
+    public void testLocaleFamily() throws IOException {
+        this.orderAndCheck(
+                CurrencyProviderRecordOrder.LOCALE_FAMILY,
+                "CHF", "AUD", "NZD", "EUR", "XXX"
+        );
+    }
+
+    private void orderAndCheck(final CurrencyProviderRecordOrder order,
+                               final String... currencyCodes) throws IOException {
+        final StringBuilder data = new StringBuilder();
+        CurrencyProviderTool.generate(LANGUAGE_TAGS,
+                Sets.of("XXX"),
+                CurrencyProviderToolOptions.DEFAULT
+                        .setRecordOrder(order),
+                StringDataInputDataOutput.output(data::append),
+                Printers.sink(LineEnding.NONE)
+                        .indenting(Indentation.SPACES2));
+
+        this.checkEquals(
+                Lists.of(currencyCodes),
+                new ArrayList<>(
+                        CurrencyProviderDecoder.decode(StringDataInputDataOutput.input(data.toString()))
+                                .keySet()
+                ),
+                order::toString
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<CurrencyProviderRecordOrder> type() {
+        return CurrencyProviderRecordOrder.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
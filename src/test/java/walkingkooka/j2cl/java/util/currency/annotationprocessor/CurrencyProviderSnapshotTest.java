@@ -0,0 +1,274 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.j2cl.java.io.string.StringDataInputDataOutput;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.text.Indentation;
+import walkingkooka.text.LineEnding;
+import walkingkooka.text.printer.Printers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class CurrencyProviderSnapshotTest implements ClassTesting<CurrencyProviderSnapshot> {
+
+    private final static Set<String> GERMAN = Sets.of("de", "de-AT", "de-BE", "de-CH", "de-DE", "de-IT", "de-LI", "de-LU");
+
+    private final static Currency CHF = Currency.getInstance("CHF");
+    private final static Currency EUR = Currency.getInstance("EUR");
+
+    @Test
+    public void testExportAndLoad() throws IOException {
+        final Path file = Files.createTempFile(this.getClass().getSimpleName(), ".bin");
+        try {
+            final CurrencyProviderSource source = new TestCurrencyProviderSource();
+            CurrencyProviderSnapshot.export(source, file);
+
+            final CurrencyProviderSnapshot snapshot = CurrencyProviderSnapshot.load(file);
+
+            this.checkEquals(
+                    source.locales(),
+                    snapshot.locales(),
+                    "locales"
+            );
+            this.checkEquals(
+                    source.currencies(),
+                    snapshot.currencies(),
+                    "currencies"
+            );
+
+            for (final Locale locale : source.locales()) {
+                this.checkEquals(source.currency(locale), snapshot.currency(locale), () -> "currency " + locale);
+                this.checkEquals(source.symbol(CHF, locale), snapshot.symbol(CHF, locale), () -> "CHF symbol " + locale);
+                this.checkEquals(source.symbol(EUR, locale), snapshot.symbol(EUR, locale), () -> "EUR symbol " + locale);
+            }
+
+            this.checkEquals(EUR.getNumericCode(), snapshot.numericCode(EUR), "numericCode");
+            this.checkEquals(EUR.getDefaultFractionDigits(), snapshot.defaultFractionDigits(EUR), "defaultFractionDigits");
+            this.checkEquals(EUR, snapshot.currency("EUR"), "currency code");
+            this.checkEquals(null, snapshot.currency("UNKNOWN"), "unknown currency code");
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testGenerateSameAsSource() throws IOException {
+        final Path file = Files.createTempFile(this.getClass().getSimpleName(), ".bin");
+        try {
+            final CurrencyProviderSource source = new TestCurrencyProviderSource();
+            CurrencyProviderSnapshot.export(source, file);
+
+            this.checkEquals(
+                    generate(source),
+                    generate(CurrencyProviderSnapshot.load(file))
+            );
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testGenerateSkipsLocalesMissingFromSnapshot() throws IOException {
+        final Path file = Files.createTempFile(this.getClass().getSimpleName(), ".bin");
+        try {
+            CurrencyProviderSnapshot.export(new TestCurrencyProviderSource(), file);
+            final CurrencyProviderSnapshot snapshot = CurrencyProviderSnapshot.load(file);
+
+            // fr-FR is a JRE locale but absent from the snapshot
+            final Set<String> languageTags = Sets.ordered();
+            languageTags.addAll(GERMAN);
+            languageTags.add("fr-FR");
+
+            this.checkEquals(
+                    generate(GERMAN, snapshot),
+                    generate(languageTags, snapshot)
+            );
+            this.checkEquals(
+                    GERMAN,
+                    CurrencyProviderTool.languageTags(languageTags, snapshot)
+            );
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static String generate(final CurrencyProviderSource source) throws IOException {
+        return generate(GERMAN, source);
+    }
+
+    private static String generate(final Set<String> languageTags,
+                                   final CurrencyProviderSource source) throws IOException {
+        final StringBuilder data = new StringBuilder();
+        CurrencyProviderTool.generate(languageTags,
+                Sets.of("XXX"),
+                CurrencyProviderToolOptions.DEFAULT
+                        .setSource(source),
+                StringDataInputDataOutput.output(data::append),
+                Printers.sink(LineEnding.NONE)
+                        .indenting(Indentation.SPACES2));
+        return data.toString();
+    }
+
+    @Test
+    public void testMissingLocaleFails() throws IOException {
+        final Path file = Files.createTempFile(this.getClass().getSimpleName(), ".bin");
+        try {
+            CurrencyProviderSnapshot.export(new TestCurrencyProviderSource(), file);
+
+            assertThrows(
+                    IllegalArgumentException.class,
+                    () -> CurrencyProviderSnapshot.load(file)
+                            .symbol(EUR, Locale.forLanguageTag("fr-FR"))
+            );
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testLoadInvalidFails() throws IOException {
+        final Path file = Files.createTempFile(this.getClass().getSimpleName(), ".bin");
+        try {
+            Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+
+            assertThrows(
+                    IllegalArgumentException.class,
+                    () -> CurrencyProviderSnapshot.load(file)
+            );
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testLoadTruncatedMatrixFails() throws IOException {
+        this.loadRewrittenFails(
+                bytes -> Arrays.copyOf(bytes, bytes.length - 2),
+                "symbol matrix ends at"
+        );
+    }
+
+    @Test
+    public void testLoadInvalidSymbolIndexFails() throws IOException {
+        this.loadRewrittenFails(
+                bytes -> {
+                    // the matrix is last, so the last cell becomes the index 0xFFFF
+                    bytes[bytes.length - 2] = (byte) 0xFF;
+                    bytes[bytes.length - 1] = (byte) 0xFF;
+                    return bytes;
+                },
+                "symbol index 65535"
+        );
+    }
+
+    private void loadRewrittenFails(final UnaryOperator<byte[]> rewrite,
+                                    final String message) throws IOException {
+        final Path file = Files.createTempFile(this.getClass().getSimpleName(), ".bin");
+        try {
+            CurrencyProviderSnapshot.export(new TestCurrencyProviderSource(), file);
+            Files.write(file, rewrite.apply(Files.readAllBytes(file)));
+
+            final IllegalArgumentException thrown = assertThrows(
+                    IllegalArgumentException.class,
+                    () -> CurrencyProviderSnapshot.load(file)
+            );
+            this.checkEquals(
+                    true,
+                    thrown.getMessage().startsWith("Invalid snapshot " + file + " " + message),
+                    thrown::getMessage
+            );
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * The JRE limited to the German locales and a few currencies, so exporting is quick.
+     */
+    private final static class TestCurrencyProviderSource implements CurrencyProviderSource {
+
+        @Override
+        public CurrencyProviderSource resolve() {
+            return this;
+        }
+
+        @Override
+        public Set<Locale> locales() {
+            return GERMAN.stream()
+                    .map(Locale::forLanguageTag)
+                    .collect(Collectors.toCollection(Sets::ordered));
+        }
+
+        @Override
+        public Set<Currency> currencies() {
+            return Sets.of(CHF, EUR, Currency.getInstance("XXX"));
+        }
+
+        @Override
+        public Currency currency(final Locale locale) {
+            return CurrencyProviderJreSource.INSTANCE.currency(locale);
+        }
+
+        @Override
+        public Currency currency(final String currencyCode) {
+            return CurrencyProviderJreSource.INSTANCE.currency(currencyCode);
+        }
+
+        @Override
+        public int defaultFractionDigits(final Currency currency) {
+            return currency.getDefaultFractionDigits();
+        }
+
+        @Override
+        public int numericCode(final Currency currency) {
+            return currency.getNumericCode();
+        }
+
+        @Override
+        public String symbol(final Currency currency,
+                             final Locale locale) {
+            return currency.getSymbol(locale);
+        }
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<CurrencyProviderSnapshot> type() {
+        return CurrencyProviderSnapshot.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -19,6 +19,7 @@ package walkingkooka.j2cl.java.util.currency.annotationprocessor;
 
 import org.junit.jupiter.api.Test;
 import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
 import walkingkooka.collect.set.Sets;
 import walkingkooka.collect.set.SortedSets;
 import walkingkooka.j2cl.java.io.string.StringDataInputDataOutput;
@@ -35,10 +36,14 @@ import walkingkooka.text.printer.Printers;
 import java.io.DataInput;
 import java.io.EOFException;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Currency;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -253,15 +258,537 @@ public final class CurrencyProviderToolTest implements ClassTesting<CurrencyProv
                         "// \n" +
                         "\n" +
                         "\n" +
-                        "2,NZD,2,554,NZ$,1,en-NZ,1,$,1,en-NZ");
+                        "1,NZD,2,554,NZ$,1,en-NZ,1,$,1,en-NZ");
+    }
+
+    @Test
+    public void testCurrencyWithUnknownCurrencyCode() throws Exception {
+        this.generateAndCheck("EN-NZ",
+                "???",
+                "// currencyCode=NZD\n" +
+                        "//   defaultFractionDigits=2\n" +
+                        "//   numericCode=554\n" +
+                        "//   defaultSymbol=NZ$\n" +
+                        "//   locales=en-NZ\n" +
+                        "//   $=en-NZ\n" +
+                        "// \n" +
+                        "\n" +
+                        "\n" +
+                        "1,NZD,2,554,NZ$,1,en-NZ,1,$,1,en-NZ");
+    }
+
+    @Test
+    public void testCurrencyDEWildcardStringTable() throws Exception {
+        this.generateAndCheck(
+                "DE*",
+                "",
+                CurrencyProviderToolOptions.DEFAULT
+                        .setFeatures(EnumSet.of(CurrencyProviderFeature.STRING_TABLE)),
+                "// currencyCode=CHF\n" +
+                        "//   defaultFractionDigits=2\n" +
+                        "//   numericCode=756\n" +
+                        "//   defaultSymbol=CHF\n" +
+                        "//   locales=de-CH, de-LI\n" +
+                        "// \n" +
+                        "// currencyCode=EUR\n" +
+                        "//   defaultFractionDigits=2\n" +
+                        "//   numericCode=978\n" +
+                        "//   defaultSymbol=€\n" +
+                        "//   locales=de-AT, de-BE, de-DE, de-IT, de-LU\n" +
+                        "//   EUR=de-CH, de-LI\n" +
+                        "// \n" +
+                        "\n" +
+                        "\n" +
+                        "-2,1," +
+                        "10,de-CH,de-LI,CHF,EUR,de-AT,de-BE,de-DE,de-IT,de-LU,€," +
+                        "2," +
+                        "CHF,2,756,2,2,0,1,0," +
+                        "EUR,2,978,9,5,4,5,6,7,8,1,3,2,0,1"
+        );
+    }
+
+    @Test
+    public void testCurrencyDEGroupedLocales() throws Exception {
+        this.generateAndCheck(
+                GERMAN,
+                "",
+                CurrencyProviderToolOptions.DEFAULT
+                        .setFeatures(EnumSet.of(CurrencyProviderFeature.GROUPED_LOCALES)),
+                GERMAN_COMMENTS +
+                        "-2,2," +
+                        "1,de,7,AT,BE,CH,DE,IT,LI,LU," +
+                        "2," +
+                        "CHF,2,756,CHF,1,de,2,CH,LI,0," +
+                        "EUR,2,978,€,1,de,-3,CH,LI,1,EUR,1,de,2,CH,LI"
+        );
+    }
+
+    @Test
+    public void testCurrencyDEGroupedLocalesStringTable() throws Exception {
+        this.generateAndCheck(
+                GERMAN,
+                "",
+                CurrencyProviderToolOptions.DEFAULT
+                        .setFeatures(EnumSet.of(CurrencyProviderFeature.GROUPED_LOCALES, CurrencyProviderFeature.STRING_TABLE)),
+                GERMAN_COMMENTS +
+                        "-2,3," +
+                        "11,CH,LI,de,AT,BE,CHF,DE,EUR,IT,LU,€," +
+                        "1,2,7,3,4,0,6,8,1,9," +
+                        "2," +
+                        "CHF,2,756,5,1,2,2,0,1,0," +
+                        "EUR,2,978,10,1,2,-3,0,1,1,7,1,2,2,0,1"
+        );
+    }
+
+    @Test
+    public void testCurrencyDEShardsStringTable() throws Exception {
+        final StringBuilder data = new StringBuilder();
+        final Map<String, String> shards = Maps.sorted();
+
+        try (final Printer printer = Printers.stringBuilder(new StringBuilder(), LineEnding.NL)) {
+            CurrencyProviderTool.generate(GERMAN,
+                    Sets.empty(),
+                    CurrencyProviderToolOptions.DEFAULT
+                            .setFeatures(EnumSet.of(CurrencyProviderFeature.STRING_TABLE, CurrencyProviderFeature.SHARDS)),
+                    StringDataInputDataOutput.output(data::append),
+                    shards::put,
+                    CurrencyProviderAnnotationProcessor.comments(printer));
+        }
+
+        this.checkEquals("-2,5," +
+                        "10,de-CH,de-LI,CHF,EUR,de-AT,de-BE,de-DE,de-IT,de-LU,€," +
+                        "2," +
+                        "CHF,2,756,2,0,1," +
+                        "EUR,2,978,5,4,5,6,7,8",
+                data.toString(),
+                "data");
+        final Map<String, String> expected = Maps.sorted();
+        expected.put("CHF", "2,0");
+        expected.put("EUR", "9,1,3,2,0,1");
+
+        this.checkEquals(expected,
+                shards,
+                "shards");
+    }
+
+    @Test
+    public void testShardsWithoutSinkFails() {
+        assertThrows(IllegalArgumentException.class, () -> this.generate(GERMAN,
+                "",
+                CurrencyProviderToolOptions.DEFAULT
+                        .setFeatures(EnumSet.of(CurrencyProviderFeature.SHARDS))));
+    }
+
+    @Test
+    public void testCurrencyDESymbolPool() throws Exception {
+        this.generateAndCheck(
+                GERMAN,
+                "",
+                CurrencyProviderToolOptions.DEFAULT
+                        .setFeatures(EnumSet.of(CurrencyProviderFeature.SYMBOL_POOL)),
+                GERMAN_COMMENTS +
+                        "-2,8," +
+                        "3,CHF,EUR,€," +
+                        "2," +
+                        "CHF,2,756,0,2,de-CH,de-LI,0," +
+                        "EUR,2,978,2,5,de-AT,de-BE,de-DE,de-IT,de-LU,1,1,2,de-CH,de-LI"
+        );
+    }
+
+    @Test
+    public void testCurrencyDESymbolPoolGroupedLocales() throws Exception {
+        this.generateAndCheck(
+                GERMAN,
+                "",
+                CurrencyProviderToolOptions.DEFAULT
+                        .setFeatures(EnumSet.of(CurrencyProviderFeature.SYMBOL_POOL, CurrencyProviderFeature.GROUPED_LOCALES)),
+                GERMAN_COMMENTS +
+                        "-2,10," +
+                        "3,CHF,EUR,€," +
+                        "1,de,7,AT,BE,CH,DE,IT,LI,LU," +
+                        "2," +
+                        "CHF,2,756,0,1,de,2,CH,LI,0," +
+                        "EUR,2,978,2,1,de,-3,CH,LI,1,1,1,de,2,CH,LI"
+        );
+    }
+
+    @Test
+    public void testCurrencyDELanguageSymbols() throws Exception {
+        this.generateAndCheck(
+                GERMAN,
+                "",
+                CurrencyProviderToolOptions.DEFAULT
+                        .setFeatures(EnumSet.of(CurrencyProviderFeature.LANGUAGE_SYMBOLS)),
+                GERMAN_COMMENTS +
+                        "-2,16," +
+                        "2," +
+                        "CHF,2,756,CHF,2,de-CH,de-LI,0,0," +
+                        "EUR,2,978,€,5,de-AT,de-BE,de-DE,de-IT,de-LU,0,1,EUR,2,de-CH,de-LI"
+        );
+    }
+
+    @Test
+    public void testCurrencyDELanguageSymbolsLanguageDefault() throws Exception {
+        this.generateAndCheck(
+                Sets.of("de-AT", "de-CH", "de-LI"),
+                "",
+                CurrencyProviderToolOptions.DEFAULT
+                        .setFeatures(EnumSet.of(CurrencyProviderFeature.LANGUAGE_SYMBOLS)),
+                "// currencyCode=CHF\n" +
+                        "//   defaultFractionDigits=2\n" +
+                        "//   numericCode=756\n" +
+                        "//   defaultSymbol=CHF\n" +
+                        "//   locales=de-CH, de-LI\n" +
+                        "// \n" +
+                        "// currencyCode=EUR\n" +
+                        "//   defaultFractionDigits=2\n" +
+                        "//   numericCode=978\n" +
+                        "//   defaultSymbol=€\n" +
+                        "//   locales=de-AT\n" +
+                        "//   language de=EUR\n" +
+                        "//   €=de-AT\n" +
+                        "// \n" +
+                        "\n" +
+                        "\n" +
+                        "-2,16," +
+                        "2," +
+                        "CHF,2,756,CHF,2,de-CH,de-LI,0,0," +
+                        "EUR,2,978,€,1,de-AT,1,de,EUR,1,€,1,de-AT"
+        );
+    }
+
+    @Test
+    public void testCurrencyDELanguageSymbolsSymbolPool() throws Exception {
+        this.generateAndCheck(
+                GERMAN,
+                "",
+                CurrencyProviderToolOptions.DEFAULT
+                        .setFeatures(EnumSet.of(CurrencyProviderFeature.LANGUAGE_SYMBOLS, CurrencyProviderFeature.SYMBOL_POOL)),
+                GERMAN_COMMENTS +
+                        "-2,24," +
+                        "3,CHF,EUR,€," +
+                        "2," +
+                        "CHF,2,756,0,2,de-CH,de-LI,0,0," +
+                        "EUR,2,978,2,5,de-AT,de-BE,de-DE,de-IT,de-LU,0,1,1,2,de-CH,de-LI"
+        );
+    }
+
+    @Test
+    public void testCurrencyDEOffsetTable() throws Exception {
+        final StringBuilder dataOutput = new StringBuilder();
+        CurrencyProviderTool.generate(GERMAN,
+                Sets.empty(),
+                CurrencyProviderToolOptions.DEFAULT
+                        .setFeatures(EnumSet.of(CurrencyProviderFeature.OFFSET_TABLE)),
+                StringDataInputDataOutput.output(dataOutput::append),
+                Printers.sink(LineEnding.NONE)
+                        .indenting(Indentation.SPACES2));
+
+        final DataInput data = StringDataInputDataOutput.input(dataOutput.toString());
+        this.checkEquals(CurrencyProviderFeature.VERSION, data.readInt(), "version");
+        this.checkEquals(32, data.readInt(), "features");
+        this.checkEquals(2, data.readInt(), "count");
+
+        final String chf = "CHF,2,756,CHF,2,de-CH,de-LI,0";
+        final String eur = "EUR,2,978,€,5,de-AT,de-BE,de-DE,de-IT,de-LU,1,EUR,2,de-CH,de-LI";
+
+        this.checkEquals("CHF", data.readUTF(), "CHF");
+        this.checkEquals(0, data.readInt(), "CHF offset");
+        this.checkEquals(chf.length(), data.readInt(), "CHF length");
+
+        this.checkEquals("EUR", data.readUTF(), "EUR");
+        this.checkEquals(chf.length() + 1, data.readInt(), "EUR offset");
+        this.checkEquals(eur.length(), data.readInt(), "EUR length");
+
+        // records are written directly into DATA after the offset table, offsets start at the first record
+        final String text = dataOutput.toString();
+        this.checkEquals(true, text.endsWith("," + chf + "," + eur), () -> "records at end " + text);
+
+        final int start = text.length() - (chf.length() + 1 + eur.length());
+        this.checkEquals(chf, text.substring(start, start + chf.length()), "CHF record");
+        this.checkEquals(eur, text.substring(start + chf.length() + 1), "EUR record");
+    }
+
+    @Test
+    public void testCurrencyDEOffsetTableMetrics() throws Exception {
+        final CurrencyProviderMetrics metrics = CurrencyProviderMetrics.empty();
+        final StringBuilder dataOutput = new StringBuilder();
+        CurrencyProviderTool.generate(GERMAN,
+                Sets.empty(),
+                CurrencyProviderToolOptions.DEFAULT
+                        .setFeatures(EnumSet.of(CurrencyProviderFeature.OFFSET_TABLE))
+                        .setMetrics(Optional.of(metrics)),
+                StringDataInputDataOutput.output(dataOutput::append),
+                Printers.sink(LineEnding.NONE)
+                        .indenting(Indentation.SPACES2));
+
+        // every counted value includes the separator before it, even the version which has none
+        this.checkEquals(
+                CurrencyProviderDataLiteralWriter.escapedLength(dataOutput) + 1,
+                metrics.totalBytes(),
+                "totalBytes"
+        );
+    }
+
+    @Test
+    public void testCurrencyDELookupColumns() throws Exception {
+        this.generateAndCheck(
+                GERMAN,
+                "",
+                CurrencyProviderToolOptions.DEFAULT
+                        .setFeatures(EnumSet.of(CurrencyProviderFeature.LOOKUP_COLUMNS)),
+                GERMAN_COMMENTS +
+                        "-2,64," +
+                        "2," +
+                        "CHF,EUR,756,978,2,2,0,1," +
+                        "CHF,CHF,2,de-CH,de-LI,0," +
+                        "EUR,€,5,de-AT,de-BE,de-DE,de-IT,de-LU,1,EUR,2,de-CH,de-LI"
+        );
+    }
+
+    @Test
+    public void testCurrencyDELookupColumnsOffsetTable() throws Exception {
+        final StringBuilder dataOutput = new StringBuilder();
+        CurrencyProviderTool.generate(GERMAN,
+                Sets.of("XXX"),
+                CurrencyProviderToolOptions.DEFAULT
+                        .setFeatures(EnumSet.of(CurrencyProviderFeature.LOOKUP_COLUMNS, CurrencyProviderFeature.OFFSET_TABLE)),
+                StringDataInputDataOutput.output(dataOutput::append),
+                Printers.sink(LineEnding.NONE)
+                        .indenting(Indentation.SPACES2));
+
+        final DataInput data = StringDataInputDataOutput.input(dataOutput.toString());
+        this.checkEquals(CurrencyProviderFeature.VERSION, data.readInt(), "version");
+        this.checkEquals(96, data.readInt(), "features");
+        this.checkEquals(3, data.readInt(), "count");
+
+        this.checkEquals("CHF", data.readUTF());
+        this.checkEquals("EUR", data.readUTF());
+        this.checkEquals("XXX", data.readUTF());
+
+        this.checkEquals(756, data.readInt());
+        this.checkEquals(978, data.readInt());
+        this.checkEquals(999, data.readInt());
+
+        this.checkEquals(2, data.readInt());
+        this.checkEquals(2, data.readInt());
+        this.checkEquals(-1, data.readInt());
+
+        this.checkEquals(0, data.readInt());
+        this.checkEquals(1, data.readInt());
+        this.checkEquals(2, data.readInt());
+
+        final int[] offsets = new int[3];
+        final int[] lengths = new int[3];
+        for (int i = 0; i < 3; i++) {
+            offsets[i] = data.readInt();
+            lengths[i] = data.readInt();
+        }
+
+        final String text = dataOutput.toString();
+        final int start = text.length() - (offsets[2] + lengths[2]);
+        this.checkEquals(0, offsets[0], "CHF offset");
+        this.checkEquals("CHF,CHF,2,de-CH,de-LI,0", text.substring(start + offsets[0], start + offsets[0] + lengths[0]), "CHF record");
+        this.checkEquals("CHF", data.readUTF(), "CHF record follows offset table");
+    }
+
+    @Test
+    public void testCurrencyDELocaleHash() throws Exception {
+        this.generateAndCheck(
+                GERMAN,
+                "",
+                CurrencyProviderToolOptions.DEFAULT
+                        .setFeatures(EnumSet.of(CurrencyProviderFeature.LOCALE_HASH)),
+                GERMAN_COMMENTS +
+                        "-2,128," +
+                        "2," +
+                        "7,2,81,0,1,1,0,1,0,1,1," +
+                        "CHF,2,756,CHF,2,de-CH,de-LI,0," +
+                        "EUR,2,978,€,5,de-AT,de-BE,de-DE,de-IT,de-LU,1,EUR,2,de-CH,de-LI"
+        );
+    }
+
+    @Test
+    public void testSymbolPoolAndStringTableFails() {
+        assertThrows(IllegalArgumentException.class, () -> CurrencyProviderToolOptions.DEFAULT
+                .setFeatures(EnumSet.of(CurrencyProviderFeature.SYMBOL_POOL, CurrencyProviderFeature.STRING_TABLE)));
+    }
+
+    @Test
+    public void testCurrencyDECommentLevelSummary() throws Exception {
+        this.generateAndCheck(
+                GERMAN,
+                "",
+                CurrencyProviderToolOptions.DEFAULT
+                        .setCommentLevel(CurrencyProviderCommentLevel.SUMMARY),
+                "// currencyCode=CHF defaultFractionDigits=2 numericCode=756 defaultSymbol=CHF locales=2 symbols=0\n" +
+                        "// currencyCode=EUR defaultFractionDigits=2 numericCode=978 defaultSymbol=€ locales=5 symbols=1\n" +
+                        "\n" +
+                        "\n" +
+                        GERMAN_DATA
+        );
+    }
+
+    @Test
+    public void testCurrencyDECommentLevelNone() throws Exception {
+        this.generateAndCheck(
+                GERMAN,
+                "",
+                CurrencyProviderToolOptions.DEFAULT
+                        .setCommentLevel(CurrencyProviderCommentLevel.NONE),
+                "\n" +
+                        "\n" +
+                        GERMAN_DATA
+        );
+    }
+
+    @Test
+    public void testCurrencyDEOrderIndependent() throws Exception {
+        final Set<String> reversed = Sets.ordered();
+        final List<String> languageTags = new ArrayList<>(GERMAN);
+        for (int i = languageTags.size() - 1; i >= 0; i--) {
+            reversed.add(languageTags.get(i));
+        }
+
+        final Set<String> currencyCodes = Sets.ordered();
+        currencyCodes.add("XXX");
+        currencyCodes.add("AUD");
+
+        final Set<String> reversedCurrencyCodes = Sets.ordered();
+        reversedCurrencyCodes.add("AUD");
+        reversedCurrencyCodes.add("XXX");
+
+        this.checkEquals(
+                this.generateData(GERMAN, currencyCodes),
+                this.generateData(reversed, reversedCurrencyCodes)
+        );
+    }
+
+    private String generateData(final Set<String> languageTags,
+                                final Set<String> currencyCodes) throws IOException {
+        final StringBuilder data = new StringBuilder();
+        CurrencyProviderTool.generate(languageTags,
+                currencyCodes,
+                CurrencyProviderToolOptions.DEFAULT,
+                StringDataInputDataOutput.output(data::append),
+                Printers.sink(LineEnding.NONE)
+                        .indenting(Indentation.SPACES2));
+        return data.toString();
+    }
+
+    @Test
+    public void testCurrencyDECommentLevelNoneStringTable() throws Exception {
+        this.generateAndCheck(
+                GERMAN,
+                "",
+                CurrencyProviderToolOptions.DEFAULT
+                        .setFeatures(EnumSet.of(CurrencyProviderFeature.STRING_TABLE))
+                        .setCommentLevel(CurrencyProviderCommentLevel.NONE),
+                "\n" +
+                        "\n" +
+                        "-2,1," +
+                        "10,de-CH,de-LI,CHF,EUR,de-AT,de-BE,de-DE,de-IT,de-LU,€," +
+                        "2," +
+                        "CHF,2,756,2,2,0,1,0," +
+                        "EUR,2,978,9,5,4,5,6,7,8,1,3,2,0,1"
+        );
+    }
+
+    @Test
+    public void testCurrencyDEMetrics() throws Exception {
+        final CurrencyProviderMetrics metrics = CurrencyProviderMetrics.empty();
+
+        this.generate(GERMAN,
+                "",
+                CurrencyProviderToolOptions.DEFAULT
+                        .setFeatures(EnumSet.of(CurrencyProviderFeature.STRING_TABLE))
+                        .setMetrics(Optional.of(metrics)));
+
+        this.checkEquals(Lists.of(CurrencyProviderMetrics.LOCALES, CurrencyProviderMetrics.INDEX, CurrencyProviderMetrics.RECORDS, CurrencyProviderMetrics.WRITE),
+                new ArrayList<>(metrics.phases().keySet()),
+                "phases");
+        this.checkEquals(67L, metrics.headerBytes(), "headerBytes");
+        this.checkEquals("[CHF 20, EUR 34]",
+                metrics.currencies().toString(),
+                "currencies");
+        this.checkEquals(121L, metrics.totalBytes(), "totalBytes");
+    }
+
+    @Test
+    public void testCurrencyDEParallel() throws Exception {
+        this.generateAndCheck(
+                GERMAN,
+                "XXX",
+                CurrencyProviderToolOptions.DEFAULT
+                        .setParallelism(4),
+                this.generate(GERMAN, "XXX", CurrencyProviderToolOptions.DEFAULT)
+        );
+    }
+
+    @Test
+    public void testAllParallelSameAsSequential() throws Exception {
+        final CurrencyProviderToolOptions options = CurrencyProviderToolOptions.DEFAULT
+                .setFeatures(EnumSet.of(CurrencyProviderFeature.GROUPED_LOCALES, CurrencyProviderFeature.STRING_TABLE));
+
+        this.checkEquals(
+                this.generate("*", "XXX", options),
+                this.generate("*", "XXX", options.setParallelism(8))
+        );
+    }
+
+    @Test
+    public void testParallelismInvalidFails() {
+        assertThrows(IllegalArgumentException.class, () -> CurrencyProviderToolOptions.DEFAULT.setParallelism(0));
+    }
+
+    /**
+     * German locales with a currency, selected without a wildcard so the tests are independent of the JRE.
+     */
+    private final static Set<String> GERMAN = Sets.of("de-AT", "de-BE", "de-CH", "de-DE", "de-IT", "de-LI", "de-LU");
+
+    private final static String GERMAN_DATA = "2,CHF,2,756,CHF,2,de-CH,de-LI,0,EUR,2,978,€,5,de-AT,de-BE,de-DE,de-IT,de-LU,1,EUR,2,de-CH,de-LI";
+
+    private final static String GERMAN_COMMENTS = "// currencyCode=CHF\n" +
+            "//   defaultFractionDigits=2\n" +
+            "//   numericCode=756\n" +
+            "//   defaultSymbol=CHF\n" +
+            "//   locales=de-CH, de-LI\n" +
+            "// \n" +
+            "// currencyCode=EUR\n" +
+            "//   defaultFractionDigits=2\n" +
+            "//   numericCode=978\n" +
+            "//   defaultSymbol=€\n" +
+            "//   locales=de-AT, de-BE, de-DE, de-IT, de-LU\n" +
+            "//   EUR=de-CH, de-LI\n" +
+            "// \n" +
+            "\n" +
+            "\n";
+
+    private void generateAndCheck(final String filter,
+                                  final String currencyCode,
+                                  final String expected) throws Exception {
+        this.generateAndCheck(filter,
+                currencyCode,
+                CurrencyProviderToolOptions.DEFAULT,
+                expected);
     }
 
     private void generateAndCheck(final String filter,
                                   final String currencyCode,
+                                  final CurrencyProviderToolOptions options,
+                                  final String expected) throws Exception {
+        this.checkEquals(expected,
+                generate(filter, currencyCode, options),
+                () -> "filter=" + CharSequences.quoteAndEscape(filter) + " currencyCode=" + CharSequences.quoteAndEscape(currencyCode) + " " + options);
+    }
+
+    private void generateAndCheck(final Set<String> languageTags,
+                                  final String currencyCode,
+                                  final CurrencyProviderToolOptions options,
                                   final String expected) throws Exception {
         this.checkEquals(expected,
-                generate(filter, currencyCode),
-                () -> "filter=" + CharSequences.quoteAndEscape(filter) + " currencyCode=" + CharSequences.quoteAndEscape(currencyCode));
+                generate(languageTags, currencyCode, options),
+                () -> "languageTags=" + languageTags + " currencyCode=" + CharSequences.quoteAndEscape(currencyCode) + " " + options);
     }
 
     @Test
@@ -345,13 +872,30 @@ public final class CurrencyProviderToolTest implements ClassTesting<CurrencyProv
 
     private String generate(final String filter,
                             final String currencyCode) throws Exception {
+        return this.generate(filter,
+                currencyCode,
+                CurrencyProviderToolOptions.DEFAULT);
+    }
+
+    private String generate(final String filter,
+                            final String currencyCode,
+                            final CurrencyProviderToolOptions options) throws Exception {
+        return this.generate(filter.isEmpty() ? Sets.empty() : WalkingkookaLanguageTag.all(filter),
+                currencyCode,
+                options);
+    }
+
+    private String generate(final Set<String> languageTags,
+                            final String currencyCode,
+                            final CurrencyProviderToolOptions options) throws Exception {
         final StringBuilder comments = new StringBuilder();
         final StringBuilder data = new StringBuilder();
         final LineEnding eol = LineEnding.NL;
 
         try (final Printer printer = Printers.stringBuilder(comments, eol)) {
-            CurrencyProviderTool.generate(filter.isEmpty() ? Sets.empty() : WalkingkookaLanguageTag.all(filter),
+            CurrencyProviderTool.generate(languageTags,
                     currencyCode.isEmpty() ? Sets.empty() : Sets.of(currencyCode),
+                    options,
                     StringDataInputDataOutput.output(data::append),
                     CurrencyProviderAnnotationProcessor.comments(printer));
             printer.print(eol);
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.j2cl.locale.WalkingkookaLanguageTag;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.util.Currency;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class CurrencyStringTableTest implements ClassTesting<CurrencyStringTable> {
+
+    private final static Locale DE_AT = Locale.forLanguageTag("de-AT");
+    private final static Locale DE_CH = Locale.forLanguageTag("de-CH");
+    private final static Locale DE_DE = Locale.forLanguageTag("de-DE");
+
+    @Test
+    public void testStrings() {
+        this.checkEquals(
+                Lists.of("EUR", "de-AT", "de-CH", "de-DE", "€"),
+                this.createTable().strings()
+        );
+    }
+
+    @Test
+    public void testStringsMostFrequentFirst() {
+        final CurrencySymbolTable symbols = CurrencySymbolTable.with(WalkingkookaLanguageTag.locales());
+        final CurrencyStringTable table = CurrencyStringTable.with(
+                Lists.of(
+                        CurrencyRecord.withLocales(Currency.getInstance("CHF"),
+                                Sets.of(DE_CH),
+                                Sets.of(DE_CH),
+                                symbols),
+                        CurrencyRecord.withLocales(Currency.getInstance("EUR"),
+                                Sets.of(DE_DE),
+                                Sets.of(DE_CH, DE_DE),
+                                symbols)
+                ),
+                null,
+                null
+        );
+
+        this.checkEquals(
+                "de-CH",
+                table.strings().get(0),
+                () -> "" + table
+        );
+    }
+
+    @Test
+    public void testSymbols() {
+        this.checkEquals(
+                Lists.of("EUR", "€"),
+                CurrencyStringTable.symbols(
+                        Lists.of(
+                                CurrencyRecord.withLocales(Currency.getInstance("EUR"),
+                                        Sets.of(DE_AT, DE_DE),
+                                        Sets.of(DE_AT, DE_CH, DE_DE),
+                                        CurrencySymbolTable.with(WalkingkookaLanguageTag.locales()))
+                        ),
+                        null
+                ).strings()
+        );
+    }
+
+    @Test
+    public void testIndexLocale() {
+        this.checkEquals(1, this.createTable().index(DE_AT));
+    }
+
+    @Test
+    public void testIndexString() {
+        this.checkEquals(4, this.createTable().index("€"));
+    }
+
+    @Test
+    public void testIndexUnknownFails() {
+        assertThrows(IllegalArgumentException.class, () -> this.createTable().index("unknown"));
+    }
+
+    private CurrencyStringTable createTable() {
+        return CurrencyStringTable.with(
+                Lists.of(
+                        CurrencyRecord.withLocales(Currency.getInstance("EUR"),
+                                Sets.of(DE_AT, DE_DE),
+                                Sets.of(DE_AT, DE_CH, DE_DE),
+                                CurrencySymbolTable.with(WalkingkookaLanguageTag.locales()))
+                ),
+                null,
+                null
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<CurrencyStringTable> type() {
+        return CurrencyStringTable.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
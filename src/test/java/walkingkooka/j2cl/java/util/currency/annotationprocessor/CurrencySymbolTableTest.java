@@ -0,0 +1,122 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.currency.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.j2cl.locale.WalkingkookaLanguageTag;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.util.Currency;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public final class CurrencySymbolTableTest implements ClassTesting<CurrencySymbolTable> {
+
+    private final static Currency EUR = Currency.getInstance("EUR");
+
+    @Test
+    public void testSymbol() {
+        final Locale locale = Locale.forLanguageTag("de-DE");
+
+        this.checkEquals(
+                EUR.getSymbol(locale),
+                this.createTable().symbol(EUR, locale)
+        );
+    }
+
+    @Test
+    public void testSymbolCached() {
+        final CurrencySymbolTable table = this.createTable();
+        final Locale locale = Locale.forLanguageTag("en-AU");
+
+        assertSame(
+                table.symbol(EUR, locale),
+                table.symbol(EUR, locale)
+        );
+    }
+
+    @Test
+    public void testJreSourceResolvedOnce() {
+        final CurrencyProviderSource source = CurrencySymbolTable.with(CurrencyProviderJreSource.INSTANCE)
+                .source();
+
+        this.checkEquals(
+                false,
+                CurrencyProviderJreSource.INSTANCE == source,
+                "resolved"
+        );
+        assertSame(
+                source,
+                source.resolve(),
+                "resolve again"
+        );
+        this.checkEquals(
+                EUR.getSymbol(Locale.GERMANY),
+                source.symbol(EUR, Locale.GERMANY)
+        );
+    }
+
+    @Test
+    public void testDefaultSymbol() {
+        this.checkEquals(
+                "€",
+                this.createTable().defaultSymbol(EUR)
+        );
+    }
+
+    @Test
+    public void testSymbolToLocales() {
+        final Locale deCH = Locale.forLanguageTag("de-CH");
+        final Locale deDE = Locale.forLanguageTag("de-DE");
+
+        final Map<String, Set<Locale>> symbolToLocales = this.createTable()
+                .symbolToLocales(EUR, Sets.of(deCH, deDE));
+
+        this.checkEquals(
+                Sets.of(deCH),
+                symbolToLocales.get("EUR"),
+                () -> "" + symbolToLocales
+        );
+        this.checkEquals(
+                Sets.of(deDE),
+                symbolToLocales.get("€"),
+                () -> "" + symbolToLocales
+        );
+    }
+
+    private CurrencySymbolTable createTable() {
+        return CurrencySymbolTable.with(WalkingkookaLanguageTag.locales());
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<CurrencySymbolTable> type() {
+        return CurrencySymbolTable.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}